@@ -26,17 +26,14 @@ public class MainActivity extends AppCompatActivity {
     private Object anonymousSubscriber2 = null;
 
     @Subscribe(
-            observeOn = EventThread.MAIN_THREAD,
-            subscribeOn = EventThread.MAIN_THREAD
+            observeOn = EventThread.MAIN_THREAD
     )
     public void testSubscibePublishDefault(String msg) {
         print(String.format("msg: %s -> %s", msg, Thread.currentThread()));
     }
 
     @Subscribe(
-            // As of version 0.1, the consequent observeOn and subscribeOn are ignored.
             observeOn = EventThread.MAIN_THREAD,
-            subscribeOn = EventThread.MAIN_THREAD,
             tags = {@SubscribeTag("test")}
     )
     public void testSubscibePublishWithTag(String msg) {
@@ -0,0 +1,506 @@
+package net.analizer.rxbuslib.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a {@code <ListenerClass>_RxBusIndex} implementation of
+ * {@code net.analizer.rxbuslib.annotations.SubscriberIndex} for every class declaring methods annotated
+ * with {@code @Subscribe}, {@code @SubscribeReplay} or {@code @SubscribeBehavior}.
+ * <p>
+ * <p>The same rules as the reflection scan of {@code SubscriptionAnnotationProcessor} are applied, but
+ * violations are reported as compile errors. Listener classes the generated index cannot reach, private
+ * ones or ones taking events of classes private to another package, are not indexed: they keep working
+ * through the reflection scan, as anonymous and local classes do, and are reported with a note.
+ */
+public class RxBusIndexProcessor extends AbstractProcessor {
+    private static final String PACKAGE = "net.analizer.rxbuslib";
+    private static final String SUBSCRIBE = PACKAGE + ".annotations.Subscribe";
+    private static final String SUBSCRIBE_REPLAY = PACKAGE + ".annotations.SubscribeReplay";
+    private static final String SUBSCRIBE_BEHAVIOR = PACKAGE + ".annotations.SubscribeBehavior";
+    private static final String SUBSCRIBE_TAG_DEFAULT = "default_RxBus_SubscribeTag";
+    private static final String CLASS_SUFFIX = "_RxBusIndex";
+
+    /**
+     * Annotations in order of precedence, mirroring the reflection scan.
+     */
+    private static final List<String> ANNOTATIONS = Arrays.asList(SUBSCRIBE, SUBSCRIBE_REPLAY, SUBSCRIBE_BEHAVIOR);
+
+    private Elements mElements;
+    private Types mTypes;
+    private Filer mFiler;
+    private Messager mMessager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        mElements = processingEnv.getElementUtils();
+        mTypes = processingEnv.getTypeUtils();
+        mFiler = processingEnv.getFiler();
+        mMessager = processingEnv.getMessager();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new LinkedHashSet<>(ANNOTATIONS);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, List<SubscriberMethodBinding>> listeners = new LinkedHashMap<>();
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.METHOD) {
+                    continue;
+                }
+
+                TypeElement listenerType = (TypeElement) element.getEnclosingElement();
+                if (!listeners.containsKey(listenerType)) {
+                    listeners.put(listenerType, new ArrayList<SubscriberMethodBinding>());
+                }
+            }
+        }
+
+        for (Map.Entry<TypeElement, List<SubscriberMethodBinding>> entry : listeners.entrySet()) {
+            TypeElement listenerType = entry.getKey();
+            List<SubscriberMethodBinding> bindings = entry.getValue();
+            boolean indexable = isAccessible(listenerType);
+            boolean valid = true;
+
+            // walk the class itself so that methods are indexed in declaration order
+            for (Element member : listenerType.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.METHOD) {
+                    SubscriberMethodBinding binding = parseMethod((ExecutableElement) member);
+                    if (binding != null) {
+                        bindings.add(binding);
+                        indexable = indexable && hasAccessibleTypes(listenerType, (ExecutableElement) member, binding);
+                    } else if (findSubscribeAnnotation(member) != null) {
+                        valid = false;
+                    }
+                }
+            }
+
+            if (valid && indexable) {
+                writeIndex(listenerType, bindings);
+            }
+        }
+
+        return false;
+    }
+
+    private AnnotationMirror findSubscribeAnnotation(Element method) {
+        for (String annotationName : ANNOTATIONS) {
+            for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+                TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+                if (type.getQualifiedName().contentEquals(annotationName)) {
+                    return mirror;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the binding of a valid subscriber method, null if the method is not annotated or invalid
+     */
+    private SubscriberMethodBinding parseMethod(ExecutableElement method) {
+        AnnotationMirror annotation = findSubscribeAnnotation(method);
+        if (annotation == null) {
+            return null;
+        }
+
+        TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+        String annotationName = "@" + annotationType.getSimpleName();
+
+        if (method.getParameters().size() != 1) {
+            error(method, "Method %s has %s annotation but requires %d arguments.  Methods must require a single argument.",
+                    method, annotationName, method.getParameters().size());
+            return null;
+        }
+
+        TypeMirror parameterType = mTypes.erasure(method.getParameters().get(0).asType());
+
+        if (!method.getModifiers().contains(Modifier.PUBLIC)) {
+            error(method, "Method %s has %s annotation on %s but is not 'public'.", method, annotationName, parameterType);
+            return null;
+        }
+
+        if (method.getModifiers().contains(Modifier.STATIC)) {
+            error(method, "Method %s has %s annotation but is static.", method, annotationName);
+            return null;
+        }
+
+        String subscriptionType;
+        String annotationQualifiedName = annotationType.getQualifiedName().toString();
+        if (SUBSCRIBE_REPLAY.equals(annotationQualifiedName)) {
+            subscriptionType = "REPLAY";
+        } else if (SUBSCRIBE_BEHAVIOR.equals(annotationQualifiedName)) {
+            subscriptionType = "BEHAVIOR";
+        } else {
+            subscriptionType = "PUBLISH";
+        }
+
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                mElements.getElementValuesWithDefaults(annotation);
+
+        List<String> tags = new ArrayList<>();
+        String observeOn = null;
+        String subscribeOn = null;
+        int replayMaxSize = 0;
+        long replayMaxAgeMillis = 0;
+        String overflow = null;
+        int capacity = 0;
+        boolean batch = false;
+        boolean conflate = false;
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : values.entrySet()) {
+            String name = value.getKey().getSimpleName().toString();
+            if ("tags".equals(name)) {
+                for (Object tag : (List<?>) value.getValue().getValue()) {
+                    tags.add(readTag((AnnotationMirror) ((AnnotationValue) tag).getValue()));
+                }
+            } else if ("observeOn".equals(name)) {
+                observeOn = ((VariableElement) value.getValue().getValue()).getSimpleName().toString();
+            } else if ("subscribeOn".equals(name)) {
+                subscribeOn = ((VariableElement) value.getValue().getValue()).getSimpleName().toString();
+            } else if ("maxSize".equals(name)) {
+                replayMaxSize = (Integer) value.getValue().getValue();
+            } else if ("maxAgeMillis".equals(name)) {
+                replayMaxAgeMillis = (Long) value.getValue().getValue();
+            } else if ("overflow".equals(name)) {
+                overflow = ((VariableElement) value.getValue().getValue()).getSimpleName().toString();
+            } else if ("capacity".equals(name)) {
+                capacity = (Integer) value.getValue().getValue();
+            } else if ("batch".equals(name)) {
+                batch = (Boolean) value.getValue().getValue();
+            } else if ("conflate".equals(name)) {
+                conflate = (Boolean) value.getValue().getValue();
+            }
+        }
+
+        if (replayMaxSize < 0 || replayMaxAgeMillis < 0) {
+            error(method, "Method %s has %s annotation with a negative replay bound.", method, annotationName);
+            return null;
+        }
+
+        if (conflate) {
+            if (!"BUFFER".equals(overflow) && !"LATEST".equals(overflow)) {
+                error(method, "Method %s has %s annotation conflating events but with overflow %s.",
+                        method, annotationName, overflow);
+                return null;
+            }
+            overflow = "LATEST";
+        }
+
+        if (capacity <= 0 && !"BUFFER".equals(overflow) && !"LATEST".equals(overflow)) {
+            error(method, "Method %s has %s annotation with overflow %s but no positive capacity.",
+                    method, annotationName, overflow);
+            return null;
+        }
+
+        String batchType = null;
+        if (batch) {
+            TypeMirror batchClass = findBatchType(method.getParameters().get(0).asType());
+            if (batchClass == null) {
+                error(method, "Method %s has %s(batch = true) annotation but does not take a List of an event"
+                        + " class.", method, annotationName);
+                return null;
+            }
+            batchType = batchClass.toString();
+        }
+
+        TypeMirror eventType = parameterType.getKind().isPrimitive()
+                ? mTypes.boxedClass((PrimitiveType) parameterType).asType()
+                : parameterType;
+
+        return new SubscriberMethodBinding(
+                method.getSimpleName().toString(),
+                parameterType.toString(),
+                eventType.toString(),
+                throwsOnlyExceptions(method),
+                subscriptionType,
+                tags,
+                observeOn,
+                subscribeOn,
+                replayMaxSize,
+                replayMaxAgeMillis,
+                overflow,
+                capacity,
+                batchType
+        );
+    }
+
+    /**
+     * @param parameterType declared type of the parameter of a batch subscriber method
+     * @return the erased element type of a {@code List<E>} parameter, null if the parameter is no such list
+     */
+    private TypeMirror findBatchType(TypeMirror parameterType) {
+        TypeMirror list = mTypes.erasure(mElements.getTypeElement(List.class.getCanonicalName()).asType());
+        if (parameterType.getKind() != TypeKind.DECLARED || !mTypes.isSameType(mTypes.erasure(parameterType), list)) {
+            return null;
+        }
+
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) parameterType).getTypeArguments();
+        if (typeArguments.size() != 1 || typeArguments.get(0).getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        return mTypes.erasure(typeArguments.get(0));
+    }
+
+    /**
+     * The generated index names the event classes of the methods, which must be accessible from the
+     * listener's package.
+     */
+    private boolean hasAccessibleTypes(TypeElement listenerType,
+                                       ExecutableElement method,
+                                       SubscriberMethodBinding binding) {
+        PackageElement packageElement = mElements.getPackageOf(method);
+        TypeMirror parameterType = method.getParameters().get(0).asType();
+        TypeMirror eventClass = binding.batchType != null
+                ? findBatchType(parameterType)
+                : mTypes.erasure(parameterType);
+        if (!isAccessibleFrom(eventClass, packageElement)) {
+            note(listenerType, "Listener class %s is scanned by reflection: method %s takes %s,"
+                    + " which is not accessible from the listener's package.", listenerType, method, eventClass);
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean throwsOnlyExceptions(ExecutableElement method) {
+        TypeMirror exception = mElements.getTypeElement(Exception.class.getCanonicalName()).asType();
+        TypeMirror error = mElements.getTypeElement(Error.class.getCanonicalName()).asType();
+        for (TypeMirror thrownType : method.getThrownTypes()) {
+            if (!mTypes.isAssignable(thrownType, exception) && !mTypes.isAssignable(thrownType, error)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isAccessibleFrom(TypeMirror type, PackageElement packageElement) {
+        while (type.getKind() == TypeKind.ARRAY) {
+            type = ((ArrayType) type).getComponentType();
+        }
+
+        if (type.getKind() != TypeKind.DECLARED) {
+            return true;
+        }
+
+        for (Element element = ((DeclaredType) type).asElement();
+             element.getKind().isClass() || element.getKind().isInterface();
+             element = element.getEnclosingElement()) {
+
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+
+            if (!modifiers.contains(Modifier.PUBLIC) && !mElements.getPackageOf(element).equals(packageElement)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private String readTag(AnnotationMirror subscribeTag) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                : mElements.getElementValuesWithDefaults(subscribeTag).entrySet()) {
+            if ("value".contentEquals(value.getKey().getSimpleName())) {
+                return (String) value.getValue().getValue();
+            }
+        }
+
+        return SUBSCRIBE_TAG_DEFAULT;
+    }
+
+    /**
+     * The generated index lives in the listener's package, so the listener and the classes enclosing it
+     * must not be private.
+     */
+    private boolean isAccessible(TypeElement listenerType) {
+        for (Element element = listenerType;
+             element.getKind().isClass() || element.getKind().isInterface();
+             element = element.getEnclosingElement()) {
+
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                note(listenerType, "Listener class %s is scanned by reflection: a private class cannot be indexed.",
+                        listenerType);
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void writeIndex(TypeElement listenerType, List<SubscriberMethodBinding> bindings) {
+        String packageName = mElements.getPackageOf(listenerType).getQualifiedName().toString();
+        String binaryName = mElements.getBinaryName(listenerType).toString();
+        String indexName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + CLASS_SUFFIX;
+        String listenerName = mTypes.erasure(listenerType.asType()).toString();
+
+        StringBuilder source = new StringBuilder();
+        source.append("// Generated code from rxbuslib-compiler. Do not modify!\n");
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import java.util.Arrays;\n")
+                .append("import java.util.Collections;\n")
+                .append("import java.util.List;\n")
+                .append("import net.analizer.rxbuslib.annotations.SubscriberIndex;\n")
+                .append("import net.analizer.rxbuslib.annotations.SubscriberInvoker;\n")
+                .append("import net.analizer.rxbuslib.annotations.SubscriberMethodInfo;\n")
+                .append("import net.analizer.rxbuslib.annotations.SubscriptionType;\n")
+                .append("import net.analizer.rxbuslib.threads.EventThread;\n")
+                .append("import net.analizer.rxbuslib.threads.OverflowStrategy;\n\n")
+                .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+                .append("public final class ").append(indexName).append(" implements SubscriberIndex {\n")
+                .append("    private static final List<SubscriberMethodInfo> SUBSCRIBER_METHODS =\n")
+                .append("            Collections.unmodifiableList(Arrays.asList(\n");
+
+        for (int i = 0; i < bindings.size(); i++) {
+            SubscriberMethodBinding binding = bindings.get(i);
+            source.append("                    new SubscriberMethodInfo(\n")
+                    .append("                            \"").append(binding.methodName).append("\",\n")
+                    .append("                            ").append(binding.parameterType).append(".class,\n")
+                    .append("                            SubscriptionType.").append(binding.subscriptionType).append(",\n")
+                    .append("                            new String[]{");
+            for (int t = 0; t < binding.tags.size(); t++) {
+                source.append(t == 0 ? "" : ", ").append(toStringLiteral(binding.tags.get(t)));
+            }
+            source.append("},\n")
+                    .append("                            EventThread.").append(binding.observeOn).append(",\n")
+                    .append("                            EventThread.").append(binding.subscribeOn).append(",\n");
+            if (binding.directCall) {
+                source.append("                            new SubscriberInvoker() {\n")
+                        .append("                                @Override\n")
+                        .append("                                public void invoke(Object listener, Object event) throws Exception {\n")
+                        .append("                                    ((").append(listenerName).append(") listener).")
+                        .append(binding.methodName).append("(").append(binding.argument("event")).append(");\n")
+                        .append("                                }\n")
+                        .append("                            })");
+            } else {
+                source.append("                            null)");
+            }
+            if (binding.replayMaxSize > 0 || binding.replayMaxAgeMillis > 0) {
+                source.append("\n                            .withReplayBounds(")
+                        .append(binding.replayMaxSize).append(", ")
+                        .append(binding.replayMaxAgeMillis).append("L)");
+            }
+            if (!"BUFFER".equals(binding.overflow)) {
+                source.append("\n                            .withOverflow(OverflowStrategy.")
+                        .append(binding.overflow).append(", ")
+                        .append(binding.capacity).append(")");
+            }
+            if (binding.batchType != null) {
+                source.append("\n                            .withBatch(")
+                        .append(binding.batchType).append(".class)");
+            }
+            source.append(i < bindings.size() - 1 ? ",\n" : "\n");
+        }
+
+        source.append("            ));\n\n")
+                .append("    @Override\n")
+                .append("    public List<SubscriberMethodInfo> getSubscriberMethods() {\n")
+                .append("        return SUBSCRIBER_METHODS;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        String qualifiedIndexName = packageName.isEmpty() ? indexName : packageName + "." + indexName;
+        try {
+            JavaFileObject file = mFiler.createSourceFile(qualifiedIndexName, listenerType);
+            Writer writer = file.openWriter();
+            try {
+                writer.write(source.toString());
+            } finally {
+                writer.close();
+            }
+
+        } catch (IOException e) {
+            error(listenerType, "Unable to write index for %s: %s", listenerType, e.getMessage());
+        }
+    }
+
+    private static String toStringLiteral(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+
+    private void error(Element element, String message, Object... args) {
+        mMessager.printMessage(Diagnostic.Kind.ERROR, String.format(message, args), element);
+    }
+
+    private void note(Element element, String message, Object... args) {
+        mMessager.printMessage(Diagnostic.Kind.NOTE, String.format(message, args), element);
+    }
+}
@@ -0,0 +1,117 @@
+package net.analizer.rxbuslib.compiler;
+
+import java.util.List;
+
+/**
+ * A validated subscriber method found in a listener class, as needed to write its index entry.
+ */
+final class SubscriberMethodBinding {
+
+    /**
+     * Name of the subscription method
+     */
+    final String methodName;
+
+    /**
+     * Source form of the erased parameter type, e.g. {@code int} or {@code java.lang.String}
+     */
+    final String parameterType;
+
+    /**
+     * Source form of the type events of this method are posted as, i.e. the boxed parameter type
+     */
+    final String eventType;
+
+    /**
+     * Whether a direct-call invoker can be generated. Methods declaring checked {@code Throwable}s that
+     * are not {@code Exception}s keep being invoked through reflection.
+     */
+    final boolean directCall;
+
+    /**
+     * Name of the {@code SubscriptionType} constant
+     */
+    final String subscriptionType;
+
+    /**
+     * Tag values, in declaration order
+     */
+    final List<String> tags;
+
+    /**
+     * Name of the {@code EventThread} constant to observe on
+     */
+    final String observeOn;
+
+    /**
+     * Name of the {@code EventThread} constant to subscribe on
+     */
+    final String subscribeOn;
+
+    /**
+     * Maximum number of events replayed to late subscribers, 0 if unbounded
+     */
+    final int replayMaxSize;
+
+    /**
+     * Maximum age in milliseconds of events replayed to late subscribers, 0 if unbounded
+     */
+    final long replayMaxAgeMillis;
+
+    /**
+     * Name of the {@code OverflowStrategy} constant
+     */
+    final String overflow;
+
+    /**
+     * Maximum number of events waiting for the observe thread
+     */
+    final int capacity;
+
+    /**
+     * Source form of the erased class of the events the method receives as a {@code List}, null if it
+     * receives them one at a time
+     */
+    final String batchType;
+
+    /**
+     * @param event name of the variable holding the event
+     * @return the expression passing the event to the subscriber method
+     */
+    String argument(String event) {
+        if (parameterType.equals(eventType)) {
+            return "(" + eventType + ") " + event;
+        }
+
+        // unbox explicitly so that an overload taking the boxed type is never picked instead
+        return "(" + parameterType + ") (" + eventType + ") " + event;
+    }
+
+    SubscriberMethodBinding(String methodName,
+                            String parameterType,
+                            String eventType,
+                            boolean directCall,
+                            String subscriptionType,
+                            List<String> tags,
+                            String observeOn,
+                            String subscribeOn,
+                            int replayMaxSize,
+                            long replayMaxAgeMillis,
+                            String overflow,
+                            int capacity,
+                            String batchType) {
+        this.methodName = methodName;
+        this.parameterType = parameterType;
+        this.eventType = eventType;
+        this.directCall = directCall;
+        this.subscriptionType = subscriptionType;
+        this.tags = tags;
+        this.observeOn = observeOn;
+        this.subscribeOn = subscribeOn;
+        this.replayMaxSize = replayMaxSize;
+        this.replayMaxAgeMillis = replayMaxAgeMillis;
+        this.overflow = overflow;
+        this.capacity = capacity;
+        this.batchType = batchType;
+    }
+}
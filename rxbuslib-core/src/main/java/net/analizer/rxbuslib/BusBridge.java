@@ -0,0 +1,303 @@
+package net.analizer.rxbuslib;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.annotations.SubscriptionType;
+import net.analizer.rxbuslib.bridge.RingFileReader;
+import net.analizer.rxbuslib.bridge.RingFileWriter;
+import net.analizer.rxbuslib.platform.Logger;
+import net.analizer.rxbuslib.platform.Platform;
+import net.analizer.rxbuslib.store.CompactEventSerializer;
+import net.analizer.rxbuslib.store.EventSerializer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Connects a {@link RxBus} to the buses of other processes through memory-mapped ring files, without
+ * sockets or binder calls.
+ * <p>
+ * <p>Each process writes the events posted on its bus to a ring file of its own, and follows the ring
+ * files of the others with a reader thread per file, which posts the events it reads to the local
+ * subscribers. Events coming from another process are not written back, so two processes may follow
+ * each other. An idle reader thread spins briefly before parking, which keeps delivery within
+ * microseconds under load and costs no CPU when nothing is posted.
+ * <p>
+ * <p>The writer never waits for readers: a reader falling a whole ring behind loses the events it
+ * missed, see {@link #getLostBytes()}. Readers start at the end of the ring, so events posted before a
+ * process started following a ring are not delivered to it.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class BusBridge implements Closeable {
+    private static final String TAG = "RxBus";
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long OPEN_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final RxBus mBus;
+    private final EventSerializer mSerializer;
+    private final RingFileWriter mWriter;
+
+    /**
+     * Tags written to the ring file, empty to write all of them.
+     */
+    private final Set<String> mTags;
+
+    private final List<Follower> mFollowers = new ArrayList<>();
+    private volatile boolean mClosed;
+
+    private BusBridge(@NonNull RxBus bus,
+                      @NonNull EventSerializer serializer,
+                      RingFileWriter writer,
+                      @NonNull Set<String> tags) {
+        this.mBus = bus;
+        this.mSerializer = serializer;
+        this.mWriter = writer;
+        this.mTags = tags;
+    }
+
+    /**
+     * @return TRUE if the events posted on the tag are written to the ring file of this process
+     */
+    boolean mirrors(@NonNull String tag) {
+        return mWriter != null && !mClosed && (mTags.isEmpty() || mTags.contains(tag));
+    }
+
+    /**
+     * Write an event posted on the local bus to the ring file of this process.
+     */
+    void mirror(@SubscriptionType int subscriptionType, @NonNull String tag, @NonNull Object event) {
+        if (!mirrors(tag)) {
+            return;
+        }
+
+        try {
+            if (!mWriter.write(subscriptionType, tag, mSerializer.serialize(event))) {
+                logger().error(TAG, "Event " + event + " on tag " + tag + " is too large for the bridge ring");
+            }
+        } catch (IOException e) {
+            logger().error(TAG, "Failed to bridge " + event + " on tag " + tag + ": " + e);
+        }
+    }
+
+    /**
+     * @return number of bytes of the followed ring files the reader threads fell too far behind to read
+     */
+    public long getLostBytes() {
+        long lostBytes = 0;
+        for (Follower follower : mFollowers) {
+            lostBytes += follower.lostBytes;
+        }
+
+        return lostBytes;
+    }
+
+    /**
+     * Stop writing the events of the bus, wait for the reader threads to stop and release the mappings of
+     * the ring files. When called by a subscriber on a reader thread, that thread stops once it returns.
+     */
+    @Override
+    public void close() {
+        mClosed = true;
+        mBus.setBridge(null);
+        for (Follower follower : mFollowers) {
+            LockSupport.unpark(follower.thread);
+        }
+
+        try {
+            for (Follower follower : mFollowers) {
+                if (follower.thread != Thread.currentThread()) {
+                    follower.thread.join();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (mWriter != null) {
+            mWriter.close();
+        }
+    }
+
+    private void start(@NonNull List<File> followedFiles) {
+        for (File file : followedFiles) {
+            Follower follower = new Follower(file);
+            follower.thread = new Thread(follower, "RxBus-bridge-" + file.getName());
+            follower.thread.setDaemon(true);
+            mFollowers.add(follower);
+        }
+
+        mBus.setBridge(this);
+        for (Follower follower : mFollowers) {
+            follower.thread.start();
+        }
+    }
+
+    /**
+     * The logger of the installed platform, looked up on each use so that it follows {@link Platform#install}.
+     */
+    private static Logger logger() {
+        return Platform.get().getLogger();
+    }
+
+    /**
+     * Reader thread of one followed ring file.
+     */
+    private final class Follower implements Runnable, RingFileReader.RecordHandler {
+        private final File mFile;
+        Thread thread;
+        volatile long lostBytes;
+
+        Follower(@NonNull File file) {
+            this.mFile = file;
+        }
+
+        @Override
+        public void run() {
+            RingFileReader reader = open();
+            if (reader == null) {
+                return;
+            }
+
+            try {
+                follow(reader);
+            } finally {
+                reader.close();
+            }
+        }
+
+        private void follow(@NonNull RingFileReader reader) {
+            int idleTries = 0;
+            while (!mClosed) {
+                int read = reader.poll(this);
+                if (lostBytes != reader.getLostBytes()) {
+                    lostBytes = reader.getLostBytes();
+                }
+
+                if (read > 0) {
+                    idleTries = 0;
+                } else if (++idleTries <= SPIN_TRIES) {
+                    // busy spin, the next record is likely a few microseconds away
+                } else if (idleTries <= SPIN_TRIES + YIELD_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        @Override
+        public void onRecord(int subscriptionType, @NonNull String tag, @NonNull byte[] payload) {
+            if (mClosed) {
+                // let the poll return promptly
+                return;
+            }
+
+            Object event;
+            try {
+                event = mSerializer.deserialize(payload);
+            } catch (IOException e) {
+                logger().error(TAG, "Failed to read a bridged event on tag " + tag + ": " + e);
+                return;
+            }
+
+            try {
+                mBus.postLocally(subscriptionType, event, tag);
+            } catch (RuntimeException e) {
+                // e.g. the bus was shut down, the reader thread keeps following for the other events
+                logger().error(TAG, "Failed to post a bridged event " + event + " on tag " + tag + ": " + e);
+            }
+        }
+
+        /**
+         * @return a reader of the ring file once its writer created it, null if the bridge got closed first
+         */
+        private RingFileReader open() {
+            while (!mClosed) {
+                try {
+                    return new RingFileReader(mFile);
+                } catch (FileNotFoundException e) {
+                    LockSupport.parkNanos(this, OPEN_RETRY_NANOS);
+                } catch (IOException e) {
+                    logger().error(TAG, "Failed to follow " + mFile + ": " + e);
+                    return null;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Builds the bridge of a bus. A process writes to at most one ring file, as a ring has a single
+     * writer, and may follow any number of ring files written by other processes.
+     */
+    public static final class Builder {
+        private final RxBus mBus;
+        private final EventSerializer mSerializer;
+        private File mPublishedFile;
+        private int mCapacity;
+        private final Set<String> mTags = new HashSet<>();
+        private final List<File> mFollowedFiles = new ArrayList<>();
+
+        /**
+         * @param bus        Local bus
+         * @param serializer Converts the events to and from bytes, the same in all the connected processes.
+         *                   It reads files other local processes can write, see {@link CompactEventSerializer}.
+         */
+        public Builder(@NonNull RxBus bus, @NonNull EventSerializer serializer) {
+            this.mBus = bus;
+            this.mSerializer = serializer;
+        }
+
+        /**
+         * Write the events posted on the bus to a ring file, for other processes to follow.
+         *
+         * @param file     Ring file, written by this process only
+         * @param capacity Number of bytes of the ring, bounding the size of an event
+         * @param tags     Tags to be written, all of them if none
+         */
+        public Builder publish(@NonNull File file, int capacity, @NonNull String... tags) {
+            this.mPublishedFile = file;
+            this.mCapacity = capacity;
+            this.mTags.addAll(Arrays.asList(tags));
+            return this;
+        }
+
+        /**
+         * Post the events written to a ring file by another process on the bus. The ring file does not
+         * need to exist yet: the reader thread waits for its writer to create it.
+         *
+         * @param file Ring file of another process
+         */
+        public Builder follow(@NonNull File file) {
+            this.mFollowedFiles.add(file);
+            return this;
+        }
+
+        /**
+         * Attach the bridge to the bus and start its reader threads.
+         *
+         * @throws IOException if the published ring file cannot be mapped
+         */
+        public BusBridge build() throws IOException {
+            RingFileWriter writer = mPublishedFile != null ? new RingFileWriter(mPublishedFile, mCapacity) : null;
+            BusBridge bridge = new BusBridge(
+                    mBus, mSerializer, writer, Collections.unmodifiableSet(new HashSet<>(mTags))
+            );
+            bridge.start(mFollowedFiles);
+            return bridge;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package net.analizer.rxbuslib;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.annotations.SubscriptionType;
+import net.analizer.rxbuslib.events.ClassRoute;
+import net.analizer.rxbuslib.events.EventType;
+
+/**
+ * A pre-resolved route of a {@link RxBus} for events of one class on one tag.
+ * <p>
+ * <p>Unlike {@link RxBus#post(int, Object, String...)}, posting through a channel does not allocate:
+ * there is no tags array and the event types are computed when the channel is created. The routes of
+ * the event class are resolved by the first post and kept until the routes of its subscribers change,
+ * so events of exactly that class skip the per-class lookup. Only replay subscriptions store each event,
+ * as keeping history is what they are for.
+ * <p>
+ * <p>A channel stays valid across register, unRegister, createSubscription and removeSubscription
+ * calls on its bus, so it can be created once and kept in a field.
+ *
+ * @param <T> class of the events
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Channel<T> {
+    private final RxBus mBus;
+    private final String mTag;
+    private final Class<T> mEventClass;
+
+    private final EventType mPublishType;
+    private final EventType mReplayType;
+    private final EventType mBehaviorType;
+
+    /**
+     * Routes of {@link #mEventClass} resolved by the last post of each type, racing posts resolving
+     * them again at worst.
+     */
+    private volatile ClassRoute mPublishRoute;
+    private volatile ClassRoute mReplayRoute;
+    private volatile ClassRoute mBehaviorRoute;
+
+    Channel(@NonNull RxBus bus, @NonNull String tag, @NonNull Class<T> eventClass) {
+        this.mBus = bus;
+        this.mTag = tag;
+        this.mEventClass = eventClass;
+        this.mPublishType = new EventType(SubscriptionType.PUBLISH, tag);
+        this.mReplayType = new EventType(SubscriptionType.REPLAY, tag);
+        this.mBehaviorType = new EventType(SubscriptionType.BEHAVIOR, tag);
+    }
+
+    /**
+     * Post the event to the {@code @Subscribe} subscribers of this channel.
+     */
+    public void publish(@NonNull T event) {
+        mPublishRoute = mBus.emit(mPublishType, mEventClass, event, mPublishRoute);
+    }
+
+    /**
+     * Post the event to the {@code @SubscribeReplay} subscribers of this channel.
+     */
+    public void replay(@NonNull T event) {
+        mReplayRoute = mBus.emit(mReplayType, mEventClass, event, mReplayRoute);
+    }
+
+    /**
+     * Post the event to the {@code @SubscribeBehavior} subscribers of this channel.
+     */
+    public void behavior(@NonNull T event) {
+        mBehaviorRoute = mBus.emit(mBehaviorType, mEventClass, event, mBehaviorRoute);
+    }
+
+    public String getTag() {
+        return mTag;
+    }
+
+    public Class<T> getEventClass() {
+        return mEventClass;
+    }
+
+    @Override
+    public String toString() {
+        return "[Channel " + mTag + " " + mEventClass.getName() + "]";
+    }
+}
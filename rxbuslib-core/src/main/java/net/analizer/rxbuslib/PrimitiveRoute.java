@@ -0,0 +1,118 @@
+package net.analizer.rxbuslib;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.annotations.SubscriptionType;
+import net.analizer.rxbuslib.events.EventType;
+import net.analizer.rxbuslib.interfaces.DoubleSubscriber;
+import net.analizer.rxbuslib.interfaces.IntSubscriber;
+import net.analizer.rxbuslib.interfaces.LongSubscriber;
+import net.analizer.rxbuslib.platform.Platform;
+
+import java.util.Arrays;
+
+/**
+ * The primitive subscribers of one tag, kept in copy-on-write arrays so that posting reads one
+ * volatile field and iterates without locking.
+ */
+final class PrimitiveRoute {
+    private static final String TAG = "RxBus";
+
+    /**
+     * Route of the annotated subscribers receiving the boxed events, resolved once per tag.
+     */
+    final EventType publishType;
+
+    private volatile IntSubscriber[] mIntSubscribers = new IntSubscriber[0];
+    private volatile LongSubscriber[] mLongSubscribers = new LongSubscriber[0];
+    private volatile DoubleSubscriber[] mDoubleSubscribers = new DoubleSubscriber[0];
+
+    PrimitiveRoute(@NonNull String tag) {
+        this.publishType = new EventType(SubscriptionType.PUBLISH, tag);
+    }
+
+    void postInt(int event) {
+        for (IntSubscriber subscriber : mIntSubscribers) {
+            try {
+                subscriber.onInt(event);
+            } catch (Exception e) {
+                logError(e);
+            }
+        }
+    }
+
+    void postLong(long event) {
+        for (LongSubscriber subscriber : mLongSubscribers) {
+            try {
+                subscriber.onLong(event);
+            } catch (Exception e) {
+                logError(e);
+            }
+        }
+    }
+
+    void postDouble(double event) {
+        for (DoubleSubscriber subscriber : mDoubleSubscribers) {
+            try {
+                subscriber.onDouble(event);
+            } catch (Exception e) {
+                logError(e);
+            }
+        }
+    }
+
+    boolean hasSubscribers() {
+        return mIntSubscribers.length > 0 || mLongSubscribers.length > 0 || mDoubleSubscribers.length > 0;
+    }
+
+    synchronized void addInt(@NonNull IntSubscriber subscriber) {
+        mIntSubscribers = append(mIntSubscribers, subscriber);
+    }
+
+    synchronized void addLong(@NonNull LongSubscriber subscriber) {
+        mLongSubscribers = append(mLongSubscribers, subscriber);
+    }
+
+    synchronized void addDouble(@NonNull DoubleSubscriber subscriber) {
+        mDoubleSubscribers = append(mDoubleSubscribers, subscriber);
+    }
+
+    synchronized void removeInt(@NonNull IntSubscriber subscriber) {
+        mIntSubscribers = remove(mIntSubscribers, subscriber);
+    }
+
+    synchronized void removeLong(@NonNull LongSubscriber subscriber) {
+        mLongSubscribers = remove(mLongSubscribers, subscriber);
+    }
+
+    synchronized void removeDouble(@NonNull DoubleSubscriber subscriber) {
+        mDoubleSubscribers = remove(mDoubleSubscribers, subscriber);
+    }
+
+    private static <T> T[] append(@NonNull T[] subscribers, @NonNull T subscriber) {
+        T[] copy = Arrays.copyOf(subscribers, subscribers.length + 1);
+        copy[subscribers.length] = subscriber;
+        return copy;
+    }
+
+    private static <T> T[] remove(@NonNull T[] subscribers, @NonNull T subscriber) {
+        for (int i = 0; i < subscribers.length; i++) {
+            if (subscribers[i] == subscriber) {
+                T[] copy = Arrays.copyOf(subscribers, subscribers.length - 1);
+                System.arraycopy(subscribers, i + 1, copy, i, subscribers.length - i - 1);
+                return copy;
+            }
+        }
+
+        return subscribers;
+    }
+
+    private static void logError(@NonNull Exception e) {
+        String message = e.getMessage();
+        if (message == null || message.isEmpty()) {
+            message = e.toString();
+        }
+
+        Platform.get().getLogger().error(TAG, message);
+    }
+}
@@ -0,0 +1,1024 @@
+package net.analizer.rxbuslib;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import net.analizer.rxbuslib.annotations.AnnotationProcessor;
+import net.analizer.rxbuslib.annotations.IndexedAnnotationProcessor;
+import net.analizer.rxbuslib.annotations.InvokerStrategy;
+import net.analizer.rxbuslib.annotations.SourceMethod;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.annotations.SubscriptionType;
+import net.analizer.rxbuslib.events.ClassRoute;
+import net.analizer.rxbuslib.events.EventType;
+import net.analizer.rxbuslib.events.SubscriberBehaviorEvent;
+import net.analizer.rxbuslib.events.SubscriberDurableReplayEvent;
+import net.analizer.rxbuslib.events.SubscriberEvent;
+import net.analizer.rxbuslib.events.SubscriberReplayEvent;
+import net.analizer.rxbuslib.interfaces.Bus;
+import net.analizer.rxbuslib.interfaces.DoubleSubscriber;
+import net.analizer.rxbuslib.interfaces.IntSubscriber;
+import net.analizer.rxbuslib.interfaces.LongSubscriber;
+import net.analizer.rxbuslib.metrics.BusMetrics;
+import net.analizer.rxbuslib.metrics.SlowSubscriberDetector;
+import net.analizer.rxbuslib.platform.Logger;
+import net.analizer.rxbuslib.platform.Platform;
+import net.analizer.rxbuslib.store.ReplayLog;
+import net.analizer.rxbuslib.threads.EventDispatcher;
+import net.analizer.rxbuslib.threads.EventDispatchers;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.RingBufferEngine;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+
+@SuppressWarnings("WeakerAccess")
+public class RxBus implements Bus {
+    private static final String TAG = "RxBus";
+    private static final String[] DEFAULT_TAGS = {SubscribeTag.DEFAULT};
+
+    private AnnotationProcessor mAnnotationProcessor;
+    private ThreadEnforcer mEnforcer;
+    private String mIdentifier;
+
+    /**
+     * All registered event subscribers, indexed by event type.
+     */
+    private final ConcurrentMap<EventType, SubscriberEvent> mSubscriberMap;
+
+    /**
+     * Create the dispatchers of the subscribers observing on other threads, batching one scheduler hop per drain.
+     */
+    private final EventDispatchers mDispatchers;
+
+    /**
+     * Whether subscribers of a supertype or interface also receive the events of its subclasses.
+     */
+    private final boolean mEventInheritance;
+
+    /**
+     * Receives the references of weakly registered listeners once they are garbage collected.
+     */
+    private final ReferenceQueue<Object> mCollectedListeners = new ReferenceQueue<>();
+
+    /**
+     * Hands posted events over to dedicated consumer threads, null to emit them on the posting thread.
+     */
+    @Nullable
+    private final RingBufferEngine<SubscriberEvent> mRingBuffer;
+
+    /**
+     * Durable histories of the replay tags that must survive a restart, indexed by tag.
+     */
+    private final Map<String, ReplayLog> mReplayLogs;
+
+    /**
+     * Receives the posts and the subscriber invocations of this bus, null to skip measuring them.
+     */
+    @Nullable
+    private final BusMetrics mMetrics;
+
+    /**
+     * Primitive subscribers and resolved routes of the tags numbers are posted on, indexed by tag.
+     */
+    private final ConcurrentMap<String, PrimitiveRoute> mPrimitiveRoutes = new ConcurrentHashMap<>();
+
+    /**
+     * Writes the posted events to the ring file other processes follow, null if the bus is not bridged.
+     */
+    @Nullable
+    private volatile BusBridge mBridge;
+
+    /**
+     * Creates a new Bus named "default" that enforces actions on the main thread.
+     */
+    public RxBus() {
+        this(DEFAULT_IDENTIFIER);
+    }
+
+    /**
+     * Creates a new Bus with the given {@code mIdentifier} that enforces actions on the main thread.
+     *
+     * @param mIdentifier a brief name for this bus, for debugging purposes.  Should be a valid Java mIdentifier.
+     */
+    public RxBus(String mIdentifier) {
+        this(ThreadEnforcer.MAIN, mIdentifier);
+    }
+
+    /**
+     * Creates a new Bus named "default" with the given {@code mEnforcer} for actions.
+     *
+     * @param mEnforcer Thread mEnforcer for register, unregister, and post actions.
+     */
+    public RxBus(ThreadEnforcer mEnforcer) {
+        this(mEnforcer, DEFAULT_IDENTIFIER);
+    }
+
+    /**
+     * Creates a new Bus with the given {@code mEnforcer} for actions and the given {@code mIdentifier}.
+     *
+     * @param mEnforcer   Thread mEnforcer for register, unregister, and post actions.
+     * @param mIdentifier A brief name for this bus, for debugging purposes.  Should be a valid Java mIdentifier.
+     */
+    public RxBus(ThreadEnforcer mEnforcer, String mIdentifier) {
+        this(mEnforcer, mIdentifier, new IndexedAnnotationProcessor());
+    }
+
+    /**
+     * Creates a new Bus with the given {@code mEnforcer} for actions and the given {@code mIdentifier}
+     * that calls subscriber methods without a generated invoker using the given strategy.
+     *
+     * @param mEnforcer       Thread mEnforcer for register, unregister, and post actions.
+     * @param mIdentifier     A brief name for this bus, for debugging purposes.  Should be a valid Java mIdentifier.
+     * @param invokerStrategy How subscriber methods without a generated invoker are called.
+     */
+    public RxBus(ThreadEnforcer mEnforcer, String mIdentifier, InvokerStrategy invokerStrategy) {
+        this(mEnforcer, mIdentifier, new IndexedAnnotationProcessor(invokerStrategy));
+    }
+
+    /**
+     * Constructor which allows replacing the default {@link AnnotationProcessor}. By default the indexes
+     * generated by rxbuslib-compiler are used, falling back to a reflection scan for classes without one.
+     *
+     * @param mEnforcer           Thread mEnforcer for register, unregister, and post actions.
+     * @param mIdentifier         A brief name for this bus, for debugging purposes.  Should be a valid Java mIdentifier.
+     * @param annotationProcessor Used to discover event subscribers and producers when registering/unregistering an object.
+     */
+    public RxBus(ThreadEnforcer mEnforcer, String mIdentifier, AnnotationProcessor annotationProcessor) {
+        this(mEnforcer, mIdentifier, annotationProcessor, false);
+    }
+
+    /**
+     * Constructor which allows replacing the default {@link AnnotationProcessor} and enabling polymorphic delivery.
+     * With {@code eventInheritance} a subscriber taking a supertype or an interface receives the events of all its
+     * subclasses, the flattened hierarchy of each event class being computed once and cached. Replay and behavior
+     * subscriptions retain an event for the subscribers of a supertype once one of them registered on the tag.
+     * Without {@code eventInheritance}, registering a subscriber taking an interface fails.
+     *
+     * @param mEnforcer           Thread mEnforcer for register, unregister, and post actions.
+     * @param mIdentifier         A brief name for this bus, for debugging purposes.  Should be a valid Java mIdentifier.
+     * @param annotationProcessor Used to discover event subscribers and producers when registering/unregistering an object.
+     * @param eventInheritance    Whether events are also delivered to subscribers of their supertypes and interfaces.
+     */
+    public RxBus(ThreadEnforcer mEnforcer,
+                 String mIdentifier,
+                 AnnotationProcessor annotationProcessor,
+                 boolean eventInheritance) {
+        this(mEnforcer, mIdentifier, annotationProcessor, eventInheritance, 0, 0,
+                Collections.<String, ReplayLog>emptyMap(), null, null, EventDispatchers.DEFAULT_VIRTUAL_CONCURRENCY,
+                Collections.<EventThread, Executor>emptyMap(), false, null);
+    }
+
+    private RxBus(ThreadEnforcer mEnforcer,
+                  String mIdentifier,
+                  AnnotationProcessor annotationProcessor,
+                  boolean eventInheritance,
+                  int ringBufferSize,
+                  int ringBufferConsumers,
+                  Map<String, ReplayLog> replayLogs,
+                  BusMetrics metrics,
+                  SlowSubscriberDetector slowSubscriberDetector,
+                  int virtualConcurrency,
+                  Map<EventThread, Executor> executors,
+                  boolean serialListeners,
+                  Executor listenerExecutor) {
+        this.mEventInheritance = eventInheritance;
+        this.mEnforcer = mEnforcer;
+        this.mIdentifier = mIdentifier;
+        this.mAnnotationProcessor = annotationProcessor;
+        this.mSubscriberMap = new ConcurrentHashMap<>();
+        this.mMetrics = metrics;
+        this.mDispatchers = new EventDispatchers(
+                "RxBus-" + mIdentifier, metrics, slowSubscriberDetector, virtualConcurrency, executors,
+                serialListeners, listenerExecutor
+        );
+        if (ringBufferSize > 0) {
+            this.mRingBuffer = new RingBufferEngine<>(
+                    "RxBus-" + mIdentifier, ringBufferSize, ringBufferConsumers, this::deliver
+            );
+        } else {
+            this.mRingBuffer = null;
+        }
+
+        // durable tags keep logging the events posted while no subscriber is registered
+        this.mReplayLogs = replayLogs;
+        for (String tag : replayLogs.keySet()) {
+            EventType eventType = new EventType(SubscriptionType.REPLAY, tag);
+            mSubscriberMap.put(eventType, createReplayEvent(
+                    eventType, Collections.<SourceMethod>emptyList(), EventThread.MAIN_THREAD, EventThread.NEW_THREAD
+            ));
+        }
+    }
+
+    @Override
+    public void register(@NonNull Object listener) {
+        register(listener, false);
+    }
+
+    @Override
+    public void registerWeakly(@NonNull Object listener) {
+        register(listener, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void register(Object listener, boolean weakly) {
+        if (listener == null) {
+            return;
+        }
+
+        mEnforcer.enforce(this);
+        pruneCollectedListeners();
+
+        if (logger().isDebugEnabled()) {
+            logger().debug(TAG,
+                    "registering "
+                            + listener.toString()
+                            + " (" + String.valueOf(listener.hashCode()) + ")");
+        }
+
+        Map<EventType, List<SourceMethod>> foundSubscribersMap =
+                mAnnotationProcessor.findAllSubscribers(listener);
+        for (Map.Entry<EventType, List<SourceMethod>> entry : foundSubscribersMap.entrySet()) {
+            checkEventClasses(entry.getValue());
+            checkReplayBounds(entry.getKey());
+        }
+
+        if (weakly && !foundSubscribersMap.isEmpty()) {
+            ListenerReference reference = new ListenerReference(listener, mCollectedListeners, foundSubscribersMap);
+            for (List<SourceMethod> methodList : foundSubscribersMap.values()) {
+                for (SourceMethod sourceMethod : methodList) {
+                    sourceMethod.holdWeakly(reference);
+                }
+            }
+        }
+
+        if (!foundSubscribersMap.isEmpty()) {
+
+            // one mailbox for all the methods of the listener, whatever their tags and threads
+            EventDispatcher mailbox = mDispatchers.createListenerMailbox();
+
+            for (EventType eventType : foundSubscribersMap.keySet()) {
+
+                List<SourceMethod> methodList = foundSubscribersMap.get(eventType);
+
+                SubscriberEvent subscriberEvent = mSubscriberMap.get(eventType);
+                if (subscriberEvent == null) {
+                    // Created empty and filled once it is in the map, so that listeners registering
+                    // concurrently for a new event type all end up in the same subscription.
+                    List<SourceMethod> emptyList = Collections.emptyList();
+                    if (eventType.subscriptionType == SubscriptionType.REPLAY) {
+                        subscriberEvent = createReplayEvent(
+                                eventType, emptyList, eventType.observeOnThread, eventType.subscribeOnThread
+                        );
+
+                    } else if (eventType.subscriptionType == SubscriptionType.BEHAVIOR) {
+                        subscriberEvent = new SubscriberBehaviorEvent(
+                                emptyList, eventType.observeOnThread, eventType.subscribeOnThread, mDispatchers
+                        );
+
+                    } else {
+                        subscriberEvent = new SubscriberEvent(
+                                emptyList, eventType.observeOnThread, eventType.subscribeOnThread, mDispatchers
+                        );
+                    }
+
+                    SubscriberEvent existing = mSubscriberMap.putIfAbsent(eventType, subscriberEvent);
+                    if (existing != null) {
+                        subscriberEvent = existing;
+                    }
+                }
+
+                for (SourceMethod sourceMethod : methodList) {
+                    sourceMethod.setTag(eventType.tag);
+                    sourceMethod.setListenerMailbox(mailbox);
+                }
+                subscriberEvent.addMethodIfNotExist(methodList);
+            }
+        }
+    }
+
+    @Override
+    public void unRegister(@NonNull Object listener) {
+
+        if (listener == null) {
+            return;
+        }
+
+        mEnforcer.enforce(this);
+        pruneCollectedListeners();
+
+        for (EventType eventType : mAnnotationProcessor.findAllEventTypes(listener)) {
+            SubscriberEvent subscriberEvent = mSubscriberMap.get(eventType);
+            if (subscriberEvent != null) {
+                subscriberEvent.unRegisterListener(listener);
+            }
+        }
+    }
+
+    @Override
+    public void post(@SubscriptionType int subscriptionType, Object event, @NonNull String... tags) {
+        if (tags == null || tags.length == 0) {
+            tags = DEFAULT_TAGS;
+        }
+
+        BusBridge bridge = mBridge;
+        if (bridge != null && event != null) {
+            for (String tag : tags) {
+                bridge.mirror(subscriptionType, tag, event);
+            }
+        }
+
+        postLocally(subscriptionType, event, tags);
+    }
+
+    /**
+     * Post an event to the subscribers of this bus only, as done for the events read from another process.
+     */
+    void postLocally(@SubscriptionType int subscriptionType, Object event, @NonNull String... tags) {
+        pruneCollectedListeners();
+
+        for (String tag : tags) {
+            EventType eventType = new EventType(subscriptionType, tag);
+            SubscriberEvent subscriberEvent = mSubscriberMap.get(eventType);
+            if (mMetrics != null) {
+                countPost(tag, subscriberEvent, event);
+            }
+
+            if (subscriberEvent != null) {
+
+                if (logger().isDebugEnabled()) {
+                    String type = "";
+                    switch (subscriptionType) {
+                        case SubscriptionType.BEHAVIOR:
+                            type = "BEHAVIOR";
+                            break;
+
+                        case SubscriptionType.NONE:
+                            type = "NONE";
+                            break;
+
+                        case SubscriptionType.PUBLISH:
+                            type = "PUBLISH";
+                            break;
+
+                        case SubscriptionType.REPLAY:
+                            type = "REPLAY";
+                            break;
+                    }
+
+                    logger().debug(TAG, String.format("posting [%s] %s tags %s", event, type, Arrays.toString(tags)));
+                }
+
+                emit(subscriberEvent, event);
+
+            } else if (logger().isDebugEnabled()) {
+                logger().debug(TAG, "There are no subscribers");
+            }
+        }
+    }
+
+    @Override
+    public void postAll(@SubscriptionType int subscriptionType,
+                        @NonNull Collection<?> events,
+                        @NonNull String... tags) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+
+        if (tags == null || tags.length == 0) {
+            tags = DEFAULT_TAGS;
+        }
+
+        BusBridge bridge = mBridge;
+        if (bridge != null) {
+            for (String tag : tags) {
+                for (Object event : events) {
+                    if (event != null) {
+                        bridge.mirror(subscriptionType, tag, event);
+                    }
+                }
+            }
+        }
+
+        pruneCollectedListeners();
+
+        // copied once for all the tags, so the caller may reuse the collection right away
+        EventBatch batch = new EventBatch(Collections.unmodifiableList(new ArrayList<>(events)));
+        for (String tag : tags) {
+            SubscriberEvent subscriberEvent = mSubscriberMap.get(new EventType(subscriptionType, tag));
+            if (mMetrics != null) {
+                for (Object event : batch.events) {
+                    countPost(tag, subscriberEvent, event);
+                }
+            }
+
+            if (subscriberEvent != null) {
+                if (logger().isDebugEnabled()) {
+                    logger().debug(TAG, String.format("posting %d events to tag %s", batch.events.size(), tag));
+                }
+
+                emit(subscriberEvent, batch);
+
+            } else if (logger().isDebugEnabled()) {
+                logger().debug(TAG, "There are no subscribers");
+            }
+        }
+    }
+
+    @Override
+    public void postPublish(@NonNull Object event, @NonNull String... tags) {
+        post(SubscriptionType.PUBLISH, event, tags);
+    }
+
+    @Override
+    public void postReplay(@NonNull Object event, @NonNull String... tags) {
+        post(SubscriptionType.REPLAY, event, tags);
+    }
+
+    @Override
+    public void postBehavior(@NonNull Object event, @NonNull String... tags) {
+        post(SubscriptionType.BEHAVIOR, event, tags);
+    }
+
+    @Override
+    public <T> Channel<T> channel(@NonNull String tag, @NonNull Class<T> eventClass) {
+        return new Channel<>(this, tag, eventClass);
+    }
+
+    @Override
+    public void postInt(@NonNull String tag, int event) {
+        PrimitiveRoute route = getPrimitiveRoute(tag);
+        if (mMetrics != null) {
+            countPrimitivePost(tag, route);
+        }
+
+        route.postInt(event);
+        if (hasBoxedRoute(route)) {
+            emit(route.publishType, event);
+        }
+    }
+
+    @Override
+    public void postLong(@NonNull String tag, long event) {
+        PrimitiveRoute route = getPrimitiveRoute(tag);
+        if (mMetrics != null) {
+            countPrimitivePost(tag, route);
+        }
+
+        route.postLong(event);
+        if (hasBoxedRoute(route)) {
+            emit(route.publishType, event);
+        }
+    }
+
+    @Override
+    public void postDouble(@NonNull String tag, double event) {
+        PrimitiveRoute route = getPrimitiveRoute(tag);
+        if (mMetrics != null) {
+            countPrimitivePost(tag, route);
+        }
+
+        route.postDouble(event);
+        if (hasBoxedRoute(route)) {
+            emit(route.publishType, event);
+        }
+    }
+
+    @Override
+    public Disposable subscribeInt(@NonNull String tag, @NonNull IntSubscriber subscriber) {
+        PrimitiveRoute route = getPrimitiveRoute(tag);
+        route.addInt(subscriber);
+        return Disposables.fromAction(() -> route.removeInt(subscriber));
+    }
+
+    @Override
+    public Disposable subscribeLong(@NonNull String tag, @NonNull LongSubscriber subscriber) {
+        PrimitiveRoute route = getPrimitiveRoute(tag);
+        route.addLong(subscriber);
+        return Disposables.fromAction(() -> route.removeLong(subscriber));
+    }
+
+    @Override
+    public Disposable subscribeDouble(@NonNull String tag, @NonNull DoubleSubscriber subscriber) {
+        PrimitiveRoute route = getPrimitiveRoute(tag);
+        route.addDouble(subscriber);
+        return Disposables.fromAction(() -> route.removeDouble(subscriber));
+    }
+
+    @Override
+    public long getShedCount() {
+        return mDispatchers.getShedCount();
+    }
+
+    @Override
+    public void shutdown() {
+        if (mRingBuffer != null) {
+            mRingBuffer.shutdown();
+        }
+        mDispatchers.shutdown();
+    }
+
+    /**
+     * Emit a single event to the subscribers of the given event type, the event type being resolved by
+     * the caller beforehand.
+     *
+     * @param eventType subscription type and tag of the subscribers
+     * @param event     event to be delivered
+     */
+    void emit(@NonNull EventType eventType, Object event) {
+        SubscriberEvent subscriberEvent = findTarget(eventType, event);
+        if (subscriberEvent != null) {
+            emit(subscriberEvent, event);
+        }
+    }
+
+    /**
+     * Emit a single event to the subscribers of the given event type. This is the allocation-free
+     * path used by {@link Channel}, the event type and the routes of the event class being resolved
+     * by the caller beforehand.
+     *
+     * @param eventType  subscription type and tag of the subscribers
+     * @param eventClass class the routes are resolved for, events of another class are routed on each post
+     * @param event      event to be delivered
+     * @param route      routes resolved by the previous post, null if none
+     * @return the routes of {@code eventClass}, to be passed with the next post, null if none are resolved
+     */
+    @Nullable
+    ClassRoute emit(@NonNull EventType eventType,
+                    @NonNull Class<?> eventClass,
+                    @NonNull Object event,
+                    @Nullable ClassRoute route) {
+        SubscriberEvent subscriberEvent = findTarget(eventType, event);
+        if (subscriberEvent == null) {
+            return null;
+        }
+
+        if (mRingBuffer != null || event.getClass() != eventClass) {
+            emit(subscriberEvent, event);
+            return route;
+        }
+
+        route = subscriberEvent.resolve(eventClass, mEventInheritance, route);
+        subscriberEvent.emit(event, route);
+        return route;
+    }
+
+    /**
+     * Mirror an event to the bridge and count it before it is emitted.
+     *
+     * @return the subscription of the event type, null if there is none
+     */
+    @Nullable
+    private SubscriberEvent findTarget(@NonNull EventType eventType, Object event) {
+        BusBridge bridge = mBridge;
+        if (bridge != null) {
+            bridge.mirror(eventType.subscriptionType, eventType.tag, event);
+        }
+
+        SubscriberEvent subscriberEvent = mSubscriberMap.get(eventType);
+        if (mMetrics != null) {
+            countPost(eventType.tag, subscriberEvent, event);
+        }
+
+        return subscriberEvent;
+    }
+
+    private PrimitiveRoute getPrimitiveRoute(@NonNull String tag) {
+        PrimitiveRoute route = mPrimitiveRoutes.get(tag);
+        if (route == null) {
+            route = new PrimitiveRoute(tag);
+            PrimitiveRoute existing = mPrimitiveRoutes.putIfAbsent(tag, route);
+            if (existing != null) {
+                route = existing;
+            }
+        }
+
+        return route;
+    }
+
+    private void countPost(@NonNull String tag, @Nullable SubscriberEvent subscriberEvent, Object event) {
+        mMetrics.onPost(tag);
+        if (subscriberEvent == null || event == null || !subscriberEvent.hasSubscribers(event, mEventInheritance)) {
+            mMetrics.onDeadPost(tag);
+        }
+    }
+
+    private void countPrimitivePost(@NonNull String tag, @NonNull PrimitiveRoute route) {
+        mMetrics.onPost(tag);
+        if (!route.hasSubscribers() && !hasBoxedRoute(route)) {
+            mMetrics.onDeadPost(tag);
+        }
+    }
+
+    /**
+     * @return TRUE if a number posted on the route must be boxed, for annotated subscribers or another process
+     */
+    private boolean hasBoxedRoute(@NonNull PrimitiveRoute route) {
+        BusBridge bridge = mBridge;
+        return (bridge != null && bridge.mirrors(route.publishType.tag))
+                || mSubscriberMap.containsKey(route.publishType);
+    }
+
+    /**
+     * Remove the subscriber methods of all weakly registered listeners collected since the last call.
+     * Polling the empty queue is a single volatile read, so this is cheap enough to run on every post.
+     */
+    private void pruneCollectedListeners() {
+        Reference<?> reference;
+        while ((reference = mCollectedListeners.poll()) != null) {
+            for (Map.Entry<EventType, List<SourceMethod>> entry
+                    : ((ListenerReference) reference).subscribers.entrySet()) {
+                SubscriberEvent subscriberEvent = mSubscriberMap.get(entry.getKey());
+                if (subscriberEvent != null) {
+                    subscriberEvent.removeMethods(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * The logger of the installed platform, looked up on each use so that it follows {@link Platform#install}.
+     */
+    private static Logger logger() {
+        return Platform.get().getLogger();
+    }
+
+    private void emit(@NonNull SubscriberEvent subscriberEvent, Object event) {
+        if (mRingBuffer != null && event != null) {
+            mRingBuffer.publish(subscriberEvent, event);
+        } else {
+            deliver(subscriberEvent, event);
+        }
+    }
+
+    private void deliver(@NonNull SubscriberEvent subscriberEvent, Object event) {
+        if (event instanceof EventBatch) {
+            List<?> events = ((EventBatch) event).events;
+            if (mEventInheritance) {
+                subscriberEvent.emitAllToHierarchy(events);
+            } else {
+                subscriberEvent.emitAll(events);
+            }
+
+        } else if (mEventInheritance) {
+            subscriberEvent.emitToHierarchy(event);
+        } else {
+            subscriberEvent.emit(event);
+        }
+    }
+
+    @Override
+    public void createSubscription(@NonNull EventType eventType,
+                                   @NonNull List<SourceMethod> methodList,
+                                   @NonNull EventThread observeThread,
+                                   @NonNull EventThread subscribeThread) {
+
+        checkEventClasses(methodList);
+        for (SourceMethod sourceMethod : methodList) {
+            sourceMethod.setTag(eventType.tag);
+        }
+
+        SubscriberEvent subscriberEvent;
+
+        if (eventType.subscriptionType == SubscriptionType.BEHAVIOR) {
+            subscriberEvent = new SubscriberBehaviorEvent(methodList, observeThread, subscribeThread, mDispatchers);
+
+        } else if (eventType.subscriptionType == SubscriptionType.REPLAY) {
+            subscriberEvent = createReplayEvent(eventType, methodList, observeThread, subscribeThread);
+
+        } else {
+            subscriberEvent = new SubscriberEvent(methodList, observeThread, subscribeThread, mDispatchers);
+        }
+
+        mSubscriberMap.put(eventType, subscriberEvent);
+    }
+
+    /**
+     * Without event inheritance events are routed by their concrete class only, so a method taking an
+     * interface would never receive anything.
+     *
+     * @throws IllegalArgumentException if a method takes an interface and the bus has no event inheritance
+     */
+    private void checkEventClasses(@NonNull List<SourceMethod> methodList) {
+        if (mEventInheritance) {
+            return;
+        }
+
+        for (SourceMethod sourceMethod : methodList) {
+            if (sourceMethod.eventClass.isInterface()) {
+                throw new IllegalArgumentException("Method " + sourceMethod.method + " subscribes to "
+                        + sourceMethod.eventClass.getName() + " which is an interface.  Subscription must be on"
+                        + " a concrete class type, unless the bus is created with eventInheritance.");
+            }
+        }
+    }
+
+    /**
+     * Event types are equal whatever their replay bounds, so the subscription of a replay tag keeps the
+     * bounds of the event type it was created with. Methods giving no bounds join it as it is.
+     *
+     * @throws IllegalArgumentException if the methods give the tag other bounds than its subscription has
+     */
+    private void checkReplayBounds(@NonNull EventType eventType) {
+        if (eventType.subscriptionType != SubscriptionType.REPLAY
+                || (eventType.replayMaxSize == 0 && eventType.replayMaxAgeMillis == 0)) {
+            return;
+        }
+
+        SubscriberEvent subscriberEvent = mSubscriberMap.get(eventType);
+        if (subscriberEvent instanceof SubscriberDurableReplayEvent) {
+            logger().warn(TAG, "Replay bounds of tag " + eventType.tag + " are ignored, its replay log"
+                    + " has its own retention.");
+
+        } else if (subscriberEvent instanceof SubscriberReplayEvent) {
+            SubscriberReplayEvent replayEvent = (SubscriberReplayEvent) subscriberEvent;
+            if (replayEvent.getMaxSize() != eventType.replayMaxSize
+                    || replayEvent.getMaxAgeMillis() != eventType.replayMaxAgeMillis) {
+                throw new IllegalArgumentException("Tag " + eventType.tag + " replays up to "
+                        + replayEvent.getMaxSize() + " events of up to " + replayEvent.getMaxAgeMillis()
+                        + " ms (0 for no limit), not " + eventType.replayMaxSize + " events of up to "
+                        + eventType.replayMaxAgeMillis + " ms as its new subscriber asks.");
+            }
+        }
+    }
+
+    /**
+     * @return the replay subscription of the event type, durable if the bus has a log for its tag
+     */
+    private SubscriberEvent createReplayEvent(@NonNull EventType eventType,
+                                              @NonNull List<SourceMethod> methodList,
+                                              @NonNull EventThread observeThread,
+                                              @NonNull EventThread subscribeThread) {
+        ReplayLog log = mReplayLogs.get(eventType.tag);
+        if (log != null) {
+            return new SubscriberDurableReplayEvent(
+                    methodList, observeThread, subscribeThread, mDispatchers, log, mEventInheritance
+            );
+        }
+
+        return new SubscriberReplayEvent(
+                methodList, observeThread, subscribeThread, mDispatchers,
+                eventType.replayMaxSize, eventType.replayMaxAgeMillis
+        );
+    }
+
+    @Override
+    public void removeSubscription(@Nullable EventType eventType) {
+        if (eventType != null) {
+            SubscriberEvent subscriberEvent = mSubscriberMap.get(eventType);
+
+            if (subscriberEvent != null) {
+                subscriberEvent.complete();
+                subscriberEvent.unsubscribe();
+                mSubscriberMap.remove(eventType);
+            }
+
+            return;
+        }
+
+        for (Map.Entry<EventType, SubscriberEvent> entry : mSubscriberMap.entrySet()) {
+            eventType = entry.getKey();
+            SubscriberEvent subscriberEvent = entry.getValue();
+
+            if (subscriberEvent != null) {
+                subscriberEvent.complete();
+                subscriberEvent.unsubscribe();
+                mSubscriberMap.remove(eventType);
+            }
+        }
+    }
+
+    void setBridge(@Nullable BusBridge bridge) {
+        this.mBridge = bridge;
+    }
+
+    ConcurrentMap<EventType, SubscriberEvent> getSubscriptions() {
+        return mSubscriberMap;
+    }
+
+    /**
+     * Builds a bus with non-default options. Unset options have the values of {@link #RxBus()}.
+     */
+    public static final class Builder {
+        private ThreadEnforcer mEnforcer = ThreadEnforcer.MAIN;
+        private String mIdentifier = DEFAULT_IDENTIFIER;
+        private AnnotationProcessor mAnnotationProcessor;
+        private boolean mEventInheritance;
+        private int mRingBufferSize;
+        private int mRingBufferConsumers;
+        private final Map<String, ReplayLog> mReplayLogs = new HashMap<>();
+        private BusMetrics mMetrics;
+        private SlowSubscriberDetector mSlowSubscriberDetector;
+        private int mVirtualConcurrency = EventDispatchers.DEFAULT_VIRTUAL_CONCURRENCY;
+        private final Map<EventThread, Executor> mExecutors = new EnumMap<>(EventThread.class);
+        private boolean mSerialListeners;
+        private Executor mListenerExecutor;
+
+        /**
+         * @param enforcer Thread enforcer for register, unregister, and post actions.
+         */
+        public Builder threadEnforcer(@NonNull ThreadEnforcer enforcer) {
+            this.mEnforcer = enforcer;
+            return this;
+        }
+
+        /**
+         * @param identifier A brief name for this bus, for debugging purposes.  Should be a valid Java identifier.
+         */
+        public Builder identifier(@NonNull String identifier) {
+            this.mIdentifier = identifier;
+            return this;
+        }
+
+        /**
+         * @param annotationProcessor Used to discover event subscribers when registering/unregistering an object.
+         */
+        public Builder annotationProcessor(@NonNull AnnotationProcessor annotationProcessor) {
+            this.mAnnotationProcessor = annotationProcessor;
+            return this;
+        }
+
+        /**
+         * @param eventInheritance Whether events are also delivered to subscribers of their supertypes and interfaces.
+         */
+        public Builder eventInheritance(boolean eventInheritance) {
+            this.mEventInheritance = eventInheritance;
+            return this;
+        }
+
+        /**
+         * Post through a preallocated ring buffer drained by dedicated consumer threads instead of emitting
+         * on the posting thread. Posting then neither allocates nor runs subscribers: those observing on
+         * {@link EventThread#TRAMPOLINE} are invoked on the consumer thread of their tag, the others are
+         * dispatched from there. Events of a tag keep their order, different tags are spread over the consumers.
+         * A subscriber posting to the bus from a consumer thread while the ring is full gets its event
+         * delivered right away rather than waiting. The consumers run until {@link RxBus#shutdown()}.
+         *
+         * @param size      Number of slots, a power of two. Posting waits for a free slot when the ring is full.
+         * @param consumers Number of consumer threads.
+         */
+        public Builder ringBuffer(int size, int consumers) {
+            this.mRingBufferSize = size;
+            this.mRingBufferConsumers = consumers;
+            return this;
+        }
+
+        /**
+         * Keep the history of a replay tag in a durable log instead of the heap, so replay subscribers
+         * registering after a restart of the process still catch up. Events posted on the tag are logged
+         * even while it has no subscriber; the replay bounds of its subscribers are ignored in favor of the
+         * retention limits of the log.
+         *
+         * @param tag Replay tag, see {@link SubscribeTag}
+         * @param log Log of the tag, owned by the caller and used by this bus only
+         */
+        public Builder replayLog(@NonNull String tag, @NonNull ReplayLog log) {
+            this.mReplayLogs.put(tag, log);
+            return this;
+        }
+
+        /**
+         * Count the posts of each tag and time the invocations of each subscriber method. Without metrics,
+         * which is the default, the bus does not call {@link System#nanoTime()} at all.
+         *
+         * @param metrics Receives the activity of the bus, e.g. a {@link net.analizer.rxbuslib.metrics.DefaultBusMetrics}
+         */
+        public Builder metrics(@NonNull BusMetrics metrics) {
+            this.mMetrics = metrics;
+            return this;
+        }
+
+        /**
+         * Flag the subscriber invocations taking longer than a budget. The metrics and the detector share
+         * the timing of each invocation.
+         *
+         * @param detector Flags and keeps the slow invocations, see {@link SlowSubscriberDetector.Builder}
+         */
+        public Builder slowSubscriberDetector(@NonNull SlowSubscriberDetector detector) {
+            this.mSlowSubscriberDetector = detector;
+            return this;
+        }
+
+        /**
+         * Cap the number of {@link EventThread#VIRTUAL} invocations running at once, e.g. to the size of the
+         * connection pool they block on. Deliveries over the cap wait on parked virtual threads.
+         *
+         * @param maxConcurrency Number of invocations running at once, 1024 by default
+         */
+        public Builder virtualThreadConcurrency(int maxConcurrency) {
+            this.mVirtualConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Run the subscribers observing on a thread on an executor of this bus rather than on the
+         * schedulers shared by all the buses, e.g. a {@link net.analizer.rxbuslib.threads.BoundedThreadPool}
+         * to bound the threads and waiting tasks of the bus. {@link EventThread#EXECUTOR} subscribers get a
+         * pool of the bus with a thread per processor by default, shut down along with the bus.
+         *
+         * @param thread   {@link EventThread#NEW_THREAD}, {@link EventThread#IO}, {@link EventThread#COMPUTATION}
+         *                 or {@link EventThread#EXECUTOR}
+         * @param executor Runs the deliveries of the thread, owned by the caller
+         */
+        public Builder executor(@NonNull EventThread thread, @NonNull Executor executor) {
+            switch (thread) {
+                case NEW_THREAD:
+                case IO:
+                case COMPUTATION:
+                case EXECUTOR:
+                    this.mExecutors.put(thread, executor);
+                    return this;
+
+                default:
+                    throw new IllegalArgumentException("No executor can be given for " + thread);
+            }
+        }
+
+        /**
+         * Give each registered listener a serial mailbox, drained by one thread of a pool of the bus at a time.
+         * The methods of a listener observing on a pool thread are then invoked one at a time and in the order
+         * the events were posted, so they need no synchronization, while different listeners run in parallel.
+         * Methods observing on {@link EventThread#MAIN_THREAD} and {@link EventThread#TRAMPOLINE} keep their
+         * thread, and {@link EventThread#VIRTUAL} ones keep their virtual threads so that blocking does not hold
+         * a thread of the pool.
+         * <p>
+         * The pool has one thread per processor and is shut down along with the bus, see
+         * {@link #serialListeners(Executor)} to bring your own.
+         */
+        public Builder serialListeners() {
+            this.mSerialListeners = true;
+            return this;
+        }
+
+        /**
+         * Give each registered listener a serial mailbox, see {@link #serialListeners()}.
+         *
+         * @param executor Drains the mailboxes of the listeners, owned by the caller. A listener blocking in a
+         *                 method holds one of its threads.
+         */
+        public Builder serialListeners(@NonNull Executor executor) {
+            this.mSerialListeners = true;
+            this.mListenerExecutor = executor;
+            return this;
+        }
+
+        public RxBus build() {
+            return new RxBus(
+                    mEnforcer,
+                    mIdentifier,
+                    mAnnotationProcessor != null ? mAnnotationProcessor : new IndexedAnnotationProcessor(),
+                    mEventInheritance,
+                    mRingBufferSize,
+                    mRingBufferConsumers,
+                    new HashMap<>(mReplayLogs),
+                    mMetrics,
+                    mSlowSubscriberDetector,
+                    mVirtualConcurrency,
+                    new EnumMap<>(mExecutors),
+                    mSerialListeners,
+                    mListenerExecutor
+            );
+        }
+    }
+
+    /**
+     * Weak reference to a listener, remembering its subscriber methods for when it gets collected.
+     */
+    private static final class ListenerReference extends WeakReference<Object> {
+        final Map<EventType, List<SourceMethod>> subscribers;
+
+        ListenerReference(@NonNull Object listener,
+                          @NonNull ReferenceQueue<Object> queue,
+                          @NonNull Map<EventType, List<SourceMethod>> subscribers) {
+            super(listener, queue);
+            this.subscribers = subscribers;
+        }
+    }
+
+    /**
+     * The events of a {@link #postAll} call, handed over to the ring buffer as a single event.
+     */
+    private static final class EventBatch {
+        final List<?> events;
+
+        EventBatch(@NonNull List<?> events) {
+            this.events = events;
+        }
+    }
+}
@@ -6,9 +6,18 @@ import net.analizer.rxbuslib.events.EventType;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public interface AnnotationProcessor {
 //    Map<EventType, ProducerEvent> findAllProducers(@NonNull Object listener);
 
     Map<EventType, List<SourceMethod>> findAllSubscribers(@NonNull Object listener);
+
+    /**
+     * @param listener the listener object
+     * @return the event types the listener subscribes to, without binding its methods
+     */
+    default Set<EventType> findAllEventTypes(@NonNull Object listener) {
+        return findAllSubscribers(listener).keySet();
+    }
 }
@@ -0,0 +1,91 @@
+package net.analizer.rxbuslib.annotations;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import net.analizer.rxbuslib.events.EventType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link AnnotationProcessor} backed by the {@link SubscriberIndex} classes generated at build time by
+ * the rxbuslib-compiler annotation processor. Registering a listener does not scan its methods; the
+ * generated index of its class is loaded once per process and its methods are resolved by name.
+ * <p>
+ * <p>Listener classes without a generated index fall back to the reflection scan of
+ * {@link SubscriptionAnnotationProcessor}.
+ */
+public class IndexedAnnotationProcessor implements AnnotationProcessor {
+
+    /**
+     * Subscriber tables found through the generated indexes, shared by all instances.
+     */
+    private static final ListenerDescriptorCache sDescriptors =
+            new ListenerDescriptorCache(IndexedAnnotationProcessor::findSubscriberMethods);
+
+    /**
+     * How methods without a generated invoker are called.
+     */
+    private final InvokerStrategy mInvokerStrategy;
+
+    public IndexedAnnotationProcessor() {
+        this(InvokerStrategy.REFLECTION);
+    }
+
+    /**
+     * @param invokerStrategy how subscriber methods without a generated invoker will be called
+     */
+    public IndexedAnnotationProcessor(@NonNull InvokerStrategy invokerStrategy) {
+        this.mInvokerStrategy = invokerStrategy;
+    }
+
+    @Override
+    public Map<EventType, List<SourceMethod>> findAllSubscribers(@NonNull Object listener) {
+        return sDescriptors.get(listener.getClass(), mInvokerStrategy).bind(listener);
+    }
+
+    @Override
+    public Set<EventType> findAllEventTypes(@NonNull Object listener) {
+        return sDescriptors.get(listener.getClass(), mInvokerStrategy).getEventTypes();
+    }
+
+    private static List<SubscriberMethodInfo> findSubscriberMethods(@NonNull Class<?> listenerClass) {
+        SubscriberIndex index = loadIndex(listenerClass);
+        if (index == null) {
+            return SubscriptionAnnotationProcessor.findSubscriberMethods(listenerClass);
+        }
+
+        List<SubscriberMethodInfo> subscriberMethods = new ArrayList<>();
+        for (SubscriberMethodInfo info : index.getSubscriberMethods()) {
+            try {
+                subscriberMethods.add(info.withMethod(listenerClass.getMethod(info.methodName, info.parameterClass)));
+
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Generated index of " + listenerClass
+                        + " is out of date: " + info + " not found.", e);
+            }
+        }
+
+        return Collections.unmodifiableList(subscriberMethods);
+    }
+
+    @Nullable
+    private static SubscriberIndex loadIndex(@NonNull Class<?> listenerClass) {
+        try {
+            Class<?> indexClass = Class.forName(
+                    listenerClass.getName() + SubscriberIndex.CLASS_SUFFIX, true, listenerClass.getClassLoader()
+            );
+            return (SubscriberIndex) indexClass.newInstance();
+
+        } catch (ClassNotFoundException e) {
+            return null;
+
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException("Unable to create generated index of " + listenerClass, e);
+        }
+    }
+}
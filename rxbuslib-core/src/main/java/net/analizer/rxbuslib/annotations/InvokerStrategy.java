@@ -0,0 +1,26 @@
+package net.analizer.rxbuslib.annotations;
+
+/**
+ * How subscriber methods without a generated invoker are called.
+ *
+ * @see SubscriberInvokers
+ */
+public enum InvokerStrategy {
+    /**
+     * Call {@link java.lang.reflect.Method#invoke} for every event.
+     */
+    REFLECTION,
+
+    /**
+     * Bind each method once into a {@link java.lang.invoke.MethodHandle}.
+     * Requires Android API 26 or a JVM; falls back to {@link #REFLECTION} otherwise.
+     */
+    METHOD_HANDLE,
+
+    /**
+     * Spin a {@link SubscriberInvoker} implementation per method through
+     * {@code java.lang.invoke.LambdaMetafactory}. Only available on a JVM;
+     * falls back to {@link #METHOD_HANDLE} otherwise.
+     */
+    LAMBDA
+}
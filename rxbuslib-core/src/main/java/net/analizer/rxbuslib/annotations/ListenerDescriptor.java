@@ -0,0 +1,115 @@
+package net.analizer.rxbuslib.annotations;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.events.EventType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The validated subscriber table of a listener class: which methods subscribe to which {@link EventType}.
+ * <p>
+ * <p>Descriptors are built once per class and shared by every listener instance and every bus, so
+ * registering a listener only has to bind the table to the instance.
+ */
+public final class ListenerDescriptor {
+
+    /**
+     * Subscriber methods, indexed by event type.
+     */
+    private final Map<EventType, SubscriberMethodInfo[]> mSubscriberMethods;
+
+    ListenerDescriptor(@NonNull List<SubscriberMethodInfo> subscriberMethods) {
+        Map<EventType, List<SubscriberMethodInfo>> methodsByType = new HashMap<>();
+        for (SubscriberMethodInfo info : subscriberMethods) {
+            for (int i = info.tags.length - 1; i >= 0; i--) {
+                EventType eventType = new EventType(
+                        info.subscriptionType, info.tags[i], info.observeOnThread, info.subscribeOnThread,
+                        info.replayMaxSize, info.replayMaxAgeMillis
+                );
+                List<SubscriberMethodInfo> methodList = methodsByType.get(eventType);
+                if (methodList == null) {
+                    methodList = new ArrayList<>();
+                    methodsByType.put(eventType, methodList);
+                }
+                methodList.add(info);
+            }
+        }
+
+        Map<EventType, SubscriberMethodInfo[]> table = new HashMap<>();
+        for (Map.Entry<EventType, List<SubscriberMethodInfo>> entry : methodsByType.entrySet()) {
+            List<SubscriberMethodInfo> methodList = entry.getValue();
+            table.put(withReplayBounds(entry.getKey(), methodList),
+                    methodList.toArray(new SubscriberMethodInfo[methodList.size()]));
+        }
+
+        this.mSubscriberMethods = Collections.unmodifiableMap(table);
+    }
+
+    /**
+     * Event types are equal whatever their replay bounds, so the methods of a tag are keyed by the first
+     * one found. Give the key the bounds of the methods that have some instead.
+     *
+     * @throws IllegalArgumentException if two methods give the tag different bounds
+     */
+    private static EventType withReplayBounds(@NonNull EventType eventType,
+                                              @NonNull List<SubscriberMethodInfo> methodList) {
+        SubscriberMethodInfo bounded = null;
+        for (SubscriberMethodInfo info : methodList) {
+            if (info.replayMaxSize == 0 && info.replayMaxAgeMillis == 0) {
+                continue;
+            }
+
+            if (bounded == null) {
+                bounded = info;
+            } else if (bounded.replayMaxSize != info.replayMaxSize
+                    || bounded.replayMaxAgeMillis != info.replayMaxAgeMillis) {
+                throw new IllegalArgumentException("Methods " + bounded.methodName + " and " + info.methodName
+                        + " give the tag " + eventType.tag + " different replay bounds.");
+            }
+        }
+
+        if (bounded == null || (bounded.replayMaxSize == eventType.replayMaxSize
+                && bounded.replayMaxAgeMillis == eventType.replayMaxAgeMillis)) {
+            return eventType;
+        }
+
+        return new EventType(eventType.subscriptionType, eventType.tag, eventType.observeOnThread,
+                eventType.subscribeOnThread, bounded.replayMaxSize, bounded.replayMaxAgeMillis);
+    }
+
+    /**
+     * @return the event types the listener class subscribes to
+     */
+    public Set<EventType> getEventTypes() {
+        return mSubscriberMethods.keySet();
+    }
+
+    /**
+     * Bind the subscriber table to a listener instance.
+     *
+     * @param listener an instance of the described class
+     * @return the listener's subscriber methods, indexed by event type
+     */
+    public Map<EventType, List<SourceMethod>> bind(@NonNull Object listener) {
+        Map<EventType, List<SourceMethod>> annotatedMethods = new HashMap<>();
+        for (Map.Entry<EventType, SubscriberMethodInfo[]> entry : mSubscriberMethods.entrySet()) {
+            SubscriberMethodInfo[] infos = entry.getValue();
+            List<SourceMethod> methodList = new ArrayList<>(infos.length);
+            for (SubscriberMethodInfo info : infos) {
+                methodList.add(new SourceMethod<>(
+                        info.method, info.parameterClass, listener, info.invoker, info.observeOnThread,
+                        info.overflowStrategy, info.overflowCapacity, info.batchClass
+                ));
+            }
+            annotatedMethods.put(entry.getKey(), methodList);
+        }
+
+        return annotatedMethods;
+    }
+}
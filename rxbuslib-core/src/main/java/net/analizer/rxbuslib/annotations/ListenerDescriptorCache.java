@@ -0,0 +1,58 @@
+package net.analizer.rxbuslib.annotations;
+
+import android.support.annotation.NonNull;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide cache of {@link ListenerDescriptor}s, one per listener class and {@link InvokerStrategy}.
+ * <p>
+ * <p>{@code ClassValue} is not available on Android, so descriptors are kept in concurrent maps;
+ * classes are not unloaded there anyway.
+ */
+final class ListenerDescriptorCache {
+
+    /**
+     * Finds the subscriber methods of a listener class, validating them.
+     */
+    interface Loader {
+        List<SubscriberMethodInfo> load(@NonNull Class<?> listenerClass);
+    }
+
+    private final Loader mLoader;
+    private final Map<InvokerStrategy, ConcurrentMap<Class<?>, ListenerDescriptor>> mDescriptors;
+
+    ListenerDescriptorCache(@NonNull Loader loader) {
+        this.mLoader = loader;
+        this.mDescriptors = new EnumMap<>(InvokerStrategy.class);
+        for (InvokerStrategy strategy : InvokerStrategy.values()) {
+            mDescriptors.put(strategy, new ConcurrentHashMap<Class<?>, ListenerDescriptor>());
+        }
+    }
+
+    /**
+     * @param listenerClass   class of the listener
+     * @param invokerStrategy how methods without a generated invoker will be called
+     * @return the descriptor of the class, built on first use
+     */
+    ListenerDescriptor get(@NonNull Class<?> listenerClass, @NonNull InvokerStrategy invokerStrategy) {
+        ConcurrentMap<Class<?>, ListenerDescriptor> descriptors = mDescriptors.get(invokerStrategy);
+        ListenerDescriptor descriptor = descriptors.get(listenerClass);
+        if (descriptor == null) {
+            descriptor = new ListenerDescriptor(SubscriptionAnnotationProcessor.resolveInvokers(
+                    mLoader.load(listenerClass), invokerStrategy
+            ));
+
+            ListenerDescriptor existing = descriptors.putIfAbsent(listenerClass, descriptor);
+            if (existing != null) {
+                descriptor = existing;
+            }
+        }
+
+        return descriptor;
+    }
+}
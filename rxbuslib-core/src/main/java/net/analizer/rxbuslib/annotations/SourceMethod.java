@@ -0,0 +1,442 @@
+package net.analizer.rxbuslib.annotations;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import net.analizer.rxbuslib.metrics.BusMetrics;
+import net.analizer.rxbuslib.metrics.SlowSubscriberDetector;
+import net.analizer.rxbuslib.platform.Platform;
+import net.analizer.rxbuslib.threads.BoundedMailbox;
+import net.analizer.rxbuslib.threads.ConflatingMailbox;
+import net.analizer.rxbuslib.threads.EventDispatcher;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.OverflowStrategy;
+import net.analizer.rxbuslib.threads.SubscriberMailbox;
+
+import java.lang.ref.Reference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.reactivex.Observer;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.subjects.Subject;
+
+@SuppressWarnings("WeakerAccess")
+public class SourceMethod<T> implements Observer<T> {
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_TO_BOXED = new HashMap<>();
+
+    static {
+        PRIMITIVE_TO_BOXED.put(Integer.TYPE, Integer.class);
+        PRIMITIVE_TO_BOXED.put(Long.TYPE, Long.class);
+        PRIMITIVE_TO_BOXED.put(Character.TYPE, Character.class);
+        PRIMITIVE_TO_BOXED.put(Boolean.TYPE, Boolean.class);
+        PRIMITIVE_TO_BOXED.put(Double.TYPE, Double.class);
+        PRIMITIVE_TO_BOXED.put(Float.TYPE, Float.class);
+        PRIMITIVE_TO_BOXED.put(Byte.TYPE, Byte.class);
+        PRIMITIVE_TO_BOXED.put(Short.TYPE, Short.class);
+    }
+
+    /**
+     * The listener object, null when it is held weakly
+     */
+    public T listener;
+
+    /**
+     * Weak reference to the listener object when it was registered weakly
+     */
+    private Reference<T> mListenerReference;
+
+    /**
+     * Class of the listener object
+     */
+    private final Class<?> mListenerClass;
+
+    /**
+     * The subscription method
+     */
+    public Method method;
+
+    /**
+     * Class type of the method's parameter
+     */
+    public Class<?> parameterClass;
+
+    /**
+     * Class of the events this method receives, i.e. {@link #parameterClass} with primitives boxed.
+     * This is the key of the route the method is subscribed to.
+     */
+    public Class<?> eventClass;
+
+    /**
+     * Whether the method takes a {@code List} of {@link #eventClass} events instead of single events
+     */
+    public final boolean batch;
+
+    /**
+     * Direct-call invoker of {@link #method}, null to invoke it through reflection
+     */
+    public SubscriberInvoker invoker;
+
+    /**
+     * Thread the method is invoked on, null to use the one of the subscription it is added to
+     */
+    public final EventThread observeThread;
+
+    /**
+     * What to do with events waiting for {@link #observeThread} when the method falls behind
+     */
+    public final OverflowStrategy overflowStrategy;
+
+    /**
+     * Maximum number of events waiting for {@link #observeThread}, unless the strategy is {@link OverflowStrategy#BUFFER}
+     */
+    public final int overflowCapacity;
+
+    /**
+     * Delivers events on {@link #observeThread}, set when the method is added to a subscription
+     */
+    private EventDispatcher mDispatcher;
+
+    /**
+     * Serial mailbox shared by the methods of the listener, set when the bus gives listeners one
+     */
+    private EventDispatcher mListenerMailbox;
+
+    /**
+     * Bounded queue of the events waiting for {@link #observeThread}, null if the strategy is {@link OverflowStrategy#BUFFER}
+     */
+    private SubscriberMailbox mMailbox;
+
+    /**
+     * The subscription of the observer
+     */
+    private Disposable mDisposable;
+
+    /**
+     * Tag the method is subscribed to, set when the method is registered on a bus
+     */
+    private String mTag;
+
+    /**
+     * This is the instant id of the parent class or object
+     */
+    public final int instanceId;
+
+    public SourceMethod(@NonNull Method method,
+                        @NonNull Class<?> parameterClass,
+                        @NonNull T listener) {
+        this(method, parameterClass, listener, null);
+    }
+
+    public SourceMethod(@NonNull Method method,
+                        @NonNull Class<?> parameterClass,
+                        @NonNull T listener,
+                        @Nullable SubscriberInvoker invoker) {
+        this(method, parameterClass, listener, invoker, null);
+    }
+
+    public SourceMethod(@NonNull Method method,
+                        @NonNull Class<?> parameterClass,
+                        @NonNull T listener,
+                        @Nullable SubscriberInvoker invoker,
+                        @Nullable EventThread observeThread) {
+        this(method, parameterClass, listener, invoker, observeThread, OverflowStrategy.BUFFER, 0);
+    }
+
+    public SourceMethod(@NonNull Method method,
+                        @NonNull Class<?> parameterClass,
+                        @NonNull T listener,
+                        @Nullable SubscriberInvoker invoker,
+                        @Nullable EventThread observeThread,
+                        @NonNull OverflowStrategy overflowStrategy,
+                        int overflowCapacity) {
+        this(method, parameterClass, listener, invoker, observeThread, overflowStrategy, overflowCapacity, null);
+    }
+
+    /**
+     * @param batchClass class of the events the method receives as a {@code List}, null if it receives
+     *                   them one at a time
+     */
+    public SourceMethod(@NonNull Method method,
+                        @NonNull Class<?> parameterClass,
+                        @NonNull T listener,
+                        @Nullable SubscriberInvoker invoker,
+                        @Nullable EventThread observeThread,
+                        @NonNull OverflowStrategy overflowStrategy,
+                        int overflowCapacity,
+                        @Nullable Class<?> batchClass) {
+
+        if (overflowCapacity <= 0 && overflowStrategy != OverflowStrategy.BUFFER
+                && overflowStrategy != OverflowStrategy.LATEST) {
+            throw new IllegalArgumentException("Method " + method + " needs a positive capacity for " + overflowStrategy);
+        }
+
+        this.method = method;
+        this.observeThread = observeThread;
+        this.overflowStrategy = overflowStrategy;
+        this.overflowCapacity = overflowCapacity;
+        this.invoker = invoker;
+        this.parameterClass = parameterClass;
+        this.eventClass = batchClass != null ? batchClass : boxedClass(parameterClass);
+        this.batch = batchClass != null;
+        this.listener = listener;
+        this.mListenerClass = listener.getClass();
+        this.instanceId = System.identityHashCode(listener);
+    }
+
+    /**
+     * Hold the listener only through the given reference from now on.
+     *
+     * @param reference reference to {@link #listener}
+     */
+    public void holdWeakly(@NonNull Reference<T> reference) {
+        mListenerReference = reference;
+        listener = null;
+    }
+
+    /**
+     * @return the listener object, null if it was held weakly and has been garbage collected
+     */
+    @Nullable
+    public T getListener() {
+        T listener = this.listener;
+        if (listener == null && mListenerReference != null) {
+            listener = mListenerReference.get();
+        }
+
+        return listener;
+    }
+
+    /**
+     * @return class of the listener object
+     */
+    public Class<?> getListenerClass() {
+        return mListenerClass;
+    }
+
+    /**
+     * @return the tag the method is subscribed to, null if it was not registered on a bus
+     */
+    @Nullable
+    public String getTag() {
+        return mTag;
+    }
+
+    /**
+     * Remember the tag the method is subscribed to, reported by the {@link SlowSubscriberDetector}.
+     */
+    public void setTag(@NonNull String tag) {
+        this.mTag = tag;
+    }
+
+    @Override
+    public void onSubscribe(Disposable d) {
+        mDisposable = d;
+    }
+
+    @Override
+    public void onNext(T event) {
+        // The event is routed by its class, so it is always assignable to parameterClass here.
+        EventDispatcher dispatcher = mDispatcher;
+        if (dispatcher == null || dispatcher.isImmediate()) {
+            deliver(event);
+        } else if (mMailbox != null) {
+            mMailbox.offer(event);
+        } else {
+            dispatcher.dispatch(this, event);
+        }
+    }
+
+    @Override
+    public void onError(Throwable e) {
+        // TODO: 9/9/17 handle error SourceMethod
+    }
+
+    @Override
+    public void onComplete() {
+        // TODO: 9/9/17 handle onComplete SourceMethod
+    }
+
+    /**
+     * Map a primitive parameter type to the boxed class events of that type are posted as.
+     *
+     * @param clazz parameter type of the subscription method
+     * @return the boxed class for primitives, otherwise {@code clazz} itself
+     */
+    public static Class<?> boxedClass(@NonNull Class<?> clazz) {
+        if (!clazz.isPrimitive()) {
+            return clazz;
+        }
+
+        Class<?> boxed = PRIMITIVE_TO_BOXED.get(clazz);
+        return boxed != null ? boxed : clazz;
+    }
+
+    /**
+     * Check if the method is a member of that the same class and instance.
+     *
+     * @param listener an instance of a listener class
+     * @return TRUE if this method is a member of the listener class and of the same instance.
+     */
+    public boolean isMemberOf(Object listener) {
+        return mListenerClass == listener.getClass()
+                && instanceId == System.identityHashCode(listener);
+    }
+
+    /**
+     * Deliver the events of this method through the serial mailbox of its listener rather than the
+     * dispatcher of {@link #observeThread}, unless it observes on the main thread, the posting thread or a
+     * virtual thread, see {@link EventDispatcher#isPooled()}.
+     * Must be set before the method is subscribed.
+     *
+     * @param mailbox mailbox shared by the methods of the listener, see {@link EventDispatcher}
+     */
+    public void setListenerMailbox(@Nullable EventDispatcher mailbox) {
+        this.mListenerMailbox = mailbox;
+    }
+
+    /**
+     * Subscribe this method observer to a Subject
+     *
+     * @param subject Subject to be observed
+     * @return Subscription
+     */
+    public Disposable subscribeTo(@NonNull Subject<T> subject) {
+        return subscribeTo(subject, null);
+    }
+
+    /**
+     * Subscribe this method observer to a Subject, delivering events through the given dispatcher
+     *
+     * @param subject    Subject to be observed
+     * @param dispatcher Dispatcher of {@link #observeThread}, null to invoke the method on the posting thread
+     * @return Subscription
+     */
+    public Disposable subscribeTo(@NonNull Subject<T> subject, @Nullable EventDispatcher dispatcher) {
+        if (dispatcher != null && mListenerMailbox != null && dispatcher.isPooled()) {
+            dispatcher = mListenerMailbox;
+        }
+
+        mDispatcher = dispatcher;
+        if (dispatcher != null && overflowStrategy != OverflowStrategy.BUFFER) {
+            mMailbox = overflowStrategy == OverflowStrategy.LATEST
+                    ? new ConflatingMailbox(this, dispatcher)
+                    : new BoundedMailbox(this, dispatcher, overflowStrategy, overflowCapacity);
+        }
+        if (mDisposable == null) {
+            subject.subscribe(this);
+        }
+
+        return mDisposable;
+    }
+
+    /**
+     * @return number of events dropped because the method fell behind, according to its {@link #overflowStrategy}
+     */
+    public long getShedCount() {
+        SubscriberMailbox mailbox = mMailbox;
+        return mailbox != null ? mailbox.getShedCount() : 0;
+    }
+
+    /**
+     * Un-subscribe to the previously subscribed Subject
+     */
+    public void unsubscribe() {
+        if (mDisposable != null && !mDisposable.isDisposed()) {
+            mDisposable.dispose();
+        }
+
+        listener = null;
+        mListenerReference = null;
+        method = null;
+        invoker = null;
+        parameterClass = null;
+        eventClass = null;
+        mDisposable = null;
+        mDispatcher = null;
+        mListenerMailbox = null;
+    }
+
+    /**
+     * Invoke the method with an event, typically queued by its {@link EventDispatcher}.
+     * Events are dropped once the method is unsubscribed or its weakly held listener is collected.
+     *
+     * @param event parameter to be passed into invoking method
+     */
+    public void deliver(Object event) {
+        Object listener = getListener();
+        Method method = this.method;
+        SubscriberInvoker invoker = this.invoker;
+        if (listener == null || method == null) {
+            return;
+        }
+
+        EventDispatcher dispatcher = mDispatcher;
+        BusMetrics metrics = dispatcher != null ? dispatcher.getMetrics() : null;
+        SlowSubscriberDetector detector = dispatcher != null ? dispatcher.getSlowSubscriberDetector() : null;
+        if (metrics == null && detector == null) {
+            invoke(listener, method, invoker, event, null);
+            return;
+        }
+
+        long start = System.nanoTime();
+        invoke(listener, method, invoker, event, metrics);
+        long duration = System.nanoTime() - start;
+        if (metrics != null) {
+            metrics.onInvoke(method, duration);
+        }
+        if (detector != null) {
+            detector.onInvoke(this, event, duration);
+        }
+    }
+
+    /**
+     * Execute the actual method
+     *
+     * @param event   parameter to be passed into invoking method
+     * @param metrics receives the error if the method throws, null if the bus has no metrics
+     */
+    private static void invoke(Object listener,
+                               Method method,
+                               SubscriberInvoker invoker,
+                               Object event,
+                               @Nullable BusMetrics metrics) {
+
+        try {
+            if (invoker != null) {
+                invoker.invoke(listener, event);
+            } else {
+                method.invoke(listener, event);
+            }
+
+        } catch (Exception e) {
+            Throwable cause = e instanceof InvocationTargetException && e.getCause() != null ? e.getCause() : e;
+            String message = cause.getMessage();
+            if (message == null || message.isEmpty()) {
+                message = cause.toString();
+            }
+
+            Platform.get().getLogger().error("RxBus", message);
+            if (metrics != null) {
+                metrics.onError(method, cause);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+
+        if (obj == null || !SourceMethod.class.isAssignableFrom(obj.getClass())) {
+            return false;
+        }
+
+        // has to be the same method of the same object instance
+        SourceMethod sourceMethod = (SourceMethod) obj;
+        return instanceId == sourceMethod.instanceId
+                && method.equals(sourceMethod.method)
+                && parameterClass == sourceMethod.parameterClass
+                && mListenerClass == sourceMethod.mListenerClass;
+    }
+}
@@ -0,0 +1,58 @@
+package net.analizer.rxbuslib.annotations;
+
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.OverflowStrategy;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SubscribeReplay {
+    SubscribeTag[] tags() default {};
+
+    EventThread thread() default EventThread.MAIN_THREAD;
+    /**
+     * Thread the method is invoked on. Main thread methods are invoked right away when posting from the
+     * main thread, other threads receive events in order through one batched scheduler hop per subscriber.
+     */
+    EventThread observeOn() default EventThread.MAIN_THREAD;
+
+    /**
+     * @deprecated Events are pushed by the posting thread, there is no subscription work to move to another
+     * thread. Ignored, see {@link #observeOn()}.
+     */
+    @Deprecated
+    EventThread subscribeOn() default EventThread.NEW_THREAD;
+
+    /**
+     * What to do with events waiting for {@link #observeOn()} when the method falls behind.
+     */
+    OverflowStrategy overflow() default OverflowStrategy.BUFFER;
+
+    /**
+     * Maximum number of events waiting for {@link #observeOn()}, unless {@link #overflow()} is
+     * {@link OverflowStrategy#BUFFER}.
+     */
+    int capacity() default 128;
+
+    /**
+     * Only deliver the newest event waiting for {@link #observeOn()}, skipping the ones the method had no time for.
+     * Same as {@code overflow = OverflowStrategy.LATEST}.
+     */
+    boolean conflate() default false;
+
+    /**
+     * Maximum number of events kept for late subscribers of the tag, 0 for no limit.
+     * The bounds of the first method registered on a tag apply to the whole tag: methods giving none join
+     * its subscription as it is, methods giving other bounds fail to register.
+     */
+    int maxSize() default 0;
+
+    /**
+     * Maximum age in milliseconds of the events kept for late subscribers of the tag, 0 for no limit.
+     */
+    long maxAgeMillis() default 0;
+}
\ No newline at end of file
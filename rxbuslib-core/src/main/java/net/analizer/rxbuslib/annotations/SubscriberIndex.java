@@ -0,0 +1,21 @@
+package net.analizer.rxbuslib.annotations;
+
+import java.util.List;
+
+/**
+ * Subscriber methods of a single listener class, generated at build time by the rxbuslib-compiler
+ * annotation processor as {@code <ListenerClass>_RxBusIndex}.
+ *
+ * @see IndexedAnnotationProcessor
+ */
+public interface SubscriberIndex {
+    /**
+     * Suffix appended to the binary name of a listener class to get the name of its generated index.
+     */
+    String CLASS_SUFFIX = "_RxBusIndex";
+
+    /**
+     * @return the subscriber methods declared by the listener class
+     */
+    List<SubscriberMethodInfo> getSubscriberMethods();
+}
@@ -0,0 +1,15 @@
+package net.analizer.rxbuslib.annotations;
+
+/**
+ * Calls a subscriber method directly, without going through {@link java.lang.reflect.Method#invoke}.
+ * <p>
+ * <p>Implementations are generated by the rxbuslib-compiler annotation processor, one per subscriber method.
+ */
+public interface SubscriberInvoker {
+    /**
+     * @param listener the listener object declaring the method
+     * @param event    the event, already known to be of the method's parameter type
+     * @throws Exception whatever the subscriber method throws
+     */
+    void invoke(Object listener, Object event) throws Exception;
+}
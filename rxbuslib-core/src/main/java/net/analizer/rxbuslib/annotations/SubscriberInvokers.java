@@ -0,0 +1,165 @@
+package net.analizer.rxbuslib.annotations;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates and caches the runtime {@link SubscriberInvoker}s of subscriber methods for each {@link InvokerStrategy}.
+ * Every method is bound once per strategy and shared by all listeners and buses.
+ * <p>
+ * <p>A strategy that is not supported by the runtime falls back to the next simpler one.
+ */
+public final class SubscriberInvokers {
+
+    /**
+     * Cached in place of null for methods that are invoked through reflection.
+     */
+    private static final SubscriberInvoker REFLECTION = (listener, event) -> {
+        throw new UnsupportedOperationException();
+    };
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ConcurrentMap<Method, SubscriberInvoker> sMethodHandleInvokers = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Method, SubscriberInvoker> sLambdaInvokers = new ConcurrentHashMap<>();
+
+    private SubscriberInvokers() {
+    }
+
+    /**
+     * @param strategy how the method should be called
+     * @param method   subscriber method
+     * @return the invoker of the method, or null if it must be called through reflection
+     */
+    @Nullable
+    public static SubscriberInvoker get(@NonNull InvokerStrategy strategy, @NonNull Method method) {
+        SubscriberInvoker invoker;
+        switch (strategy) {
+            case LAMBDA:
+                invoker = sLambdaInvokers.get(method);
+                if (invoker == null) {
+                    invoker = createLambdaInvoker(method);
+                    if (invoker == null) {
+                        invoker = get(InvokerStrategy.METHOD_HANDLE, method);
+                    }
+
+                    sLambdaInvokers.putIfAbsent(method, invoker != null ? invoker : REFLECTION);
+                }
+                break;
+
+            case METHOD_HANDLE:
+                invoker = sMethodHandleInvokers.get(method);
+                if (invoker == null) {
+                    invoker = createMethodHandleInvoker(method);
+                    sMethodHandleInvokers.putIfAbsent(method, invoker != null ? invoker : REFLECTION);
+                }
+                break;
+
+            default:
+                invoker = null;
+                break;
+        }
+
+        return invoker == REFLECTION ? null : invoker;
+    }
+
+    @Nullable
+    private static SubscriberInvoker createMethodHandleInvoker(@NonNull Method method) {
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asType(INVOKER_TYPE);
+            return new MethodHandleInvoker(handle);
+
+        } catch (Throwable e) {
+            // java.lang.invoke is not supported by this runtime or the method cannot be accessed
+            return null;
+        }
+    }
+
+    /**
+     * Spins the invoker through {@code LambdaMetafactory.metafactory}, which is looked up reflectively
+     * as it does not exist on Android.
+     */
+    @Nullable
+    private static SubscriberInvoker createLambdaInvoker(@NonNull Method method) {
+        try {
+            MethodHandles.Lookup lookup = privateLookupIn(method.getDeclaringClass());
+            MethodHandle implementation = lookup.unreflect(method);
+
+            Class<?> metafactoryClass = Class.forName("java.lang.invoke.LambdaMetafactory");
+            MethodHandle metafactory = MethodHandles.publicLookup().findStatic(
+                    metafactoryClass,
+                    "metafactory",
+                    MethodType.methodType(
+                            Class.forName("java.lang.invoke.CallSite"),
+                            MethodHandles.Lookup.class, String.class, MethodType.class,
+                            MethodType.class, MethodHandle.class, MethodType.class
+                    )
+            );
+
+            MethodType instantiatedType = MethodType.methodType(
+                    void.class, method.getDeclaringClass(), SourceMethod.boxedClass(method.getParameterTypes()[0])
+            );
+
+            Object callSite = metafactory.invoke(
+                    lookup,
+                    "invoke",
+                    MethodType.methodType(SubscriberInvoker.class),
+                    INVOKER_TYPE,
+                    implementation,
+                    instantiatedType
+            );
+
+            MethodHandle target = (MethodHandle) callSite.getClass().getMethod("getTarget").invoke(callSite);
+            return (SubscriberInvoker) target.invoke();
+
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Java 9+ can spin the invoker in the listener's own class, so package-private listeners are supported.
+     * Older runtimes only support public listener classes.
+     */
+    private static MethodHandles.Lookup privateLookupIn(@NonNull Class<?> targetClass) throws Exception {
+        try {
+            Method privateLookupIn = MethodHandles.class.getMethod(
+                    "privateLookupIn", Class.class, MethodHandles.Lookup.class
+            );
+            return (MethodHandles.Lookup) privateLookupIn.invoke(null, targetClass, MethodHandles.lookup());
+
+        } catch (NoSuchMethodException e) {
+            return MethodHandles.lookup();
+        }
+    }
+
+    private static final class MethodHandleInvoker implements SubscriberInvoker {
+        private final MethodHandle mHandle;
+
+        MethodHandleInvoker(@NonNull MethodHandle handle) {
+            this.mHandle = handle;
+        }
+
+        @Override
+        public void invoke(Object listener, Object event) throws Exception {
+            try {
+                mHandle.invokeExact(listener, event);
+
+            } catch (Exception | Error e) {
+                throw e;
+
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package net.analizer.rxbuslib.annotations;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.OverflowStrategy;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Describes a single subscriber method of a listener class, independently of any listener instance.
+ * <p>
+ * <p>Instances are either discovered by {@link SubscriptionAnnotationProcessor} through reflection or
+ * created by the {@link SubscriberIndex} generated by the rxbuslib-compiler annotation processor.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class SubscriberMethodInfo {
+
+    /**
+     * Name of the subscription method
+     */
+    public final String methodName;
+
+    /**
+     * Class type of the method's parameter
+     */
+    public final Class<?> parameterClass;
+
+    /**
+     * Subscription type, see {@link SubscriptionType}
+     */
+    @SubscriptionType
+    public final int subscriptionType;
+
+    /**
+     * Tags the method subscribes to, in declaration order. Never empty.
+     */
+    public final String[] tags;
+
+    /**
+     * Thread where the method will observe on
+     */
+    public final EventThread observeOnThread;
+
+    /**
+     * Thread where the method will subscribe on
+     */
+    public final EventThread subscribeOnThread;
+
+    /**
+     * Maximum number of events replayed to late subscribers, 0 if unbounded. Only used by replay subscriptions.
+     */
+    public final int replayMaxSize;
+
+    /**
+     * Maximum age in milliseconds of events replayed to late subscribers, 0 if unbounded.
+     * Only used by replay subscriptions.
+     */
+    public final long replayMaxAgeMillis;
+
+    /**
+     * What to do with events waiting for {@link #observeOnThread} when the method falls behind
+     */
+    public final OverflowStrategy overflowStrategy;
+
+    /**
+     * Maximum number of events waiting for {@link #observeOnThread}, unless the strategy is {@link OverflowStrategy#BUFFER}
+     */
+    public final int overflowCapacity;
+
+    /**
+     * Class of the events the method receives as a {@code List}, null if it receives them one at a time
+     */
+    @Nullable
+    public final Class<?> batchClass;
+
+    /**
+     * Direct-call invoker generated for the method, null to invoke it through reflection.
+     */
+    @Nullable
+    public final SubscriberInvoker invoker;
+
+    /**
+     * The subscription method, null until resolved against the listener class.
+     */
+    @Nullable
+    public final Method method;
+
+    public SubscriberMethodInfo(@NonNull String methodName,
+                                @NonNull Class<?> parameterClass,
+                                @SubscriptionType int subscriptionType,
+                                @NonNull String[] tags,
+                                @NonNull EventThread observeOnThread,
+                                @NonNull EventThread subscribeOnThread) {
+        this(methodName, parameterClass, subscriptionType, tags, observeOnThread, subscribeOnThread, null, null);
+    }
+
+    public SubscriberMethodInfo(@NonNull String methodName,
+                                @NonNull Class<?> parameterClass,
+                                @SubscriptionType int subscriptionType,
+                                @NonNull String[] tags,
+                                @NonNull EventThread observeOnThread,
+                                @NonNull EventThread subscribeOnThread,
+                                @Nullable SubscriberInvoker invoker) {
+        this(methodName, parameterClass, subscriptionType, tags, observeOnThread, subscribeOnThread, invoker, null);
+    }
+
+    SubscriberMethodInfo(@NonNull String methodName,
+                         @NonNull Class<?> parameterClass,
+                         @SubscriptionType int subscriptionType,
+                         @NonNull String[] tags,
+                         @NonNull EventThread observeOnThread,
+                         @NonNull EventThread subscribeOnThread,
+                         @Nullable SubscriberInvoker invoker,
+                         @Nullable Method method) {
+        this(methodName, parameterClass, subscriptionType, tags, observeOnThread, subscribeOnThread,
+                0, 0, OverflowStrategy.BUFFER, 0, null, invoker, method);
+    }
+
+    private SubscriberMethodInfo(@NonNull String methodName,
+                                 @NonNull Class<?> parameterClass,
+                                 @SubscriptionType int subscriptionType,
+                                 @NonNull String[] tags,
+                                 @NonNull EventThread observeOnThread,
+                                 @NonNull EventThread subscribeOnThread,
+                                 int replayMaxSize,
+                                 long replayMaxAgeMillis,
+                                 @NonNull OverflowStrategy overflowStrategy,
+                                 int overflowCapacity,
+                                 @Nullable Class<?> batchClass,
+                                 @Nullable SubscriberInvoker invoker,
+                                 @Nullable Method method) {
+        this.methodName = methodName;
+        this.parameterClass = parameterClass;
+        this.subscriptionType = subscriptionType;
+        this.tags = tags.length > 0 ? tags : new String[]{SubscribeTag.DEFAULT};
+        this.observeOnThread = observeOnThread;
+        this.subscribeOnThread = subscribeOnThread;
+        this.replayMaxSize = replayMaxSize;
+        this.replayMaxAgeMillis = replayMaxAgeMillis;
+        this.overflowStrategy = overflowStrategy;
+        this.overflowCapacity = overflowCapacity;
+        this.batchClass = batchClass;
+        this.invoker = invoker;
+        this.method = method;
+    }
+
+    /**
+     * @param method the resolved subscription method
+     * @return a copy of this description bound to the given method
+     */
+    SubscriberMethodInfo withMethod(@NonNull Method method) {
+        return new SubscriberMethodInfo(
+                methodName, parameterClass, subscriptionType, tags, observeOnThread, subscribeOnThread,
+                replayMaxSize, replayMaxAgeMillis, overflowStrategy, overflowCapacity, batchClass, invoker, method
+        );
+    }
+
+    /**
+     * @param invoker the runtime invoker of the method
+     * @return a copy of this description using the given invoker
+     */
+    SubscriberMethodInfo withInvoker(@Nullable SubscriberInvoker invoker) {
+        return new SubscriberMethodInfo(
+                methodName, parameterClass, subscriptionType, tags, observeOnThread, subscribeOnThread,
+                replayMaxSize, replayMaxAgeMillis, overflowStrategy, overflowCapacity, batchClass, invoker, method
+        );
+    }
+
+    /**
+     * @param replayMaxSize      maximum number of events replayed to late subscribers, 0 if unbounded
+     * @param replayMaxAgeMillis maximum age in milliseconds of events replayed to late subscribers, 0 if unbounded
+     * @return a copy of this description with the given replay bounds
+     */
+    public SubscriberMethodInfo withReplayBounds(int replayMaxSize, long replayMaxAgeMillis) {
+        if (replayMaxSize < 0 || replayMaxAgeMillis < 0) {
+            throw new IllegalArgumentException("Method " + methodName + " has a negative replay bound.");
+        }
+
+        return new SubscriberMethodInfo(
+                methodName, parameterClass, subscriptionType, tags, observeOnThread, subscribeOnThread,
+                replayMaxSize, replayMaxAgeMillis, overflowStrategy, overflowCapacity, batchClass, invoker, method
+        );
+    }
+
+    /**
+     * @param overflowStrategy what to do with waiting events when the method falls behind
+     * @param overflowCapacity maximum number of waiting events, unless the strategy is {@link OverflowStrategy#BUFFER}
+     * @return a copy of this description with the given overflow strategy
+     */
+    public SubscriberMethodInfo withOverflow(@NonNull OverflowStrategy overflowStrategy, int overflowCapacity) {
+        if (overflowCapacity <= 0 && overflowStrategy != OverflowStrategy.BUFFER
+                && overflowStrategy != OverflowStrategy.LATEST) {
+            throw new IllegalArgumentException("Method " + methodName + " needs a positive capacity for "
+                    + overflowStrategy);
+        }
+
+        return new SubscriberMethodInfo(
+                methodName, parameterClass, subscriptionType, tags, observeOnThread, subscribeOnThread,
+                replayMaxSize, replayMaxAgeMillis, overflowStrategy,
+                overflowStrategy != OverflowStrategy.BUFFER ? overflowCapacity : 0, batchClass, invoker, method
+        );
+    }
+
+    /**
+     * @param batchClass class of the events the method receives as a {@code List}
+     * @return a copy of this description receiving batches of the given class
+     */
+    public SubscriberMethodInfo withBatch(@NonNull Class<?> batchClass) {
+        if (parameterClass != List.class) {
+            throw new IllegalArgumentException("Method " + methodName + " receives batches but does not take a List.");
+        }
+
+        return new SubscriberMethodInfo(
+                methodName, parameterClass, subscriptionType, tags, observeOnThread, subscribeOnThread,
+                replayMaxSize, replayMaxAgeMillis, overflowStrategy, overflowCapacity, batchClass, invoker, method
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "[SubscriberMethodInfo " + methodName + "(" + parameterClass.getName() + ")]";
+    }
+}
@@ -0,0 +1,239 @@
+package net.analizer.rxbuslib.annotations;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.events.EventType;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.OverflowStrategy;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class SubscriptionAnnotationProcessor implements AnnotationProcessor {
+    /**
+     * Subscriber tables found by reflection, shared by all instances.
+     */
+    private static final ListenerDescriptorCache sDescriptors =
+            new ListenerDescriptorCache(SubscriptionAnnotationProcessor::findSubscriberMethods);
+
+    private final InvokerStrategy mInvokerStrategy;
+
+    public SubscriptionAnnotationProcessor() {
+        this(InvokerStrategy.REFLECTION);
+    }
+
+    /**
+     * @param invokerStrategy how the subscriber methods found will be called
+     */
+    public SubscriptionAnnotationProcessor(@NonNull InvokerStrategy invokerStrategy) {
+        this.mInvokerStrategy = invokerStrategy;
+    }
+
+    @Override
+    public Map<EventType, List<SourceMethod>> findAllSubscribers(@NonNull Object listener) {
+        return sDescriptors.get(listener.getClass(), mInvokerStrategy).bind(listener);
+    }
+
+    @Override
+    public Set<EventType> findAllEventTypes(@NonNull Object listener) {
+        return sDescriptors.get(listener.getClass(), mInvokerStrategy).getEventTypes();
+    }
+
+    /**
+     * Scan the declared methods of a listener class for subscription annotations.
+     *
+     * @param listenerClass class to be scanned
+     * @return the validated subscriber methods, in declaration order
+     */
+    @SuppressWarnings("deprecation")
+    static List<SubscriberMethodInfo> findSubscriberMethods(@NonNull Class<?> listenerClass) {
+
+        List<SubscriberMethodInfo> subscriberMethods = new ArrayList<>();
+        for (Method method : listenerClass.getDeclaredMethods()) {
+            // The compiler sometimes creates synthetic bridge methods as part of the
+            // type erasure process. As of JDK8 these methods now include the same
+            // annotations as the original declarations. They should be ignored for
+            // subscribe/produce.
+            if (method.isBridge()) {
+                continue;
+            }
+
+            if (method.isAnnotationPresent(Subscribe.class)) {
+                Subscribe annotation = method.getAnnotation(Subscribe.class);
+                SubscriberMethodInfo info = createMethodInfo(
+                        method, "@Subscribe", SubscriptionType.PUBLISH,
+                        annotation.tags(), annotation.observeOn(), annotation.subscribeOn()
+                ).withOverflow(
+                        overflowStrategy(method, annotation.overflow(), annotation.conflate()), annotation.capacity()
+                );
+                subscriberMethods.add(annotation.batch() ? info.withBatch(findBatchClass(method)) : info);
+
+            } else if (method.isAnnotationPresent(SubscribeReplay.class)) {
+                SubscribeReplay annotation = method.getAnnotation(SubscribeReplay.class);
+                subscriberMethods.add(createMethodInfo(
+                        method, "@SubscribeReplay", SubscriptionType.REPLAY,
+                        annotation.tags(), annotation.observeOn(), annotation.subscribeOn()
+                ).withReplayBounds(annotation.maxSize(), annotation.maxAgeMillis())
+                        .withOverflow(
+                                overflowStrategy(method, annotation.overflow(), annotation.conflate()),
+                                annotation.capacity()
+                        ));
+
+            } else if (method.isAnnotationPresent(SubscribeBehavior.class)) {
+                SubscribeBehavior annotation = method.getAnnotation(SubscribeBehavior.class);
+                subscriberMethods.add(createMethodInfo(
+                        method, "@SubscribeBehavior", SubscriptionType.BEHAVIOR,
+                        annotation.tags(), annotation.observeOn(), annotation.subscribeOn()
+                ).withOverflow(
+                        overflowStrategy(method, annotation.overflow(), annotation.conflate()), annotation.capacity()
+                ));
+
+            }
+//            else if (method.isAnnotationPresent(Produce.class)) {
+//                Class<?>[] parameterTypes = method.getParameterTypes();
+//                if (parameterTypes.length != 0) {
+//                    throw new IllegalArgumentException("Method " + method + "has @Produce annotation but requires "
+//                            + parameterTypes.length + " arguments.  Methods must require zero arguments.");
+//                }
+//                if (method.getReturnType() == Void.class) {
+//                    throw new IllegalArgumentException("Method " + method
+//                            + " has a return type of void.  Must declare a non-void type.");
+//                }
+//
+//                Class<?> parameterClazz = method.getReturnType();
+//                if (parameterClazz.isInterface()) {
+//                    throw new IllegalArgumentException("Method " + method + " has @Produce annotation on " + parameterClazz
+//                            + " which is an interface.  Producers must return a concrete class type.");
+//                }
+//                if (parameterClazz.equals(Void.TYPE)) {
+//                    throw new IllegalArgumentException("Method " + method + " has @Produce annotation but has no return type.");
+//                }
+//
+//                if ((method.getModifiers() & Modifier.PUBLIC) == 0) {
+//                    throw new IllegalArgumentException("Method " + method + " has @Produce annotation on " + parameterClazz
+//                            + " but is not 'public'.");
+//                }
+//
+//                Produce annotation = method.getAnnotation(Produce.class);
+//                EventThread thread = annotation.thread();
+//                Tag[] tags = annotation.tags();
+//                int tagLength = (tags == null ? 0 : tags.length);
+//                do {
+//                    String tag = Tag.DEFAULT;
+//                    if (tagLength > 0) {
+//                        tag = tags[tagLength - 1].value();
+//                    }
+//                    EventType eventType = new EventType(SubscriptionType.NONE, parameterClazz, tag);
+//                    if (producerMethods.containsKey(eventType)) {
+//                        throw new IllegalArgumentException("Producer for type " + eventType + " has already been registered.");
+//                    }
+//                    producerMethods.put(eventType, new SourceMethod(thread, method, SubscriptionType.NONE));
+//                    tagLength--;
+//                } while (tagLength > 0);
+//            }
+        }
+
+        return subscriberMethods;
+    }
+
+    private static SubscriberMethodInfo createMethodInfo(@NonNull Method method,
+                                                         @NonNull String annotationName,
+                                                         @SubscriptionType int subscriptionType,
+                                                         @NonNull SubscribeTag[] subscribeTags,
+                                                         @NonNull EventThread observeOnThread,
+                                                         @NonNull EventThread subscribeOnThread) {
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length != 1) {
+            throw new IllegalArgumentException("Method " + method + " has " + annotationName + " annotation but requires "
+                    + parameterTypes.length + " arguments.  Methods must require a single argument.");
+        }
+
+        Class<?> parameterClazz = parameterTypes[0];
+
+        if ((method.getModifiers() & Modifier.PUBLIC) == 0) {
+            throw new IllegalArgumentException("Method " + method + " has " + annotationName + " annotation on " + parameterClazz
+                    + " but is not 'public'.");
+        }
+
+        String[] tags = new String[subscribeTags.length];
+        for (int i = 0; i < subscribeTags.length; i++) {
+            tags[i] = subscribeTags[i].value();
+        }
+
+        return new SubscriberMethodInfo(
+                method.getName(), parameterClazz, subscriptionType, tags, observeOnThread, subscribeOnThread, null, method
+        );
+    }
+
+    /**
+     * @return the overflow strategy of a subscriber method, {@link OverflowStrategy#LATEST} if it conflates
+     */
+    private static OverflowStrategy overflowStrategy(@NonNull Method method,
+                                                     @NonNull OverflowStrategy overflow,
+                                                     boolean conflate) {
+        if (!conflate) {
+            return overflow;
+        }
+
+        if (overflow != OverflowStrategy.BUFFER && overflow != OverflowStrategy.LATEST) {
+            throw new IllegalArgumentException("Method " + method + " conflates events but has overflow "
+                    + overflow + ".  Conflating means overflow LATEST.");
+        }
+
+        return OverflowStrategy.LATEST;
+    }
+
+    /**
+     * @param method batch subscriber method
+     * @return the class of the events in the {@code List<E>} the method takes
+     */
+    private static Class<?> findBatchClass(@NonNull Method method) {
+        Type parameterType = method.getGenericParameterTypes()[0];
+        if (parameterType instanceof ParameterizedType
+                && ((ParameterizedType) parameterType).getRawType() == List.class) {
+            Type elementType = ((ParameterizedType) parameterType).getActualTypeArguments()[0];
+            if (elementType instanceof ParameterizedType) {
+                elementType = ((ParameterizedType) elementType).getRawType();
+            }
+            if (elementType instanceof Class) {
+                return (Class<?>) elementType;
+            }
+        }
+
+        throw new IllegalArgumentException("Method " + method + " has @Subscribe(batch = true) annotation but does not"
+                + " take a List of a concrete event class.");
+    }
+
+    /**
+     * Provide a runtime invoker for the subscriber methods that have no generated one.
+     *
+     * @param subscriberMethods resolved subscriber methods of a listener class
+     * @param invokerStrategy   how the methods without a generated invoker should be called
+     * @return the subscriber methods with their invokers
+     */
+    static List<SubscriberMethodInfo> resolveInvokers(@NonNull List<SubscriberMethodInfo> subscriberMethods,
+                                                      @NonNull InvokerStrategy invokerStrategy) {
+        if (invokerStrategy == InvokerStrategy.REFLECTION) {
+            return subscriberMethods;
+        }
+
+        List<SubscriberMethodInfo> resolvedMethods = new ArrayList<>(subscriberMethods.size());
+        for (SubscriberMethodInfo info : subscriberMethods) {
+            SubscriberInvoker invoker = info.invoker;
+            if (invoker == null && info.method != null) {
+                invoker = SubscriberInvokers.get(invokerStrategy, info.method);
+            }
+
+            resolvedMethods.add(invoker == info.invoker ? info : info.withInvoker(invoker));
+        }
+
+        return resolvedMethods;
+    }
+}
@@ -0,0 +1,73 @@
+package net.analizer.rxbuslib.bridge;
+
+import android.support.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Layout of a ring file shared by one {@link RingFileWriter} and any number of {@link RingFileReader}s,
+ * possibly in other processes.
+ * <p>
+ * <p>A header holds the capacity of the ring, the published write position, a byte count that only
+ * grows, and the claimed position, up to which the writer may be overwriting older records. The ring
+ * follows, filled with records:
+ * <pre>
+ * int length of the rest | byte subscription type | short tag length | tag (UTF-8) | payload
+ * </pre>
+ * A record never wraps around the end of the ring: the writer pads the rest with {@link #PADDING},
+ * or leaves it when less than 4 bytes are left, and goes on at the start.
+ */
+final class RingFileLayout {
+    static final int MAGIC = 0x52584252;
+    static final int VERSION = 1;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int CAPACITY_OFFSET = 8;
+
+    /**
+     * On their own cache line, as they are the only header fields written after creation.
+     */
+    static final int POSITION_OFFSET = 64;
+    static final int CLAIM_OFFSET = 72;
+
+    static final int HEADER_BYTES = 128;
+
+    static final int LENGTH_BYTES = 4;
+    static final int PADDING = -1;
+
+    /**
+     * Only accessed for the ordering of volatile accesses, as the mapped buffer has no ordered accesses
+     * and other processes only see its memory.
+     */
+    private static volatile int sFence;
+
+    private RingFileLayout() {
+    }
+
+    /**
+     * Keep the accesses to the ring before from being reordered with the ones after, e.g. the write of a
+     * record with the write of the position publishing it, or the read of a record with the read of the
+     * claimed position telling whether it was overwritten meanwhile. Earlier accesses cannot move past
+     * the volatile write and later ones cannot move before the volatile read, which also keeps a polling
+     * loop from caching the position it reads.
+     */
+    static int fence() {
+        sFence = 0;
+        return sFence;
+    }
+
+    static MappedByteBuffer map(@NonNull File file, int size) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            // the mapping stays valid once the channel is closed
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package net.analizer.rxbuslib.bridge;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.store.MappedBuffers;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.Charset;
+
+import static net.analizer.rxbuslib.bridge.RingFileLayout.CAPACITY_OFFSET;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.CLAIM_OFFSET;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.HEADER_BYTES;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.LENGTH_BYTES;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.MAGIC;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.PADDING;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.POSITION_OFFSET;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.VERSION;
+
+/**
+ * One reader of a shared ring file, following the records written from the moment it was opened.
+ * A reader is meant to be polled by a single thread.
+ */
+public final class RingFileReader {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Receives the records read from a ring file.
+     */
+    public interface RecordHandler {
+        void onRecord(int subscriptionType, @NonNull String tag, @NonNull byte[] payload);
+    }
+
+    private final MappedByteBuffer mBuffer;
+    private final int mCapacity;
+    private long mPosition;
+    private long mLostBytes;
+
+    /**
+     * Map a ring file created by its writer and start reading at its current end.
+     *
+     * @param file ring file
+     * @throws FileNotFoundException if the writer has not created the ring yet
+     * @throws IOException           if the file cannot be mapped
+     */
+    public RingFileReader(@NonNull File file) throws IOException {
+        int capacity;
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            if (randomAccessFile.length() < HEADER_BYTES
+                    || randomAccessFile.readInt() != MAGIC
+                    || randomAccessFile.readInt() != VERSION) {
+                throw new FileNotFoundException("No ring in " + file + " yet");
+            }
+
+            randomAccessFile.seek(CAPACITY_OFFSET);
+            capacity = randomAccessFile.readInt();
+        } finally {
+            randomAccessFile.close();
+        }
+
+        mBuffer = RingFileLayout.map(file, HEADER_BYTES + capacity);
+        mCapacity = capacity;
+        mPosition = mBuffer.getLong(POSITION_OFFSET);
+    }
+
+    /**
+     * Hand the records published since the last poll to the handler.
+     *
+     * @param handler receives the records
+     * @return number of records read
+     */
+    public int poll(@NonNull RecordHandler handler) {
+        int count = 0;
+        for (; ; ) {
+            RingFileLayout.fence();
+            long published = mBuffer.getLong(POSITION_OFFSET);
+            if (mPosition >= published) {
+                return count;
+            }
+
+            RingFileLayout.fence();
+            if (published - mPosition > mCapacity) {
+                skipTo(published);
+                continue;
+            }
+
+            int index = (int) (mPosition % mCapacity);
+            int remaining = mCapacity - index;
+            int length = remaining >= LENGTH_BYTES ? mBuffer.getInt(HEADER_BYTES + index) : PADDING;
+            if (length == PADDING) {
+                mPosition += remaining;
+                continue;
+            }
+
+            // bytes being overwritten may make no sense, such records are dropped below anyway
+            int subscriptionType = 0;
+            byte[] tagBytes = null;
+            byte[] payload = null;
+            if (length >= 3 && LENGTH_BYTES + length <= remaining) {
+                ByteBuffer record = mBuffer.duplicate();
+                record.position(HEADER_BYTES + index + LENGTH_BYTES);
+                subscriptionType = record.get();
+                int tagLength = record.getShort();
+                if (tagLength >= 0 && 3 + tagLength <= length) {
+                    tagBytes = new byte[tagLength];
+                    record.get(tagBytes);
+                    payload = new byte[length - 3 - tagLength];
+                    record.get(payload);
+                }
+            }
+
+            // the writer may have come round again while the record was copied
+            RingFileLayout.fence();
+            long claimed = mBuffer.getLong(CLAIM_OFFSET);
+            if (tagBytes == null || claimed - mPosition > mCapacity) {
+                skipTo(Math.max(claimed, published));
+                continue;
+            }
+
+            mPosition += LENGTH_BYTES + length;
+            handler.onRecord(subscriptionType, new String(tagBytes, UTF_8), payload);
+            count++;
+        }
+    }
+
+    /**
+     * @return number of bytes the reader fell too far behind to read
+     */
+    public long getLostBytes() {
+        return mLostBytes;
+    }
+
+    /**
+     * Release the mapping of the ring file, on the polling thread once it stopped polling.
+     */
+    public void close() {
+        MappedBuffers.unmap(mBuffer);
+    }
+
+    private void skipTo(long position) {
+        mLostBytes += position - mPosition;
+        mPosition = position;
+    }
+}
@@ -0,0 +1,130 @@
+package net.analizer.rxbuslib.bridge;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.store.MappedBuffers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.Charset;
+
+import static net.analizer.rxbuslib.bridge.RingFileLayout.CAPACITY_OFFSET;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.CLAIM_OFFSET;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.HEADER_BYTES;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.LENGTH_BYTES;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.MAGIC;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.MAGIC_OFFSET;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.PADDING;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.POSITION_OFFSET;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.VERSION;
+import static net.analizer.rxbuslib.bridge.RingFileLayout.VERSION_OFFSET;
+
+/**
+ * The single writer of a shared ring file. Writing never waits for readers: a reader that falls a whole
+ * ring behind loses the records it missed.
+ */
+public final class RingFileWriter {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final MappedByteBuffer mBuffer;
+    private final int mCapacity;
+    private long mPosition;
+    private boolean mClosed;
+
+    /**
+     * Map the ring file, creating it if needed. A ring left by a previous writer with the same capacity
+     * is continued, so that its readers keep up across a restart of the writing process.
+     *
+     * @param file     ring file
+     * @param capacity number of bytes of the ring, bounding the size of a record
+     * @throws IOException if the file cannot be mapped
+     */
+    public RingFileWriter(@NonNull File file, int capacity) throws IOException {
+        if (capacity <= LENGTH_BYTES) {
+            throw new IllegalArgumentException("Ring file capacity is too small: " + capacity);
+        }
+
+        mBuffer = RingFileLayout.map(file, HEADER_BYTES + capacity);
+        mCapacity = capacity;
+        if (mBuffer.getInt(MAGIC_OFFSET) == MAGIC
+                && mBuffer.getInt(VERSION_OFFSET) == VERSION
+                && mBuffer.getInt(CAPACITY_OFFSET) == capacity) {
+            mPosition = mBuffer.getLong(POSITION_OFFSET);
+        } else {
+            mBuffer.putInt(VERSION_OFFSET, VERSION);
+            mBuffer.putInt(CAPACITY_OFFSET, capacity);
+            mBuffer.putLong(POSITION_OFFSET, 0);
+            mBuffer.putLong(CLAIM_OFFSET, 0);
+            RingFileLayout.fence();
+            mBuffer.putInt(MAGIC_OFFSET, MAGIC);
+        }
+    }
+
+    /**
+     * Append a record and publish it to the readers.
+     *
+     * @param subscriptionType subscription type the event was posted with
+     * @param tag              tag the event was posted on
+     * @param payload          serialized event
+     * @return false if the record is larger than the ring. Records written once the writer is closed are dropped.
+     */
+    public synchronized boolean write(int subscriptionType, @NonNull String tag, @NonNull byte[] payload) {
+        if (mClosed) {
+            return true;
+        }
+
+        byte[] tagBytes = tag.getBytes(UTF_8);
+        int length = 1 + 2 + tagBytes.length + payload.length;
+        if (LENGTH_BYTES + length > mCapacity || tagBytes.length > Short.MAX_VALUE) {
+            return false;
+        }
+
+        int index = (int) (mPosition % mCapacity);
+        int remaining = mCapacity - index;
+        int padding = LENGTH_BYTES + length > remaining ? remaining : 0;
+
+        // readers drop the records of the previous round the writer is about to overwrite
+        mBuffer.putLong(CLAIM_OFFSET, mPosition + padding + LENGTH_BYTES + length);
+        RingFileLayout.fence();
+
+        if (padding > 0) {
+            if (remaining >= LENGTH_BYTES) {
+                mBuffer.putInt(HEADER_BYTES + index, PADDING);
+            }
+            mPosition += padding;
+            index = 0;
+        }
+
+        ByteBuffer record = mBuffer.duplicate();
+        record.position(HEADER_BYTES + index);
+        record.putInt(length);
+        record.put((byte) subscriptionType);
+        record.putShort((short) tagBytes.length);
+        record.put(tagBytes);
+        record.put(payload);
+        mPosition += LENGTH_BYTES + length;
+
+        RingFileLayout.fence();
+        mBuffer.putLong(POSITION_OFFSET, mPosition);
+        return true;
+    }
+
+    /**
+     * @return number of bytes written to the ring so far, padding included
+     */
+    public synchronized long getPosition() {
+        return mPosition;
+    }
+
+    /**
+     * Release the mapping of the ring file. The ring stays in the file for its readers and a later writer.
+     */
+    public synchronized void close() {
+        if (!mClosed) {
+            mClosed = true;
+            MappedBuffers.unmap(mBuffer);
+        }
+    }
+}
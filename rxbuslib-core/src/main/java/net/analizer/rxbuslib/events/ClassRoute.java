@@ -0,0 +1,51 @@
+package net.analizer.rxbuslib.events;
+
+import android.support.annotation.NonNull;
+
+import io.reactivex.subjects.Subject;
+
+/**
+ * The subjects of a {@link SubscriberEvent} receiving the events of one class, resolved once so that
+ * posting them does not look the routes up again. It stays valid until the subscription adds a route
+ * or clears them, see {@link SubscriberEvent#resolve}.
+ */
+public final class ClassRoute {
+    final SubscriberEvent owner;
+    final int version;
+    final Class<?> eventClass;
+    final boolean toHierarchy;
+
+    /**
+     * Routes of the class, and of its supertypes and interfaces when {@link #toHierarchy}
+     */
+    final Subject<Object>[] subjects;
+
+    /**
+     * Batch routes of the class, and of its supertypes and interfaces when {@link #toHierarchy}
+     */
+    final Subject<Object>[] batchSubjects;
+
+    ClassRoute(@NonNull SubscriberEvent owner,
+               int version,
+               @NonNull Class<?> eventClass,
+               boolean toHierarchy,
+               @NonNull Subject<Object>[] subjects,
+               @NonNull Subject<Object>[] batchSubjects) {
+        this.owner = owner;
+        this.version = version;
+        this.eventClass = eventClass;
+        this.toHierarchy = toHierarchy;
+        this.subjects = subjects;
+        this.batchSubjects = batchSubjects;
+    }
+
+    boolean isValid(@NonNull SubscriberEvent subscriberEvent,
+                    int currentVersion,
+                    @NonNull Class<?> eventClass,
+                    boolean toHierarchy) {
+        return owner == subscriberEvent
+                && version == currentVersion
+                && this.eventClass == eventClass
+                && this.toHierarchy == toHierarchy;
+    }
+}
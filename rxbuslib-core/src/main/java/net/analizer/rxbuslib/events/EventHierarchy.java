@@ -0,0 +1,58 @@
+package net.analizer.rxbuslib.events;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Flattened type hierarchies of event classes, used for polymorphic delivery.
+ * <p>
+ * <p>The hierarchy of a class is computed on first use and shared process-wide, so resolving the
+ * supertypes of a posted event is a single map lookup.
+ */
+public final class EventHierarchy {
+
+    private static final ConcurrentMap<Class<?>, Class<?>[]> sHierarchies = new ConcurrentHashMap<>();
+
+    private EventHierarchy() {
+        // no instances
+    }
+
+    /**
+     * @param eventClass class of a posted event
+     * @return the class itself, followed by its superclasses and then all the interfaces it implements
+     */
+    public static Class<?>[] of(@NonNull Class<?> eventClass) {
+        Class<?>[] hierarchy = sHierarchies.get(eventClass);
+        if (hierarchy == null) {
+            hierarchy = flatten(eventClass);
+            Class<?>[] existing = sHierarchies.putIfAbsent(eventClass, hierarchy);
+            if (existing != null) {
+                hierarchy = existing;
+            }
+        }
+
+        return hierarchy;
+    }
+
+    private static Class<?>[] flatten(@NonNull Class<?> eventClass) {
+        List<Class<?>> types = new ArrayList<>();
+        for (Class<?> clazz = eventClass; clazz != null; clazz = clazz.getSuperclass()) {
+            types.add(clazz);
+        }
+
+        // breadth first, so that closer interfaces come first
+        for (int i = 0; i < types.size(); i++) {
+            for (Class<?> anInterface : types.get(i).getInterfaces()) {
+                if (!types.contains(anInterface)) {
+                    types.add(anInterface);
+                }
+            }
+        }
+
+        return types.toArray(new Class<?>[types.size()]);
+    }
+}
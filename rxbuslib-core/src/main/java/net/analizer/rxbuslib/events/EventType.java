@@ -32,20 +32,60 @@ public class EventType {
     public EventThread observeOnThread;
     public EventThread subscribeOnThread;
 
+    /**
+     * Maximum number of events a replay subscription keeps for late subscribers, 0 if unbounded.
+     */
+    public final int replayMaxSize;
+
+    /**
+     * Maximum age in milliseconds of the events a replay subscription keeps for late subscribers, 0 if unbounded.
+     */
+    public final long replayMaxAgeMillis;
+
     public EventType(@SubscriptionType int subscriptionType,
                      @NonNull String tag) {
         this(subscriptionType, tag, null, null);
     }
 
+    /**
+     * Describe a subscription with bounded replay, e.g. for {@link net.analizer.rxbuslib.interfaces.Bus#createSubscription}.
+     *
+     * @param subscriptionType   subscription type
+     * @param tag                event tag
+     * @param replayMaxSize      maximum number of events kept for late subscribers, 0 if unbounded
+     * @param replayMaxAgeMillis maximum age in milliseconds of the events kept for late subscribers, 0 if unbounded
+     */
+    public EventType(@SubscriptionType int subscriptionType,
+                     @NonNull String tag,
+                     int replayMaxSize,
+                     long replayMaxAgeMillis) {
+        this(subscriptionType, tag, null, null, replayMaxSize, replayMaxAgeMillis);
+    }
+
     public EventType(@SubscriptionType int subscriptionType,
 //                     @NonNull Class<?> clazz,
                      @NonNull String tag,
                      @Nullable EventThread observeOnThread,
                      @Nullable EventThread subscribeOnThread) {
+        this(subscriptionType, tag, observeOnThread, subscribeOnThread, 0, 0);
+    }
+
+    public EventType(@SubscriptionType int subscriptionType,
+                     @NonNull String tag,
+                     @Nullable EventThread observeOnThread,
+                     @Nullable EventThread subscribeOnThread,
+                     int replayMaxSize,
+                     long replayMaxAgeMillis) {
+
+        if (replayMaxSize < 0 || replayMaxAgeMillis < 0) {
+            throw new IllegalArgumentException("Replay bounds of " + tag + " must not be negative.");
+        }
 
         this.subscriptionType = subscriptionType;
         this.observeOnThread = observeOnThread;
         this.subscribeOnThread = subscribeOnThread;
+        this.replayMaxSize = replayMaxSize;
+        this.replayMaxAgeMillis = replayMaxAgeMillis;
 
         this.tag = tag;
 //        this.clazz = clazz;
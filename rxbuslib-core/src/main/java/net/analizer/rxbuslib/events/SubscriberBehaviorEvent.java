@@ -3,11 +3,13 @@ package net.analizer.rxbuslib.events;
 import android.support.annotation.NonNull;
 
 import net.analizer.rxbuslib.annotations.SourceMethod;
+import net.analizer.rxbuslib.threads.EventDispatchers;
 import net.analizer.rxbuslib.threads.EventThread;
 
 import java.util.List;
 
 import io.reactivex.subjects.BehaviorSubject;
+import io.reactivex.subjects.Subject;
 
 /**
  * Wraps a single-argument 'subscriber' method on a specific object.
@@ -26,16 +28,26 @@ public class SubscriberBehaviorEvent extends SubscriberEvent {
         super(methodList, observeThread, subscribeThread);
     }
 
+    public SubscriberBehaviorEvent(@NonNull List<SourceMethod> methodList,
+                                   @NonNull EventThread observeThread,
+                                   @NonNull EventThread subscribeThread,
+                                   @NonNull EventDispatchers dispatchers) {
+        super(methodList, observeThread, subscribeThread, dispatchers);
+    }
+
+    @Override
+    protected final Subject<Object> createSubject() {
+        return BehaviorSubject.create();
+    }
+
     @Override
-    protected final void initObservable() {
-        subject = BehaviorSubject.create();
-        subject.observeOn(EventThread.getScheduler(observeThread))
-                .subscribeOn(EventThread.getScheduler(subscribeThread));
+    protected final boolean retainsEvents() {
+        return true;
     }
 
     @Override
     public String toString() {
-        return "[SubscriberBehaviorEvent " + methodList + " (" + String.valueOf(hashCode()) + ")]";
+        return "[SubscriberBehaviorEvent " + getMethodList() + " (" + String.valueOf(hashCode()) + ")]";
     }
 
     @Override
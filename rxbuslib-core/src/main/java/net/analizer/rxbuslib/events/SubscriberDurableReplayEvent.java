@@ -0,0 +1,201 @@
+package net.analizer.rxbuslib.events;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.annotations.SourceMethod;
+import net.analizer.rxbuslib.platform.Platform;
+import net.analizer.rxbuslib.store.ReplayLog;
+import net.analizer.rxbuslib.threads.EventDispatchers;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A replay subscription whose history is kept in a {@link ReplayLog} instead of the heap, so that it
+ * survives a restart of the process.
+ * <p>
+ * <p>Posted events are appended to the log before being delivered. A method added to the subscription
+ * first catches up, on the registering thread, with the events of its class streamed from the log, and
+ * is only subscribed to the live ones afterwards. Posting only waits for the events appended while the
+ * bulk of the log was replayed, so no event is missed, received twice or ahead of the older ones.
+ */
+public class SubscriberDurableReplayEvent extends SubscriberEvent {
+    private static final String TAG = "RxBus";
+
+    private final ReplayLog mLog;
+
+    /**
+     * Whether the logged events of subclasses catch up the methods taking a supertype, as live ones reach them.
+     */
+    private final boolean mEventInheritance;
+
+    /**
+     * Orders appending and delivering posted events against catching up new methods.
+     */
+    private final Object mLock = new Object();
+
+    /**
+     * @param methodList       List of methods to be invoked
+     * @param observeThread    Thread where the Subscriber will observe on, unless the method specifies its own
+     * @param subscribeThread  Ignored, see {@link net.analizer.rxbuslib.annotations.Subscribe#subscribeOn()}
+     * @param dispatchers      Dispatchers of the bus, delivering events on the observed threads
+     * @param log              Durable history of the tag
+     * @param eventInheritance Whether the bus delivers events to the subscribers of their supertypes and interfaces
+     */
+    public SubscriberDurableReplayEvent(@NonNull List<SourceMethod> methodList,
+                                        @NonNull EventThread observeThread,
+                                        @NonNull EventThread subscribeThread,
+                                        @NonNull EventDispatchers dispatchers,
+                                        @NonNull ReplayLog log,
+                                        boolean eventInheritance) {
+        // the log must be set before the first method catches up
+        super(Collections.<SourceMethod>emptyList(), observeThread, subscribeThread, dispatchers);
+        this.mLog = log;
+        this.mEventInheritance = eventInheritance;
+
+        addMethodIfNotExist(methodList);
+    }
+
+    @Override
+    public void emit(Object event) {
+        if (event == null) {
+            return;
+        }
+
+        synchronized (mLock) {
+            append(event);
+            super.emit(event);
+        }
+    }
+
+    @Override
+    public void emitToHierarchy(Object event) {
+        if (event == null) {
+            return;
+        }
+
+        synchronized (mLock) {
+            append(event);
+            super.emitToHierarchy(event);
+        }
+    }
+
+    @Override
+    public void emit(@NonNull Object event, @NonNull ClassRoute route) {
+        synchronized (mLock) {
+            append(event);
+            super.emit(event, route);
+        }
+    }
+
+    @Override
+    public void emitAll(@NonNull List<?> events) {
+        synchronized (mLock) {
+            appendAll(events);
+            super.emitAll(events);
+        }
+    }
+
+    @Override
+    public void emitAllToHierarchy(@NonNull List<?> events) {
+        synchronized (mLock) {
+            appendAll(events);
+            super.emitAllToHierarchy(events);
+        }
+    }
+
+    @Override
+    public int addMethodIfNotExist(@NonNull List<SourceMethod> methodList) {
+        if (mLog == null) {
+            // called with no methods by the super constructor, before the fields are set
+            return super.addMethodIfNotExist(methodList);
+        }
+
+        List<SourceMethod> existing = getMethodList();
+        List<SourceMethod> added = new ArrayList<>();
+        for (SourceMethod sourceMethod : methodList) {
+            if (!existing.contains(sourceMethod) && !added.contains(sourceMethod)) {
+                added.add(sourceMethod);
+            }
+        }
+        if (added.isEmpty()) {
+            return 0;
+        }
+
+        // the bulk of the log is replayed without blocking the posters
+        long offset = catchUp(added, mLog.getStartOffset());
+        synchronized (mLock) {
+            // then the events appended meanwhile, including those posted by the methods catching up
+            while (offset < mLog.getEndOffset()) {
+                offset = catchUp(added, offset);
+            }
+
+            return super.addMethodIfNotExist(added);
+        }
+    }
+
+    /**
+     * Deliver the logged events of the methods' classes to methods not subscribed yet, and those of their
+     * subclasses when the bus has event inheritance.
+     *
+     * @return offset to resume the catch-up from
+     */
+    private long catchUp(@NonNull final List<SourceMethod> methodList, long fromOffset) {
+        try {
+            return mLog.replay(fromOffset, event -> {
+                for (SourceMethod sourceMethod : methodList) {
+                    if (isOfClass(event, sourceMethod.eventClass)) {
+                        sourceMethod.deliver(sourceMethod.batch ? Collections.singletonList(event) : event);
+                    }
+                }
+            });
+
+        } catch (IOException e) {
+            Platform.get().getLogger().error(TAG, "Failed to replay the log to " + methodList + ": " + e);
+            return mLog.getEndOffset();
+        }
+    }
+
+    private boolean isOfClass(@NonNull Object event, @NonNull Class<?> eventClass) {
+        if (!mEventInheritance) {
+            return event.getClass() == eventClass;
+        }
+
+        for (Class<?> superClass : EventHierarchy.of(event.getClass())) {
+            if (superClass == eventClass) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void append(@NonNull Object event) {
+        try {
+            mLog.append(event);
+        } catch (IOException e) {
+            Platform.get().getLogger().error(TAG, "Failed to append " + event + " to the replay log: " + e);
+        }
+    }
+
+    private void appendAll(@NonNull List<?> events) {
+        for (Object event : events) {
+            if (event != null) {
+                append(event);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[SubscriberDurableReplayEvent " + getMethodList() + " (" + String.valueOf(hashCode()) + ")]";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj);
+    }
+}
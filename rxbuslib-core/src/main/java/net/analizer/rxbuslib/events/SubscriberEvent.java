@@ -0,0 +1,575 @@
+package net.analizer.rxbuslib.events;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import net.analizer.rxbuslib.annotations.SourceMethod;
+import net.analizer.rxbuslib.threads.EventDispatchers;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+
+/**
+ * Wraps a single-argument 'observer' method on a specific object.
+ * <p>
+ * <p>This class only verifies the suitability of the method and event type if something fails.  Callers are expected to
+ * verify their uses of this class.
+ * <p>
+ * <p>Two SubscriberEvent are equivalent when they refer to the same method on the same object (not class).   This
+ * property is used to ensure that no observer method is registered more than once.
+ */
+@SuppressWarnings("WeakerAccess")
+public class SubscriberEvent {
+
+    private static final SourceMethod[] EMPTY = new SourceMethod[0];
+
+    /**
+     * Subscriber methods. The array is never modified: registering and unregistering swap in a copy
+     * while holding the lock of this object, so readers only need a volatile read.
+     */
+    volatile SourceMethod[] methods;
+
+    /**
+     * Thread where the Subscriber will observe on
+     */
+    final EventThread observeThread;
+
+    /**
+     * Dispatch index of this tag: one RxJava {@link Subject} per concrete event class.
+     * A posted event is only handed to the subject of its own class, so it never
+     * reaches subscribers of other types on the same tag.
+     */
+    final ConcurrentMap<Class<?>, Subject<Object>> routes;
+
+    /**
+     * Routes of the methods receiving events as a {@code List}, keyed by the class of the events in the list.
+     */
+    final ConcurrentMap<Class<?>, Subject<Object>> batchRoutes;
+
+    /**
+     * Incremented when a route is added or the routes are cleared, invalidating the {@link ClassRoute}s
+     * resolved before.
+     */
+    private final AtomicInteger routeVersion = new AtomicInteger();
+
+    /**
+     * Creates the dispatchers delivering events on the threads the methods observe on.
+     */
+    final EventDispatchers dispatchers;
+
+    /**
+     * Object hash code.
+     */
+    private final int hashCode;
+
+    /**
+     * Create a new subscription
+     *
+     * @param methodList      List of methods to be invoked
+     * @param observeThread   Thread where the Subscriber will observe on
+     * @param subscribeThread Ignored, see {@link net.analizer.rxbuslib.annotations.Subscribe#subscribeOn()}
+     */
+    public SubscriberEvent(@NonNull List<SourceMethod> methodList,
+                           @NonNull EventThread observeThread,
+                           @NonNull EventThread subscribeThread) {
+        this(methodList, observeThread, subscribeThread, EventDispatchers.getDefault());
+    }
+
+    /**
+     * Create a new subscription
+     *
+     * @param methodList      List of methods to be invoked
+     * @param observeThread   Thread where the Subscriber will observe on, unless the method specifies its own
+     * @param subscribeThread Ignored, see {@link net.analizer.rxbuslib.annotations.Subscribe#subscribeOn()}
+     * @param dispatchers     Dispatchers of the bus, delivering events on the observed threads
+     */
+    public SubscriberEvent(@NonNull List<SourceMethod> methodList,
+                           @NonNull EventThread observeThread,
+                           @NonNull EventThread subscribeThread,
+                           @NonNull EventDispatchers dispatchers) {
+
+        this.hashCode = System.identityHashCode(this);
+        this.methods = EMPTY;
+        this.routes = new ConcurrentHashMap<>();
+        this.batchRoutes = new ConcurrentHashMap<>();
+        this.observeThread = observeThread;
+        this.dispatchers = dispatchers;
+
+        addMethodIfNotExist(methodList);
+    }
+
+    /**
+     * UnSubscribe all observers and remove all method's references
+     */
+    public synchronized void unsubscribe() {
+        for (SourceMethod sourceMethod : methods) {
+            sourceMethod.unsubscribe();
+        }
+
+        routes.clear();
+        batchRoutes.clear();
+        routeVersion.incrementAndGet();
+        methods = EMPTY;
+    }
+
+    /**
+     * Complete the subject and remove all method's reference
+     */
+    public synchronized void complete() {
+        for (Subject<Object> subject : routes.values()) {
+            subject.onComplete();
+        }
+        for (Subject<Object> subject : batchRoutes.values()) {
+            subject.onComplete();
+        }
+        methods = EMPTY;
+    }
+
+    /**
+     * Remove all methods of the given listener.
+     * onComplete() will be invoked if there are no more
+     * methods.
+     *
+     * @param listener the listener class/object to be removed
+     * @return the remaining number of subscribing methods
+     */
+    public int unRegisterListener(@NonNull Object listener) {
+        List<SourceMethod> removeList = new ArrayList<>();
+        for (SourceMethod sourceMethod : methods) {
+            if (sourceMethod.isMemberOf(listener)) {
+                removeList.add(sourceMethod);
+            }
+        }
+
+//        int cnt = methodList.size();
+//        if (cnt == 0) {
+//            complete();
+//        }
+
+        return removeMethods(removeList);
+    }
+
+    /**
+     * Remove and unsubscribe the given methods, e.g. those of a weakly held listener that was collected.
+     *
+     * @param sourceMethods the methods to be removed, compared by identity
+     * @return the remaining number of subscribing methods
+     */
+    public int removeMethods(@NonNull Collection<SourceMethod> sourceMethods) {
+        List<SourceMethod> removeList = new ArrayList<>(sourceMethods.size());
+        SourceMethod[] remaining;
+        synchronized (this) {
+            List<SourceMethod> keepList = new ArrayList<>(methods.length);
+            for (SourceMethod sourceMethod : methods) {
+                if (containsInstance(sourceMethods, sourceMethod)) {
+                    removeList.add(sourceMethod);
+                } else {
+                    keepList.add(sourceMethod);
+                }
+            }
+
+            if (removeList.isEmpty()) {
+                return methods.length;
+            }
+
+            remaining = keepList.toArray(new SourceMethod[keepList.size()]);
+            methods = remaining;
+        }
+
+        for (SourceMethod sourceMethod : removeList) {
+            sourceMethod.unsubscribe();
+        }
+
+        return remaining.length;
+    }
+
+    private static boolean containsInstance(@NonNull Collection<SourceMethod> sourceMethods,
+                                            @NonNull SourceMethod sourceMethod) {
+        for (SourceMethod candidate : sourceMethods) {
+            if (candidate == sourceMethod) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Emit the given events to the subscribers of their respective classes.
+     * Null events have no class to be routed by and are dropped.
+     *
+     * @param events events to be delivered
+     */
+    public void emit(@NonNull Object... events) {
+        for (Object event : events) {
+            emit(event);
+        }
+    }
+
+    /**
+     * Emit a single event to the subscribers of its class, without allocating.
+     * A null event has no class to be routed by and is dropped.
+     *
+     * @param event event to be delivered
+     */
+    public void emit(Object event) {
+        if (event == null) {
+            return;
+        }
+
+        Subject<Object> subject = retainsEvents()
+                ? getOrCreateRoute(event.getClass())
+                : routes.get(event.getClass());
+
+        if (subject != null) {
+            subject.onNext(event);
+        }
+
+        if (!batchRoutes.isEmpty()) {
+            Subject<Object> batchSubject = batchRoutes.get(event.getClass());
+            if (batchSubject != null) {
+                batchSubject.onNext(Collections.singletonList(event));
+            }
+        }
+    }
+
+    /**
+     * Emit a single event to the subscribers of its class and of all its supertypes and interfaces.
+     * A null event has no class to be routed by and is dropped.
+     *
+     * @param event event to be delivered
+     * @see EventHierarchy
+     */
+    public void emitToHierarchy(Object event) {
+        if (event == null) {
+            return;
+        }
+
+        emitToHierarchyRoutes(event, retainsEvents());
+
+        if (!batchRoutes.isEmpty()) {
+            List<Object> batch = Collections.singletonList(event);
+            for (Class<?> eventClass : EventHierarchy.of(event.getClass())) {
+                Subject<Object> batchSubject = batchRoutes.get(eventClass);
+                if (batchSubject != null) {
+                    batchSubject.onNext(batch);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolve the routes of the events of one class, to emit them without looking the routes up again.
+     *
+     * @param eventClass  exact class of the events
+     * @param toHierarchy whether the subscribers of its supertypes and interfaces receive them too
+     * @param cached      routes resolved before, returned as is while still valid
+     * @return the routes of the class, valid until a route is added or the routes are cleared
+     * @see #emit(Object, ClassRoute)
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public ClassRoute resolve(@NonNull Class<?> eventClass, boolean toHierarchy, @Nullable ClassRoute cached) {
+        // read first: a route added while resolving bumps the version again and invalidates the result
+        int version = routeVersion.get();
+        if (cached != null && cached.isValid(this, version, eventClass, toHierarchy)) {
+            return cached;
+        }
+
+        boolean retainsEvents = retainsEvents();
+        List<Subject<Object>> subjects = new ArrayList<>();
+        List<Subject<Object>> batchSubjects = new ArrayList<>();
+        Class<?>[] classes = toHierarchy ? EventHierarchy.of(eventClass) : new Class<?>[]{eventClass};
+        for (Class<?> routeClass : classes) {
+            // as when emitting, only the route of the class itself is created to retain the events
+            Subject<Object> subject = retainsEvents && routeClass == eventClass
+                    ? getOrCreateRoute(routeClass)
+                    : routes.get(routeClass);
+            if (subject != null) {
+                subjects.add(subject);
+            }
+
+            Subject<Object> batchSubject = batchRoutes.get(routeClass);
+            if (batchSubject != null) {
+                batchSubjects.add(batchSubject);
+            }
+        }
+
+        return new ClassRoute(this, version, eventClass, toHierarchy,
+                subjects.toArray(new Subject[subjects.size()]),
+                batchSubjects.toArray(new Subject[batchSubjects.size()]));
+    }
+
+    /**
+     * Emit a single event through the routes resolved for its class, without allocating.
+     *
+     * @param event event to be delivered, of the class the routes were resolved for
+     * @param route routes of the class, see {@link #resolve}
+     */
+    public void emit(@NonNull Object event, @NonNull ClassRoute route) {
+        for (Subject<Object> subject : route.subjects) {
+            subject.onNext(event);
+        }
+
+        if (route.batchSubjects.length > 0) {
+            List<Object> batch = Collections.singletonList(event);
+            for (Subject<Object> batchSubject : route.batchSubjects) {
+                batchSubject.onNext(batch);
+            }
+        }
+    }
+
+    /**
+     * Emit a batch of events to the subscribers of their respective classes, resolving the route once
+     * for consecutive events of the same class. Batch subscribers get all the events of their class in
+     * a single list. Null events are dropped.
+     *
+     * @param events events to be delivered, not modified afterwards
+     */
+    public void emitAll(@NonNull List<?> events) {
+        boolean retainsEvents = retainsEvents();
+        Class<?> routeClass = null;
+        Subject<Object> subject = null;
+        for (Object event : events) {
+            if (event == null) {
+                continue;
+            }
+
+            if (event.getClass() != routeClass) {
+                routeClass = event.getClass();
+                subject = retainsEvents
+                        ? getOrCreateRoute(routeClass)
+                        : routes.get(routeClass);
+            }
+
+            if (subject != null) {
+                subject.onNext(event);
+            }
+        }
+
+        emitBatches(events, false);
+    }
+
+    /**
+     * Emit a batch of events to the subscribers of their classes and of all their supertypes and interfaces.
+     * Batch subscribers get all the events assignable to their class in a single list. Null events are dropped.
+     *
+     * @param events events to be delivered, not modified afterwards
+     * @see EventHierarchy
+     */
+    public void emitAllToHierarchy(@NonNull List<?> events) {
+        boolean retainsEvents = retainsEvents();
+        for (Object event : events) {
+            if (event != null) {
+                emitToHierarchyRoutes(event, retainsEvents);
+            }
+        }
+
+        emitBatches(events, true);
+    }
+
+    /**
+     * Events are only retained under the route of their own class and the routes of the supertypes
+     * somebody subscribed to, rather than under every supertype and interface of their hierarchy.
+     */
+    private void emitToHierarchyRoutes(@NonNull Object event, boolean retainsEvents) {
+        Class<?>[] hierarchy = EventHierarchy.of(event.getClass());
+        for (int i = 0; i < hierarchy.length; i++) {
+            Subject<Object> subject = retainsEvents && i == 0
+                    ? getOrCreateRoute(hierarchy[i])
+                    : routes.get(hierarchy[i]);
+
+            if (subject != null) {
+                subject.onNext(event);
+            }
+        }
+    }
+
+    /**
+     * Hand each batch route the events of its class, in posting order. The whole batch is passed on
+     * as is when every event belongs to the route.
+     */
+    private void emitBatches(@NonNull List<?> events, boolean toHierarchy) {
+        if (batchRoutes.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<Class<?>, Subject<Object>> route : batchRoutes.entrySet()) {
+            Class<?> eventClass = route.getKey();
+            List<Object> batch = new ArrayList<>();
+            for (Object event : events) {
+                if (event != null && (toHierarchy ? eventClass.isInstance(event) : event.getClass() == eventClass)) {
+                    batch.add(event);
+                }
+            }
+
+            if (batch.size() == events.size()) {
+                route.getValue().onNext(events);
+            } else if (!batch.isEmpty()) {
+                route.getValue().onNext(Collections.unmodifiableList(batch));
+            }
+        }
+    }
+
+    /**
+     * @param event        event about to be emitted
+     * @param toHierarchy  whether the subscribers of its supertypes and interfaces receive it too
+     * @return TRUE if a subscriber will receive the event, or keep it for later
+     */
+    public boolean hasSubscribers(@NonNull Object event, boolean toHierarchy) {
+        if (retainsEvents()) {
+            return true;
+        }
+
+        if (!toHierarchy) {
+            return hasObservers(routes.get(event.getClass())) || hasObservers(batchRoutes.get(event.getClass()));
+        }
+
+        for (Class<?> eventClass : EventHierarchy.of(event.getClass())) {
+            if (hasObservers(routes.get(eventClass)) || hasObservers(batchRoutes.get(eventClass))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean hasObservers(@Nullable Subject<Object> subject) {
+        return subject != null && subject.hasObservers();
+    }
+
+    /**
+     * @param eventClass class of the events
+     * @return the subject carrying events of the given class, or null if there is none yet
+     */
+    public Subject<Object> getSubject(@NonNull Class<?> eventClass) {
+        return routes.get(SourceMethod.boxedClass(eventClass));
+    }
+
+    public synchronized int addMethodIfNotExist(@NonNull List<SourceMethod> methodList) {
+        List<SourceMethod> newList = new ArrayList<>(Arrays.asList(methods));
+        int addCnt = 0;
+        for (SourceMethod sourceMethod : methodList) {
+            if (!newList.contains(sourceMethod)) {
+                sourceMethod.method.setAccessible(true);
+                EventThread thread = sourceMethod.observeThread != null
+                        ? sourceMethod.observeThread
+                        : observeThread;
+                sourceMethod.subscribeTo(
+                        sourceMethod.batch
+                                ? getOrCreateBatchRoute(sourceMethod.eventClass)
+                                : getOrCreateRoute(sourceMethod.eventClass),
+                        dispatchers.create(thread)
+                );
+                newList.add(sourceMethod);
+                addCnt++;
+            }
+        }
+
+        if (addCnt > 0) {
+            methods = newList.toArray(new SourceMethod[newList.size()]);
+        }
+
+        return addCnt;
+    }
+
+    private Subject<Object> getOrCreateRoute(@NonNull Class<?> eventClass) {
+        Subject<Object> subject = routes.get(eventClass);
+        if (subject == null) {
+            Subject<Object> newSubject = createSubject();
+            subject = routes.putIfAbsent(eventClass, newSubject);
+            if (subject == null) {
+                subject = newSubject;
+                routeVersion.incrementAndGet();
+            }
+        }
+
+        return subject;
+    }
+
+    /**
+     * Batch routes are only created by registering methods, which holds the lock of this object.
+     */
+    private Subject<Object> getOrCreateBatchRoute(@NonNull Class<?> eventClass) {
+        Subject<Object> subject = batchRoutes.get(eventClass);
+        if (subject == null) {
+            subject = createSubject();
+            batchRoutes.put(eventClass, subject);
+            routeVersion.incrementAndGet();
+        }
+
+        return subject;
+    }
+
+    /**
+     * Create the subject backing the route of a single event class.
+     */
+    protected Subject<Object> createSubject() {
+        return PublishSubject.create();
+    }
+
+    /**
+     * Whether events posted before any subscriber of their class exists must still be kept.
+     * In that case posting creates the route instead of dropping the event.
+     */
+    protected boolean retainsEvents() {
+        return false;
+    }
+
+    /**
+     * @return a snapshot of the subscriber methods
+     */
+    public List<SourceMethod> getMethodList() {
+        return Collections.unmodifiableList(Arrays.asList(methods));
+    }
+
+    /**
+     * Throw a {@link RuntimeException} with given message and cause lifted from an {@link
+     * InvocationTargetException}. If the specified {@link InvocationTargetException} does not have a
+     * cause, neither will the {@link RuntimeException}.
+     */
+    void throwRuntimeException(String msg, Exception e) {
+        throwRuntimeException(msg, e.getCause());
+    }
+
+    /**
+     * Throw a {@link RuntimeException} with given message and cause lifted from an {@link
+     * InvocationTargetException}. If the specified {@link InvocationTargetException} does not have a
+     * cause, neither will the {@link RuntimeException}.
+     */
+    private void throwRuntimeException(String msg, Throwable e) {
+        Throwable cause = e.getCause();
+        if (cause != null) {
+            throw new RuntimeException(msg + ": " + cause.getMessage(), cause);
+        } else {
+            throw new RuntimeException(msg + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[SubscriberEvent " + getMethodList() + " (" + String.valueOf(hashCode) + ")]";
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || obj != null && getClass() == obj.getClass();
+    }
+}
@@ -0,0 +1,127 @@
+package net.analizer.rxbuslib.events;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.annotations.SourceMethod;
+import net.analizer.rxbuslib.threads.EventDispatchers;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.ReplaySubject;
+import io.reactivex.subjects.Subject;
+
+/**
+ * Wraps a single-argument 'subscriber' method on a specific object.
+ * <p>
+ * <p>This class only verifies the suitability of the method and event type if something fails.  Callers are expected to
+ * verify their uses of this class.
+ * <p>
+ * <p>Two SubscriberEvent are equivalent when they refer to the same method on the same object (not class).   This
+ * property is used to ensure that no subscriber method is registered more than once.
+ */
+public class SubscriberReplayEvent extends SubscriberEvent {
+
+    /**
+     * Maximum number of events kept for late subscribers, 0 if unbounded.
+     */
+    private final int maxSize;
+
+    /**
+     * Maximum age in milliseconds of the events kept for late subscribers, 0 if unbounded.
+     */
+    private final long maxAgeMillis;
+
+    public SubscriberReplayEvent(@NonNull List<SourceMethod> methodList,
+                                 @NonNull EventThread observeThread,
+                                 @NonNull EventThread subscribeThread) {
+        this(methodList, observeThread, subscribeThread, EventDispatchers.getDefault(), 0, 0);
+    }
+
+    public SubscriberReplayEvent(@NonNull List<SourceMethod> methodList,
+                                 @NonNull EventThread observeThread,
+                                 @NonNull EventThread subscribeThread,
+                                 @NonNull EventDispatchers dispatchers) {
+        this(methodList, observeThread, subscribeThread, dispatchers, 0, 0);
+    }
+
+    /**
+     * Create a replay subscription keeping a bounded history per event class, so that memory and the
+     * catch-up of late subscribers stay bounded even on a tag with steady traffic.
+     *
+     * @param methodList      List of methods to be invoked
+     * @param observeThread   Thread where the Subscriber will observe on, unless the method specifies its own
+     * @param subscribeThread Ignored, see {@link net.analizer.rxbuslib.annotations.Subscribe#subscribeOn()}
+     * @param dispatchers     Dispatchers of the bus, delivering events on the observed threads
+     * @param maxSize         Maximum number of events kept for late subscribers, 0 if unbounded
+     * @param maxAgeMillis    Maximum age in milliseconds of the events kept for late subscribers, 0 if unbounded
+     */
+    public SubscriberReplayEvent(@NonNull List<SourceMethod> methodList,
+                                 @NonNull EventThread observeThread,
+                                 @NonNull EventThread subscribeThread,
+                                 @NonNull EventDispatchers dispatchers,
+                                 int maxSize,
+                                 long maxAgeMillis) {
+        // the bounds must be set before the first route is created
+        super(Collections.<SourceMethod>emptyList(), observeThread, subscribeThread, dispatchers);
+        this.maxSize = maxSize;
+        this.maxAgeMillis = maxAgeMillis;
+
+        addMethodIfNotExist(methodList);
+    }
+
+    /**
+     * The replay buffer of a {@link ReplaySubject} is not safe for concurrent onNext calls,
+     * so posts from several threads are serialized.
+     */
+    @Override
+    protected final Subject<Object> createSubject() {
+        ReplaySubject<Object> subject;
+        if (maxAgeMillis > 0 && maxSize > 0) {
+            subject = ReplaySubject.createWithTimeAndSize(
+                    maxAgeMillis, TimeUnit.MILLISECONDS, Schedulers.trampoline(), maxSize
+            );
+        } else if (maxAgeMillis > 0) {
+            subject = ReplaySubject.createWithTime(maxAgeMillis, TimeUnit.MILLISECONDS, Schedulers.trampoline());
+        } else if (maxSize > 0) {
+            subject = ReplaySubject.createWithSize(maxSize);
+        } else {
+            subject = ReplaySubject.create();
+        }
+
+        return subject.toSerialized();
+    }
+
+    /**
+     * @return maximum number of events kept for late subscribers, 0 if unbounded
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return maximum age in milliseconds of the events kept for late subscribers, 0 if unbounded
+     */
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    @Override
+    protected final boolean retainsEvents() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "[SubscriberReplayEvent " + getMethodList() + " (" + String.valueOf(hashCode()) + ")]";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj);
+    }
+
+}
@@ -0,0 +1,120 @@
+package net.analizer.rxbuslib.interfaces;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.Channel;
+import net.analizer.rxbuslib.annotations.SourceMethod;
+import net.analizer.rxbuslib.annotations.SubscriptionType;
+import net.analizer.rxbuslib.events.EventType;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.util.Collection;
+import java.util.List;
+
+import io.reactivex.disposables.Disposable;
+
+public interface Bus {
+    String DEFAULT_IDENTIFIER = "default";
+
+    void register(@NonNull Object listener);
+
+    /**
+     * Register a listener without keeping it from being garbage collected. Once collected, its subscriber
+     * methods stop being invoked and are pruned from the bus, so a listener that is never unregistered
+     * doesn't leak.
+     *
+     * @param listener the listener, which must be strongly referenced elsewhere for as long as it should receive events
+     */
+    void registerWeakly(@NonNull Object listener);
+
+    void unRegister(@NonNull Object listener);
+
+    void post(@SubscriptionType int subscriptionType, Object event, @NonNull String... tags);
+
+    /**
+     * Post a batch of events, resolving the subscriptions of each tag once for the whole batch.
+     * Subscribers receive the events one at a time in collection order, except methods annotated with
+     * {@code @Subscribe(batch = true)}, which receive all the events of their class in a single list.
+     *
+     * @param subscriptionType subscription type of the subscribers, see {@link SubscriptionType}
+     * @param events           events to be delivered, copied before this method returns
+     * @param tags             tags of the subscribers, the default tag if none
+     */
+    void postAll(@SubscriptionType int subscriptionType, @NonNull Collection<?> events, @NonNull String... tags);
+
+    void postPublish(@NonNull Object event, @NonNull String... tags);
+
+    void postReplay(@NonNull Object event, @NonNull String... tags);
+
+    void postBehavior(@NonNull Object event, @NonNull String... tags);
+
+    /**
+     * Resolve the routing of the given tag and event class once, for posting without per-call allocation.
+     *
+     * @param tag        tag of the events, see {@link net.analizer.rxbuslib.annotations.SubscribeTag}
+     * @param eventClass class of the events
+     * @return a channel posting to the subscribers of {@code eventClass} on {@code tag}
+     */
+    <T> Channel<T> channel(@NonNull String tag, @NonNull Class<T> eventClass);
+
+    /**
+     * Post a number to the {@link IntSubscriber}s of the tag without boxing it. They are invoked on the
+     * posting thread. The {@code @Subscribe} subscribers of {@link Integer} on the tag receive the boxed
+     * number as if posted with {@link #postPublish(Object, String...)}: boxing only happens for them and
+     * for a {@link net.analizer.rxbuslib.BusBridge}.
+     *
+     * @param tag   tag of the subscribers, see {@link net.analizer.rxbuslib.annotations.SubscribeTag}
+     * @param event number to be delivered
+     */
+    void postInt(@NonNull String tag, int event);
+
+    /**
+     * Post a number to the {@link LongSubscriber}s of the tag without boxing it, see {@link #postInt(String, int)}.
+     */
+    void postLong(@NonNull String tag, long event);
+
+    /**
+     * Post a number to the {@link DoubleSubscriber}s of the tag without boxing it, see {@link #postInt(String, int)}.
+     */
+    void postDouble(@NonNull String tag, double event);
+
+    /**
+     * Subscribe to the numbers posted with {@link #postInt(String, int)} on the tag.
+     *
+     * @return a disposable removing the subscriber
+     */
+    Disposable subscribeInt(@NonNull String tag, @NonNull IntSubscriber subscriber);
+
+    /**
+     * Subscribe to the numbers posted with {@link #postLong(String, long)} on the tag.
+     *
+     * @return a disposable removing the subscriber
+     */
+    Disposable subscribeLong(@NonNull String tag, @NonNull LongSubscriber subscriber);
+
+    /**
+     * Subscribe to the numbers posted with {@link #postDouble(String, double)} on the tag.
+     *
+     * @return a disposable removing the subscriber
+     */
+    Disposable subscribeDouble(@NonNull String tag, @NonNull DoubleSubscriber subscriber);
+
+    /**
+     * @return number of events dropped so far by subscribers of this bus that fell behind,
+     * see {@link net.analizer.rxbuslib.threads.OverflowStrategy}
+     */
+    long getShedCount();
+
+    /**
+     * Stop the threads this bus owns, e.g. its ring buffer consumers and its pools, once they delivered
+     * the events already posted. The bus must not be posted to afterwards.
+     */
+    void shutdown();
+
+    void createSubscription(@NonNull EventType eventType,
+                     @NonNull List<SourceMethod> methodList,
+                     @NonNull EventThread observeThread,
+                     @NonNull EventThread subscribeThread);
+
+    void removeSubscription(@NonNull EventType eventType);
+}
@@ -0,0 +1,8 @@
+package net.analizer.rxbuslib.interfaces;
+
+/**
+ * Receives the {@code double} events posted with {@link Bus#postDouble(String, double)}, without boxing.
+ */
+public interface DoubleSubscriber {
+    void onDouble(double event);
+}
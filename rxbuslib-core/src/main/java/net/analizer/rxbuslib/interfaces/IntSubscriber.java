@@ -0,0 +1,8 @@
+package net.analizer.rxbuslib.interfaces;
+
+/**
+ * Receives the {@code int} events posted with {@link Bus#postInt(String, int)}, without boxing.
+ */
+public interface IntSubscriber {
+    void onInt(int event);
+}
@@ -0,0 +1,8 @@
+package net.analizer.rxbuslib.interfaces;
+
+/**
+ * Receives the {@code long} events posted with {@link Bus#postLong(String, long)}, without boxing.
+ */
+public interface LongSubscriber {
+    void onLong(long event);
+}
@@ -0,0 +1,41 @@
+package net.analizer.rxbuslib.metrics;
+
+import android.support.annotation.NonNull;
+
+import java.lang.reflect.Method;
+
+/**
+ * Receives the activity of a bus, see {@link net.analizer.rxbuslib.RxBus.Builder#metrics(BusMetrics)}.
+ * <p>
+ * <p>Callbacks are made on the posting and delivering threads, concurrently, and in the middle of
+ * every post: implementations must be thread-safe and must not block. A bus without metrics skips
+ * the callbacks, and the timing of the subscriber methods, altogether.
+ */
+public interface BusMetrics {
+
+    /**
+     * An event was posted on a tag, once per tag it was posted on.
+     */
+    void onPost(@NonNull String tag);
+
+    /**
+     * An event posted on a tag had no subscriber to be delivered to, in addition to {@link #onPost(String)}.
+     */
+    void onDeadPost(@NonNull String tag);
+
+    /**
+     * A subscriber method returned or threw after being invoked with an event.
+     *
+     * @param method        subscriber method
+     * @param durationNanos time spent in the method
+     */
+    void onInvoke(@NonNull Method method, long durationNanos);
+
+    /**
+     * A subscriber method threw, in addition to {@link #onInvoke(Method, long)}.
+     *
+     * @param method subscriber method
+     * @param error  what the method threw
+     */
+    void onError(@NonNull Method method, @NonNull Throwable error);
+}
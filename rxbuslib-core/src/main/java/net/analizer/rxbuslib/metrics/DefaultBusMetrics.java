@@ -0,0 +1,144 @@
+package net.analizer.rxbuslib.metrics;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lock-free {@link BusMetrics} keeping per-tag post counts and per-subscriber invoke histograms.
+ * Counters are striped and histograms bucketed by powers of two, so recording never blocks and
+ * threads posting concurrently seldom contend. Read them at any time, e.g. to dump them to a log.
+ */
+public final class DefaultBusMetrics implements BusMetrics {
+
+    private final ConcurrentMap<String, TagStats> mTags = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, SubscriberStats> mSubscribers = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPost(@NonNull String tag) {
+        getTagStats(tag).posts.increment();
+    }
+
+    @Override
+    public void onDeadPost(@NonNull String tag) {
+        getTagStats(tag).deadPosts.increment();
+    }
+
+    @Override
+    public void onInvoke(@NonNull Method method, long durationNanos) {
+        getSubscriberStats(method).invokes.record(durationNanos);
+    }
+
+    @Override
+    public void onError(@NonNull Method method, @NonNull Throwable error) {
+        getSubscriberStats(method).errors.increment();
+    }
+
+    /**
+     * @return tags events were posted on so far
+     */
+    public Set<String> getTags() {
+        return Collections.unmodifiableSet(mTags.keySet());
+    }
+
+    /**
+     * @return subscriber methods invoked so far
+     */
+    public Set<Method> getSubscribers() {
+        return Collections.unmodifiableSet(mSubscribers.keySet());
+    }
+
+    public long getPostCount(@NonNull String tag) {
+        TagStats stats = mTags.get(tag);
+        return stats != null ? stats.posts.sum() : 0;
+    }
+
+    /**
+     * @return number of events posted on the tag that no subscriber received
+     */
+    public long getDeadPostCount(@NonNull String tag) {
+        TagStats stats = mTags.get(tag);
+        return stats != null ? stats.deadPosts.sum() : 0;
+    }
+
+    /**
+     * @return number of events delivered to the subscriber method
+     */
+    public long getDeliveryCount(@NonNull Method method) {
+        SubscriberStats stats = mSubscribers.get(method);
+        return stats != null ? stats.invokes.getCount() : 0;
+    }
+
+    public long getErrorCount(@NonNull Method method) {
+        SubscriberStats stats = mSubscribers.get(method);
+        return stats != null ? stats.errors.sum() : 0;
+    }
+
+    /**
+     * @return durations of the invocations of the subscriber method, null if it was never invoked
+     */
+    @Nullable
+    public LogHistogram getInvokeHistogram(@NonNull Method method) {
+        SubscriberStats stats = mSubscribers.get(method);
+        return stats != null ? stats.invokes : null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[DefaultBusMetrics");
+        for (String tag : mTags.keySet()) {
+            builder.append("\n  tag ").append(tag)
+                    .append(": posts=").append(getPostCount(tag))
+                    .append(" dead=").append(getDeadPostCount(tag));
+        }
+        for (Method method : mSubscribers.keySet()) {
+            builder.append("\n  ").append(method.getDeclaringClass().getSimpleName())
+                    .append('.').append(method.getName())
+                    .append(": errors=").append(getErrorCount(method))
+                    .append(' ').append(getInvokeHistogram(method));
+        }
+
+        return builder.append(']').toString();
+    }
+
+    private TagStats getTagStats(@NonNull String tag) {
+        TagStats stats = mTags.get(tag);
+        if (stats == null) {
+            stats = new TagStats();
+            TagStats existing = mTags.putIfAbsent(tag, stats);
+            if (existing != null) {
+                stats = existing;
+            }
+        }
+
+        return stats;
+    }
+
+    private SubscriberStats getSubscriberStats(@NonNull Method method) {
+        SubscriberStats stats = mSubscribers.get(method);
+        if (stats == null) {
+            stats = new SubscriberStats();
+            SubscriberStats existing = mSubscribers.putIfAbsent(method, stats);
+            if (existing != null) {
+                stats = existing;
+            }
+        }
+
+        return stats;
+    }
+
+    private static final class TagStats {
+        final StripedCounter posts = new StripedCounter();
+        final StripedCounter deadPosts = new StripedCounter();
+    }
+
+    private static final class SubscriberStats {
+        final LogHistogram invokes = new LogHistogram();
+        final StripedCounter errors = new StripedCounter();
+    }
+}
@@ -0,0 +1,76 @@
+package net.analizer.rxbuslib.metrics;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A subscriber invocation that took longer than its budget, see {@link SlowSubscriberDetector}.
+ */
+public final class SlowInvocation {
+
+    /**
+     * Class of the listener the subscriber method belongs to
+     */
+    public final Class<?> listenerClass;
+
+    public final Method method;
+
+    /**
+     * Tag the event was posted on, null if the method was subscribed without one
+     */
+    @Nullable
+    public final String tag;
+
+    /**
+     * Class of the event, or of the events of the list delivered to a batch subscriber
+     */
+    public final Class<?> eventClass;
+
+    /**
+     * Whether the invocation happened on the main thread, against the main thread budget
+     */
+    public final boolean mainThread;
+
+    public final String threadName;
+
+    public final long durationNanos;
+
+    public final long budgetNanos;
+
+    /**
+     * Wall clock time the invocation ended at, in milliseconds
+     */
+    public final long timeMillis;
+
+    SlowInvocation(@NonNull Class<?> listenerClass,
+                   @NonNull Method method,
+                   @Nullable String tag,
+                   @NonNull Class<?> eventClass,
+                   boolean mainThread,
+                   @NonNull String threadName,
+                   long durationNanos,
+                   long budgetNanos,
+                   long timeMillis) {
+        this.listenerClass = listenerClass;
+        this.method = method;
+        this.tag = tag;
+        this.eventClass = eventClass;
+        this.mainThread = mainThread;
+        this.threadName = threadName;
+        this.durationNanos = durationNanos;
+        this.budgetNanos = budgetNanos;
+        this.timeMillis = timeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return listenerClass.getName() + "." + method.getName() + "(" + eventClass.getSimpleName() + ")"
+                + " on tag " + tag
+                + " took " + TimeUnit.NANOSECONDS.toMicros(durationNanos) + "us"
+                + " over a budget of " + TimeUnit.NANOSECONDS.toMicros(budgetNanos) + "us"
+                + " on " + (mainThread ? "the main thread" : "thread " + threadName);
+    }
+}
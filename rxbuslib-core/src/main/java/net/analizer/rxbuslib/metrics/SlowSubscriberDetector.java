@@ -0,0 +1,157 @@
+package net.analizer.rxbuslib.metrics;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.annotations.SourceMethod;
+import net.analizer.rxbuslib.platform.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Flags the subscriber invocations taking longer than a budget, tighter on the main thread where a
+ * slow subscriber drops frames, see {@link net.analizer.rxbuslib.RxBus.Builder#slowSubscriberDetector}.
+ * <p>
+ * <p>Each flagged invocation is logged and kept in a ring buffer of the last ones, to be dumped on
+ * demand. Invocations within budget cost the two {@link System#nanoTime()} calls timing them and a
+ * comparison; the thread is only looked at once an invocation is over the smallest budget.
+ */
+public final class SlowSubscriberDetector {
+    private static final String TAG = "RxBus";
+
+    private final long mMainThreadBudgetNanos;
+    private final long mBudgetNanos;
+    private final long mMinBudgetNanos;
+
+    private final AtomicReferenceArray<SlowInvocation> mInvocations;
+    private final int mMask;
+
+    /**
+     * Number of invocations flagged so far, the last ones being in the ring buffer.
+     */
+    private final AtomicLong mCount = new AtomicLong();
+
+    private SlowSubscriberDetector(long mainThreadBudgetNanos, long budgetNanos, int capacity) {
+        this.mMainThreadBudgetNanos = mainThreadBudgetNanos;
+        this.mBudgetNanos = budgetNanos;
+        this.mMinBudgetNanos = Math.min(mainThreadBudgetNanos, budgetNanos);
+        this.mInvocations = new AtomicReferenceArray<>(capacity);
+        this.mMask = capacity - 1;
+    }
+
+    /**
+     * Check an invocation against the budget of the thread it ran on.
+     *
+     * @param sourceMethod  invoked subscriber method
+     * @param event         event it was invoked with
+     * @param durationNanos time spent in the method
+     */
+    public void onInvoke(@NonNull SourceMethod sourceMethod, @NonNull Object event, long durationNanos) {
+        if (durationNanos <= mMinBudgetNanos) {
+            return;
+        }
+
+        boolean mainThread = Platform.get().isMainThread();
+        long budgetNanos = mainThread ? mMainThreadBudgetNanos : mBudgetNanos;
+        if (durationNanos <= budgetNanos || sourceMethod.method == null) {
+            return;
+        }
+
+        SlowInvocation invocation = new SlowInvocation(
+                sourceMethod.getListenerClass(),
+                sourceMethod.method,
+                sourceMethod.getTag(),
+                sourceMethod.batch ? sourceMethod.eventClass : event.getClass(),
+                mainThread,
+                Thread.currentThread().getName(),
+                durationNanos,
+                budgetNanos,
+                System.currentTimeMillis()
+        );
+        mInvocations.set((int) mCount.getAndIncrement() & mMask, invocation);
+        Platform.get().getLogger().warn(TAG, "Slow subscriber: " + invocation);
+    }
+
+    /**
+     * @return number of invocations flagged so far, including the ones no longer in the ring buffer
+     */
+    public long getCount() {
+        return mCount.get();
+    }
+
+    /**
+     * @return the last flagged invocations, oldest first
+     */
+    public List<SlowInvocation> getSlowInvocations() {
+        long count = mCount.get();
+        int capacity = mInvocations.length();
+        List<SlowInvocation> invocations = new ArrayList<>();
+        for (long i = Math.max(0, count - capacity); i < count; i++) {
+            SlowInvocation invocation = mInvocations.get((int) i & mMask);
+            // a slot claimed by a flagging thread may not be filled yet
+            if (invocation != null) {
+                invocations.add(invocation);
+            }
+        }
+
+        return invocations;
+    }
+
+    /**
+     * @return the last flagged invocations, one per line, oldest first
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(getCount()).append(" slow subscriber invocations");
+        for (SlowInvocation invocation : getSlowInvocations()) {
+            builder.append('\n').append(invocation);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Builds a detector. Unset options default to a budget of 4ms on the main thread, 100ms on other
+     * threads, and the last 64 slow invocations kept.
+     */
+    public static final class Builder {
+        private long mMainThreadBudgetNanos = TimeUnit.MILLISECONDS.toNanos(4);
+        private long mBudgetNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        private int mCapacity = 64;
+
+        /**
+         * @param budget Longest invocation on the main thread that is not flagged
+         */
+        public Builder mainThreadBudget(long budget, @NonNull TimeUnit unit) {
+            this.mMainThreadBudgetNanos = unit.toNanos(budget);
+            return this;
+        }
+
+        /**
+         * @param budget Longest invocation on other threads that is not flagged
+         */
+        public Builder budget(long budget, @NonNull TimeUnit unit) {
+            this.mBudgetNanos = unit.toNanos(budget);
+            return this;
+        }
+
+        /**
+         * @param capacity Number of slow invocations kept, a power of two
+         */
+        public Builder capacity(int capacity) {
+            this.mCapacity = capacity;
+            return this;
+        }
+
+        public SlowSubscriberDetector build() {
+            if (mCapacity <= 0 || Integer.bitCount(mCapacity) != 1) {
+                throw new IllegalArgumentException("Capacity must be a power of two: " + mCapacity);
+            }
+
+            return new SlowSubscriberDetector(mMainThreadBudgetNanos, mBudgetNanos, mCapacity);
+        }
+    }
+}
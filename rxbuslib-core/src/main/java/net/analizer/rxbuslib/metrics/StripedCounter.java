@@ -0,0 +1,45 @@
+package net.analizer.rxbuslib.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter spread over several cells, so that threads incrementing it concurrently seldom update the
+ * same cache line. Reading it sums the cells and may miss the increments made meanwhile.
+ */
+public final class StripedCounter {
+
+    /**
+     * Longs between two cells, so that each cell has a cache line of its own.
+     */
+    private static final int PADDING = 8;
+
+    private static final int STRIPES = stripes();
+
+    private final AtomicLongArray mCells = new AtomicLongArray(STRIPES * PADDING);
+
+    /**
+     * @return the power of two at least the number of processors, up to 32
+     */
+    private static int stripes() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), 32);
+        return Integer.highestOneBit(Math.max(1, processors) * 2 - 1);
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long value) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        mCells.addAndGet(stripe * PADDING, value);
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += mCells.get(i * PADDING);
+        }
+
+        return sum;
+    }
+}
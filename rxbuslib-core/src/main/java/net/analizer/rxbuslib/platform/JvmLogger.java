@@ -0,0 +1,36 @@
+package net.analizer.rxbuslib.platform;
+
+import android.support.annotation.NonNull;
+
+import java.util.logging.Level;
+
+/**
+ * Default {@link Logger} of a plain JVM, writing to {@link java.util.logging}. Debug messages are
+ * enabled with the {@code rxbus.debug} system property and logged at {@link Level#INFO}, which the
+ * default console handler does not drop.
+ */
+final class JvmLogger implements Logger {
+    private final boolean mDebugEnabled = Boolean.getBoolean("rxbus.debug");
+
+    @Override
+    public boolean isDebugEnabled() {
+        return mDebugEnabled;
+    }
+
+    @Override
+    public void debug(@NonNull String tag, @NonNull String message) {
+        if (mDebugEnabled) {
+            java.util.logging.Logger.getLogger(tag).log(Level.INFO, message);
+        }
+    }
+
+    @Override
+    public void warn(@NonNull String tag, @NonNull String message) {
+        java.util.logging.Logger.getLogger(tag).log(Level.WARNING, message);
+    }
+
+    @Override
+    public void error(@NonNull String tag, @NonNull String message) {
+        java.util.logging.Logger.getLogger(tag).log(Level.SEVERE, message);
+    }
+}
@@ -0,0 +1,23 @@
+package net.analizer.rxbuslib.platform;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Receives the messages of the bus, see {@link Platform.Builder#logger(Logger)}.
+ * <p>
+ * <p>Messages may be logged from any thread, and errors from the middle of a delivery: implementations
+ * must be thread-safe and should not block.
+ */
+public interface Logger {
+
+    /**
+     * @return TRUE if the bus should build and log its debug messages, which it does on every post
+     */
+    boolean isDebugEnabled();
+
+    void debug(@NonNull String tag, @NonNull String message);
+
+    void warn(@NonNull String tag, @NonNull String message);
+
+    void error(@NonNull String tag, @NonNull String message);
+}
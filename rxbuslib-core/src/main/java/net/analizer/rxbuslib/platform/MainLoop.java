@@ -0,0 +1,44 @@
+package net.analizer.rxbuslib.platform;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Default main thread of a plain JVM: a single daemon thread running the tasks in turn, started on
+ * first use. The thread running {@code main()} cannot be handed tasks, so the bus brings its own.
+ */
+final class MainLoop implements Executor, ThreadCheck {
+    private volatile Thread mThread;
+    private volatile ExecutorService mExecutor;
+
+    @Override
+    public void execute(@NonNull Runnable task) {
+        ExecutorService executor = mExecutor;
+        if (executor == null) {
+            executor = start();
+        }
+
+        executor.execute(task);
+    }
+
+    @Override
+    public boolean isMainThread() {
+        return Thread.currentThread() == mThread;
+    }
+
+    private synchronized ExecutorService start() {
+        if (mExecutor == null) {
+            mExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "RxBus-main");
+                thread.setDaemon(true);
+                mThread = thread;
+                return thread;
+            });
+        }
+
+        return mExecutor;
+    }
+}
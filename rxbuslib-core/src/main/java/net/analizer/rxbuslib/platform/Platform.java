@@ -0,0 +1,129 @@
+package net.analizer.rxbuslib.platform;
+
+import android.support.annotation.NonNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+
+/**
+ * What the bus needs from the environment it runs in: a {@link Logger}, an executor running tasks on
+ * the main thread for {@link net.analizer.rxbuslib.threads.EventThread#MAIN_THREAD} subscribers, and a
+ * {@link ThreadCheck} telling whether the calling thread is that main thread.
+ * <p>
+ * <p>The platform is found on first use: the Android library provides one running on the UI thread and
+ * logging to logcat, and a plain JVM gets a main thread of its own and {@link java.util.logging}.
+ * {@link #install(Platform)} replaces it, e.g. for the main thread of a server event loop. The buses look
+ * the platform up on every use, so installing one affects them all, including the buses already created:
+ * install it before the first bus is used rather than while events are in flight.
+ */
+public final class Platform {
+    private static final String ANDROID_PLATFORM = "net.analizer.rxbuslib.android.AndroidPlatform";
+
+    private static volatile Platform sPlatform;
+
+    private final Logger mLogger;
+    private final Executor mMainThreadExecutor;
+    private final ThreadCheck mThreadCheck;
+
+    private Platform(@NonNull Logger logger, @NonNull Executor mainThreadExecutor, @NonNull ThreadCheck threadCheck) {
+        this.mLogger = logger;
+        this.mMainThreadExecutor = mainThreadExecutor;
+        this.mThreadCheck = threadCheck;
+    }
+
+    /**
+     * @return the installed platform, the Android one if the Android library is present, else the JVM one
+     */
+    @NonNull
+    public static Platform get() {
+        Platform platform = sPlatform;
+        if (platform == null) {
+            synchronized (Platform.class) {
+                platform = sPlatform;
+                if (platform == null) {
+                    platform = findPlatform();
+                    sPlatform = platform;
+                }
+            }
+        }
+
+        return platform;
+    }
+
+    /**
+     * Replace the platform of all the buses, from their next use on.
+     */
+    public static void install(@NonNull Platform platform) {
+        sPlatform = platform;
+    }
+
+    @NonNull
+    public Logger getLogger() {
+        return mLogger;
+    }
+
+    @NonNull
+    public Executor getMainThreadExecutor() {
+        return mMainThreadExecutor;
+    }
+
+    /**
+     * @return TRUE if called on the main thread
+     */
+    public boolean isMainThread() {
+        return mThreadCheck.isMainThread();
+    }
+
+    private static Platform findPlatform() {
+        Class<?> androidPlatform;
+        try {
+            androidPlatform = Class.forName(ANDROID_PLATFORM);
+        } catch (ClassNotFoundException e) {
+            return new Builder().build();
+        }
+
+        try {
+            return (Platform) androidPlatform.getMethod("create").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Failed to create the Android platform", e);
+        }
+    }
+
+    /**
+     * Builds a platform. Unset options default to the ones of a plain JVM: {@link java.util.logging},
+     * and a main thread of the bus's own, started on first use. The main thread executor and the thread
+     * check describe the same thread, so they are set together.
+     */
+    public static final class Builder {
+        private Logger mLogger;
+        private Executor mMainThreadExecutor;
+        private ThreadCheck mThreadCheck;
+
+        public Builder logger(@NonNull Logger logger) {
+            this.mLogger = logger;
+            return this;
+        }
+
+        /**
+         * @param executor    Runs tasks on the main thread, in the order they were given
+         * @param threadCheck Tells whether the calling thread is the one the executor runs tasks on
+         */
+        public Builder mainThread(@NonNull Executor executor, @NonNull ThreadCheck threadCheck) {
+            this.mMainThreadExecutor = executor;
+            this.mThreadCheck = threadCheck;
+            return this;
+        }
+
+        public Platform build() {
+            Executor executor = mMainThreadExecutor;
+            ThreadCheck threadCheck = mThreadCheck;
+            if (executor == null) {
+                MainLoop mainLoop = new MainLoop();
+                executor = mainLoop;
+                threadCheck = mainLoop;
+            }
+
+            return new Platform(mLogger != null ? mLogger : new JvmLogger(), executor, threadCheck);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package net.analizer.rxbuslib.platform;
+
+/**
+ * Tells whether the calling thread is the main thread, the one run by the main thread executor of the
+ * {@link Platform}. It is called on every delivery to a main thread subscriber, so it must be cheap.
+ */
+public interface ThreadCheck {
+
+    /**
+     * @return TRUE if called on the main thread
+     */
+    boolean isMainThread();
+}
@@ -0,0 +1,125 @@
+package net.analizer.rxbuslib.store;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * {@link EventSerializer} writing strings, boxed primitives and byte arrays as a type byte followed by
+ * their binary value, e.g. 5 bytes for an {@link Integer}. Other events are rejected unless a fallback
+ * serializer is given for them.
+ * <p>
+ * <p>The bytes read by a {@link net.analizer.rxbuslib.BusBridge} come from files any local process may
+ * write to, so no class is ever instantiated from them without the fallback being opted into: a
+ * {@link SerializableEventSerializer} fallback runs Java deserialization on whatever those files hold.
+ */
+public final class CompactEventSerializer implements EventSerializer {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte SHORT = 7;
+    private static final byte BYTE = 8;
+    private static final byte CHARACTER = 9;
+    private static final byte BYTES = 10;
+    private static final byte FALLBACK = 127;
+
+    private final EventSerializer mFallback;
+
+    /**
+     * Serialize strings, boxed primitives and byte arrays only.
+     */
+    public CompactEventSerializer() {
+        this(null);
+    }
+
+    /**
+     * @param fallback serializes the other events, written and read back behind a type byte of their own
+     */
+    public CompactEventSerializer(@Nullable EventSerializer fallback) {
+        this.mFallback = fallback;
+    }
+
+    @NonNull
+    @Override
+    public byte[] serialize(@NonNull Object event) throws IOException {
+        Class<?> eventClass = event.getClass();
+        if (eventClass == String.class) {
+            byte[] bytes = ((String) event).getBytes(UTF_8);
+            return ByteBuffer.allocate(1 + bytes.length).put(STRING).put(bytes).array();
+        } else if (eventClass == Integer.class) {
+            return ByteBuffer.allocate(1 + 4).put(INTEGER).putInt((Integer) event).array();
+        } else if (eventClass == Long.class) {
+            return ByteBuffer.allocate(1 + 8).put(LONG).putLong((Long) event).array();
+        } else if (eventClass == Double.class) {
+            return ByteBuffer.allocate(1 + 8).put(DOUBLE).putDouble((Double) event).array();
+        } else if (eventClass == Float.class) {
+            return ByteBuffer.allocate(1 + 4).put(FLOAT).putFloat((Float) event).array();
+        } else if (eventClass == Boolean.class) {
+            return new byte[]{BOOLEAN, (byte) ((Boolean) event ? 1 : 0)};
+        } else if (eventClass == Short.class) {
+            return ByteBuffer.allocate(1 + 2).put(SHORT).putShort((Short) event).array();
+        } else if (eventClass == Byte.class) {
+            return new byte[]{BYTE, (Byte) event};
+        } else if (eventClass == Character.class) {
+            return ByteBuffer.allocate(1 + 2).put(CHARACTER).putChar((Character) event).array();
+        } else if (eventClass == byte[].class) {
+            byte[] bytes = (byte[]) event;
+            return ByteBuffer.allocate(1 + bytes.length).put(BYTES).put(bytes).array();
+        }
+
+        if (mFallback == null) {
+            throw new IOException("No compact form for " + eventClass.getName() + " and no fallback serializer");
+        }
+
+        byte[] bytes = mFallback.serialize(event);
+        return ByteBuffer.allocate(1 + bytes.length).put(FALLBACK).put(bytes).array();
+    }
+
+    @NonNull
+    @Override
+    public Object deserialize(@NonNull byte[] bytes) throws IOException {
+        if (bytes.length == 0) {
+            throw new IOException("Empty event");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        switch (bytes[0]) {
+            case STRING:
+                return new String(bytes, 1, bytes.length - 1, UTF_8);
+            case INTEGER:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case DOUBLE:
+                return buffer.getDouble();
+            case FLOAT:
+                return buffer.getFloat();
+            case BOOLEAN:
+                return buffer.get() != 0;
+            case SHORT:
+                return buffer.getShort();
+            case BYTE:
+                return buffer.get();
+            case CHARACTER:
+                return buffer.getChar();
+            case BYTES:
+                return Arrays.copyOfRange(bytes, 1, bytes.length);
+            case FALLBACK:
+                if (mFallback == null) {
+                    throw new IOException("Event of the fallback serializer, which is not enabled");
+                }
+                return mFallback.deserialize(Arrays.copyOfRange(bytes, 1, bytes.length));
+            default:
+                throw new IOException("Unknown event type " + bytes[0]);
+        }
+    }
+}
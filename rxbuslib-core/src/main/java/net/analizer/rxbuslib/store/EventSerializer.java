@@ -0,0 +1,28 @@
+package net.analizer.rxbuslib.store;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+
+/**
+ * Converts the events of a {@link ReplayLog} to and from bytes. A tag may carry events of several
+ * classes, so the bytes must identify the class of the event they were written from.
+ */
+public interface EventSerializer {
+
+    /**
+     * @param event event posted on the tag of the log
+     * @return the bytes the event is stored as
+     * @throws IOException if the event cannot be serialized
+     */
+    @NonNull
+    byte[] serialize(@NonNull Object event) throws IOException;
+
+    /**
+     * @param bytes bytes written by {@link #serialize(Object)}
+     * @return the event the bytes were written from
+     * @throws IOException if the bytes cannot be read back
+     */
+    @NonNull
+    Object deserialize(@NonNull byte[] bytes) throws IOException;
+}
@@ -0,0 +1,219 @@
+package net.analizer.rxbuslib.store;
+
+import android.support.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+
+/**
+ * One file pair of a {@link ReplayLog}: a data file of length-prefixed records and an offset index
+ * holding the end position of each record, both preallocated and memory-mapped.
+ * <p>
+ * <p>A record is written before its index entry, so an entry is only ever found for a complete
+ * record and a segment cut short by a crash is recovered up to its last indexed record.
+ */
+final class LogSegment {
+    static final String DATA_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".idx";
+
+    /**
+     * Size of the length prefix of a record, which also makes every index entry positive.
+     */
+    static final int HEADER_BYTES = 4;
+
+    /**
+     * Data bytes per index entry. Smaller records fill the index first, which rolls the segment early.
+     */
+    private static final int BYTES_PER_ENTRY = 16;
+
+    /**
+     * Offset of the first record of the segment in the log.
+     */
+    final long baseOffset;
+
+    private final File mDataFile;
+    private final File mIndexFile;
+    private final MappedByteBuffer mData;
+    private final MappedByteBuffer mIndex;
+
+    /**
+     * Number of records. Like the position, only accessed while holding the lock of the log.
+     */
+    private int mCount;
+
+    /**
+     * Position of the next record in the data file.
+     */
+    private int mPosition;
+
+    /**
+     * Time of the last change of the files when the segment was opened or sealed, kept to check the age of
+     * complete segments without reading the file system.
+     */
+    private long mLastModified;
+
+    private LogSegment(long baseOffset,
+                       @NonNull File dataFile,
+                       @NonNull File indexFile,
+                       @NonNull MappedByteBuffer data,
+                       @NonNull MappedByteBuffer index) {
+        this.baseOffset = baseOffset;
+        this.mDataFile = dataFile;
+        this.mIndexFile = indexFile;
+        this.mData = data;
+        this.mIndex = index;
+
+        int count = 0;
+        while (count < index.capacity() / 4 && index.getInt(count * 4) > 0) {
+            count++;
+        }
+        this.mCount = count;
+        this.mPosition = count > 0 ? index.getInt((count - 1) * 4) : 0;
+        this.mLastModified = dataFile.lastModified();
+    }
+
+    /**
+     * Map the files of a segment, creating them if needed, and recover its records.
+     *
+     * @param directory  directory of the log
+     * @param baseOffset offset of the first record of the segment
+     * @param dataBytes  size of the data file
+     * @return the segment
+     * @throws IOException if the files cannot be mapped
+     */
+    static LogSegment open(@NonNull File directory, long baseOffset, int dataBytes) throws IOException {
+        String name = String.format(Locale.US, "%019d", baseOffset);
+        File dataFile = new File(directory, name + DATA_SUFFIX);
+        File indexFile = new File(directory, name + INDEX_SUFFIX);
+
+        return new LogSegment(
+                baseOffset, dataFile, indexFile,
+                map(dataFile, dataBytes), map(indexFile, Math.max(1, dataBytes / BYTES_PER_ENTRY) * 4)
+        );
+    }
+
+    private static MappedByteBuffer map(@NonNull File file, int size) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            // the mapping stays valid once the channel is closed
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * @param file a file of the log directory
+     * @return the base offset of the segment the data file belongs to, -1 if it is no data file
+     */
+    static long parseBaseOffset(@NonNull File file) {
+        String name = file.getName();
+        if (!name.endsWith(DATA_SUFFIX)) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(name.substring(0, name.length() - DATA_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Append a record, only from the thread holding the lock of the log.
+     *
+     * @param bytes content of the record
+     * @return false if the segment has no room left for it
+     */
+    boolean append(@NonNull byte[] bytes) {
+        int end = mPosition + HEADER_BYTES + bytes.length;
+        if (end > mData.capacity() || mCount == mIndex.capacity() / 4) {
+            return false;
+        }
+
+        ByteBuffer data = mData.duplicate();
+        data.position(mPosition);
+        data.putInt(bytes.length);
+        data.put(bytes);
+
+        mIndex.putInt(mCount * 4, end);
+        mPosition = end;
+        mCount++;
+        return true;
+    }
+
+    /**
+     * @param index index of a record in the segment, lower than {@link #getCount()}
+     * @return the content of the record
+     */
+    byte[] read(int index) {
+        int start = index > 0 ? mIndex.getInt((index - 1) * 4) : 0;
+        ByteBuffer data = mData.duplicate();
+        data.position(start);
+        byte[] bytes = new byte[data.getInt()];
+        data.get(bytes);
+        return bytes;
+    }
+
+    int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return number of bytes taken by the records
+     */
+    int getSize() {
+        return mPosition;
+    }
+
+    /**
+     * @return time of the last change of the files of a complete segment
+     */
+    long lastModified() {
+        return mLastModified;
+    }
+
+    /**
+     * Mark the segment as complete, starting its retention period.
+     */
+    void seal() {
+        mData.force();
+        mIndex.force();
+        mLastModified = System.currentTimeMillis();
+        //noinspection ResultOfMethodCallIgnored
+        mDataFile.setLastModified(mLastModified);
+    }
+
+    /**
+     * Write the mapped pages back to the files.
+     */
+    void flush() {
+        mData.force();
+        mIndex.force();
+    }
+
+    /**
+     * Release the mappings of the segment, which must not be used afterwards.
+     */
+    void close() {
+        MappedBuffers.unmap(mData);
+        MappedBuffers.unmap(mIndex);
+    }
+
+    /**
+     * Release the mappings and delete the files of the segment, which must not be used afterwards.
+     * Some file systems refuse to delete a file that is still mapped.
+     *
+     * @return false if a file could not be deleted
+     */
+    boolean delete() {
+        close();
+        boolean deleted = mDataFile.delete() || !mDataFile.exists();
+        return (mIndexFile.delete() || !mIndexFile.exists()) && deleted;
+    }
+}
@@ -0,0 +1,55 @@
+package net.analizer.rxbuslib.store;
+
+import android.support.annotation.NonNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Releases the memory mappings of the replay log segments and of the bridge ring files.
+ */
+public final class MappedBuffers {
+
+    private MappedBuffers() {
+    }
+
+    /**
+     * Unmap a buffer right away rather than once it is collected, through the cleaner of the runtime.
+     * Without one the mapping is left to the garbage collector. The buffer must not be accessed afterwards,
+     * which would crash the process.
+     */
+    public static void unmap(@NonNull MappedByteBuffer buffer) {
+        try {
+            // Java 9 and later
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), buffer);
+            return;
+        } catch (Exception ignored) {
+            // not available
+        }
+
+        try {
+            // Java 8
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+                return;
+            }
+        } catch (Exception ignored) {
+            // not available
+        }
+
+        try {
+            // Android
+            Class.forName("java.nio.NioUtils").getMethod("freeDirectBuffer", ByteBuffer.class).invoke(null, buffer);
+        } catch (Exception ignored) {
+            // not available, the mapping is released once the buffer is collected
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package net.analizer.rxbuslib.store;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.platform.Platform;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.reactivex.functions.Consumer;
+
+/**
+ * Durable history of a replay tag: an append-only log of memory-mapped segment files which outlives
+ * the process, so replay subscribers registering after a restart still catch up.
+ * <p>
+ * <p>Each event gets an offset, one more than the previous event. Segments are preallocated to a fixed
+ * size; when the current one is full a new one is started and the complete ones become subject to
+ * retention: the oldest are deleted while the log is larger than {@code maxBytes} or when they are older
+ * than {@code maxAgeMillis}, which is also checked on each append and replay. Catching up reads the events one at a time from the mapped files, so the
+ * history never has to fit on the heap.
+ * <p>
+ * <p>A log belongs to a single bus and must be closed by its owner.
+ */
+public final class ReplayLog implements Closeable {
+    private static final String TAG = "RxBus";
+
+    private final File mDirectory;
+    private final EventSerializer mSerializer;
+    private final int mSegmentBytes;
+    private final long mMaxBytes;
+    private final long mMaxAgeMillis;
+
+    /**
+     * Segments from the oldest to the current one, never empty while the log is open.
+     */
+    private final List<LogSegment> mSegments = new ArrayList<>();
+
+    /**
+     * Segments retired while a replay was reading them, deleted once no replay is running.
+     */
+    private final List<LogSegment> mRetired = new ArrayList<>();
+
+    /**
+     * Number of replays running. Their segments stay mapped until it drops back to 0.
+     */
+    private int mReplays;
+
+    private boolean mClosed;
+
+    private ReplayLog(@NonNull Builder builder) throws IOException {
+        this.mDirectory = builder.mDirectory;
+        this.mSerializer = builder.mSerializer;
+        this.mSegmentBytes = builder.mSegmentBytes;
+        this.mMaxBytes = builder.mMaxBytes;
+        this.mMaxAgeMillis = builder.mMaxAgeMillis;
+
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            throw new IOException("Cannot create replay log directory " + mDirectory);
+        }
+
+        List<Long> baseOffsets = new ArrayList<>();
+        File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                long baseOffset = LogSegment.parseBaseOffset(file);
+                if (baseOffset >= 0) {
+                    baseOffsets.add(baseOffset);
+                }
+            }
+        }
+
+        Long[] sortedOffsets = baseOffsets.toArray(new Long[baseOffsets.size()]);
+        Arrays.sort(sortedOffsets);
+        for (long baseOffset : sortedOffsets) {
+            mSegments.add(LogSegment.open(mDirectory, baseOffset, mSegmentBytes));
+        }
+        if (mSegments.isEmpty()) {
+            mSegments.add(LogSegment.open(mDirectory, 0, mSegmentBytes));
+        }
+
+        retire();
+    }
+
+    /**
+     * Append an event to the log.
+     *
+     * @param event event posted on the tag of the log
+     * @return the offset of the event
+     * @throws IOException if the event cannot be serialized or a new segment cannot be created
+     */
+    public synchronized long append(@NonNull Object event) throws IOException {
+        checkOpen();
+        retireExpired();
+
+        byte[] bytes = mSerializer.serialize(event);
+        if (bytes.length > mSegmentBytes - LogSegment.HEADER_BYTES) {
+            throw new IOException("Event of " + bytes.length + " bytes does not fit in a segment of "
+                    + mSegmentBytes + " bytes: " + event);
+        }
+
+        LogSegment segment = currentSegment();
+        if (!segment.append(bytes)) {
+            segment.seal();
+            segment = LogSegment.open(mDirectory, getEndOffset(), mSegmentBytes);
+            mSegments.add(segment);
+            retire();
+
+            if (!segment.append(bytes)) {
+                throw new IOException("Event does not fit in the index of a new segment: " + event);
+            }
+        }
+
+        return getEndOffset() - 1;
+    }
+
+    /**
+     * Read the events from the given offset on, in order, one at a time. The events are read from
+     * the segments as they are when the replay starts, without holding the log: events appended
+     * meanwhile, by other threads or by the consumer itself, are left to a later replay from the
+     * returned offset.
+     *
+     * @param fromOffset offset of the first event, events retired before it are skipped
+     * @param consumer   receives each event
+     * @return offset following the last event replayed
+     * @throws IOException if an event cannot be deserialized
+     */
+    public long replay(long fromOffset, @NonNull Consumer<Object> consumer) throws IOException {
+        LogSegment[] segments;
+        int[] counts;
+        synchronized (this) {
+            checkOpen();
+            retireExpired();
+
+            segments = mSegments.toArray(new LogSegment[mSegments.size()]);
+            counts = new int[segments.length];
+            for (int i = 0; i < segments.length; i++) {
+                counts[i] = segments[i].getCount();
+            }
+            mReplays++;
+        }
+
+        try {
+            for (int s = 0; s < segments.length; s++) {
+                LogSegment segment = segments[s];
+                if (segment.baseOffset + counts[s] <= fromOffset) {
+                    continue;
+                }
+
+                for (int i = (int) Math.max(0, fromOffset - segment.baseOffset); i < counts[s]; i++) {
+                    Object event = mSerializer.deserialize(segment.read(i));
+                    try {
+                        consumer.accept(event);
+                    } catch (Exception e) {
+                        throw new IOException("Failed to replay " + event, e);
+                    }
+                }
+            }
+        } finally {
+            endReplay();
+        }
+
+        LogSegment current = segments[segments.length - 1];
+        return current.baseOffset + counts[segments.length - 1];
+    }
+
+    /**
+     * Unmap the segments retired or closed while the last replay was reading them.
+     */
+    private synchronized void endReplay() {
+        if (--mReplays > 0) {
+            return;
+        }
+
+        for (LogSegment segment : mRetired) {
+            delete(segment);
+        }
+        mRetired.clear();
+
+        if (mClosed) {
+            for (LogSegment segment : mSegments) {
+                segment.close();
+            }
+        }
+    }
+
+    /**
+     * @return offset of the oldest event still in the log
+     */
+    public synchronized long getStartOffset() {
+        return mSegments.get(0).baseOffset;
+    }
+
+    /**
+     * @return offset the next event will get
+     */
+    public synchronized long getEndOffset() {
+        LogSegment segment = currentSegment();
+        return segment.baseOffset + segment.getCount();
+    }
+
+    /**
+     * @return number of bytes taken by the events in the log
+     */
+    public synchronized long getSize() {
+        long size = 0;
+        for (LogSegment segment : mSegments) {
+            size += segment.getSize();
+        }
+
+        return size;
+    }
+
+    /**
+     * Write the mapped pages of the current segment back to its files. Appended events survive the
+     * process dying without this, the page cache being written back by the system; flushing also
+     * protects them from the system going down.
+     */
+    public synchronized void flush() {
+        if (!mClosed) {
+            currentSegment().flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        if (!mClosed && mReplays == 0) {
+            for (LogSegment segment : mSegments) {
+                segment.close();
+            }
+        }
+        mClosed = true;
+    }
+
+    private LogSegment currentSegment() {
+        return mSegments.get(mSegments.size() - 1);
+    }
+
+    private void checkOpen() throws IOException {
+        if (mClosed) {
+            throw new IOException("Replay log " + mDirectory + " is closed");
+        }
+    }
+
+    /**
+     * Retire the segments past the age limit, which a quiet log might not roll over for a long time.
+     */
+    private void retireExpired() {
+        if (mSegments.size() > 1 && isExpired(mSegments.get(0), System.currentTimeMillis())) {
+            retire();
+        }
+    }
+
+    private boolean isExpired(@NonNull LogSegment segment, long now) {
+        return mMaxAgeMillis > 0 && segment.lastModified() + mMaxAgeMillis < now;
+    }
+
+    /**
+     * Delete the oldest complete segments exceeding the size or age limits. The current segment is never deleted.
+     */
+    private void retire() {
+        long size = getSize();
+        long now = System.currentTimeMillis();
+        while (mSegments.size() > 1) {
+            LogSegment oldest = mSegments.get(0);
+            boolean tooLarge = mMaxBytes > 0 && size > mMaxBytes;
+            if (!tooLarge && !isExpired(oldest, now)) {
+                return;
+            }
+
+            size -= oldest.getSize();
+            mSegments.remove(0);
+            if (mReplays > 0) {
+                mRetired.add(oldest);
+            } else {
+                delete(oldest);
+            }
+        }
+    }
+
+    private void delete(@NonNull LogSegment segment) {
+        if (!segment.delete()) {
+            // retired again when the log is opened next
+            Platform.get().getLogger().error(TAG, "Failed to delete the segment " + segment.baseOffset
+                    + " of the replay log " + mDirectory);
+        }
+    }
+
+    /**
+     * Opens a replay log with non-default options.
+     */
+    public static final class Builder {
+        private final File mDirectory;
+        private final EventSerializer mSerializer;
+        private int mSegmentBytes = 1024 * 1024;
+        private long mMaxBytes;
+        private long mMaxAgeMillis;
+
+        /**
+         * @param directory  directory of the segment files, used by this log only
+         * @param serializer converts the events of the tag to and from bytes
+         */
+        public Builder(@NonNull File directory, @NonNull EventSerializer serializer) {
+            this.mDirectory = directory;
+            this.mSerializer = serializer;
+        }
+
+        /**
+         * @param segmentBytes size of each segment file, 1 MiB by default. Bounds the size of a single event.
+         */
+        public Builder segmentBytes(int segmentBytes) {
+            this.mSegmentBytes = segmentBytes;
+            return this;
+        }
+
+        /**
+         * @param maxBytes size of the events above which the oldest segments are deleted, 0 for no limit
+         */
+        public Builder maxBytes(long maxBytes) {
+            this.mMaxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * @param maxAgeMillis age of a complete segment after which it is deleted, 0 for no limit
+         */
+        public Builder maxAgeMillis(long maxAgeMillis) {
+            this.mMaxAgeMillis = maxAgeMillis;
+            return this;
+        }
+
+        /**
+         * Open the log, recovering the segments already in its directory.
+         *
+         * @throws IOException if the segment files cannot be mapped
+         */
+        public ReplayLog build() throws IOException {
+            if (mSegmentBytes <= LogSegment.HEADER_BYTES) {
+                throw new IllegalArgumentException("Segments are too small: " + mSegmentBytes);
+            }
+            if (mMaxBytes < 0 || mMaxAgeMillis < 0) {
+                throw new IllegalArgumentException("Negative retention limit");
+            }
+
+            return new ReplayLog(this);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package net.analizer.rxbuslib.store;
+
+import android.support.annotation.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * {@link EventSerializer} of events implementing {@link java.io.Serializable}, using Java serialization.
+ * Compact enough for small logs; high-volume tags are better served by a dedicated format. Only to be
+ * used on bytes written by the app itself, as deserializing can instantiate any class on the class path.
+ */
+public final class SerializableEventSerializer implements EventSerializer {
+
+    @NonNull
+    @Override
+    public byte[] serialize(@NonNull Object event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(bytes);
+        try {
+            output.writeObject(event);
+        } finally {
+            output.close();
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @NonNull
+    @Override
+    public Object deserialize(@NonNull byte[] bytes) throws IOException {
+        ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        try {
+            return input.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown event class: " + e.getMessage(), e);
+        } finally {
+            input.close();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package net.analizer.rxbuslib.threads;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.annotations.SourceMethod;
+import net.analizer.rxbuslib.platform.Platform;
+
+import java.util.ArrayDeque;
+
+import io.reactivex.exceptions.MissingBackpressureException;
+
+/**
+ * Bounded queue of the events waiting to be delivered to one subscriber method, applying its
+ * {@link OverflowStrategy} when the subscriber falls behind.
+ * <p>
+ * <p>The mailbox is handed to the {@link EventDispatcher} of the subscriber once when it gets its
+ * first waiting event, and delivers everything it holds from there.
+ * {@link OverflowStrategy#LATEST} subscribers use the lock-free {@link ConflatingMailbox} instead.
+ */
+public final class BoundedMailbox implements SubscriberMailbox {
+    private static final String TAG = "RxBus";
+
+    private final SourceMethod mSourceMethod;
+    private final EventDispatcher mDispatcher;
+    private final OverflowStrategy mStrategy;
+    private final int mCapacity;
+
+    private final ArrayDeque<Object> mEvents;
+    private boolean mScheduled;
+    private volatile long mShedCount;
+
+    /**
+     * @param sourceMethod subscriber method
+     * @param dispatcher   dispatcher of the method
+     * @param strategy     what to do when {@code capacity} events are already waiting, not {@link OverflowStrategy#BUFFER}
+     * @param capacity     maximum number of waiting events
+     */
+    public BoundedMailbox(@NonNull SourceMethod sourceMethod,
+                          @NonNull EventDispatcher dispatcher,
+                          @NonNull OverflowStrategy strategy,
+                          int capacity) {
+        this.mSourceMethod = sourceMethod;
+        this.mDispatcher = dispatcher;
+        this.mStrategy = strategy;
+        this.mCapacity = capacity;
+        this.mEvents = new ArrayDeque<>(Math.min(mCapacity, 16));
+    }
+
+    @Override
+    public void offer(@NonNull Object event) {
+        boolean schedule = false;
+        int shed = 0;
+        synchronized (this) {
+            if (mEvents.size() < mCapacity) {
+                mEvents.offer(event);
+            } else {
+                switch (mStrategy) {
+                    case DROP_OLDEST:
+                        mEvents.poll();
+                        mEvents.offer(event);
+                        shed = 1;
+                        break;
+
+                    case ERROR:
+                        shed = mEvents.size() + 1;
+                        mEvents.clear();
+                        break;
+
+                    case DROP_LATEST:
+                    default:
+                        shed = 1;
+                        break;
+                }
+            }
+
+            if (shed > 0) {
+                mShedCount += shed;
+            }
+
+            if (!mScheduled && !mEvents.isEmpty()) {
+                mScheduled = true;
+                schedule = true;
+            }
+        }
+
+        if (shed > 0) {
+            mDispatcher.onShed(shed);
+            if (mStrategy == OverflowStrategy.ERROR) {
+                Platform.get().getLogger().error(TAG, new MissingBackpressureException(
+                        mSourceMethod + " could not keep up with " + mCapacity + " waiting events").toString());
+            }
+        }
+
+        if (schedule) {
+            mDispatcher.execute(this);
+        }
+    }
+
+    @Override
+    public long getShedCount() {
+        return mShedCount;
+    }
+
+    @Override
+    public void run() {
+        // deliver at most one buffer's worth per run, so a subscriber kept busy doesn't starve the others
+        for (int i = 0; i < mCapacity; i++) {
+            Object event;
+            synchronized (this) {
+                event = mEvents.poll();
+                if (event == null) {
+                    mScheduled = false;
+                    return;
+                }
+            }
+
+            mSourceMethod.deliver(event);
+        }
+
+        mDispatcher.execute(this);
+    }
+}
@@ -0,0 +1,99 @@
+package net.analizer.rxbuslib.threads;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread pool with a bounded number of named daemon threads and a bounded queue, to run the
+ * subscribers of a bus, see {@link net.analizer.rxbuslib.RxBus.Builder#executor}.
+ * Idle threads time out, so an idle bus holds no thread.
+ * <p>
+ * <p>A bus hands the executor of an {@link EventThread} one drain task per subscriber with waiting
+ * deliveries, so the threads of the pool bound how many of its subscribers run at once. When a task is
+ * rejected, the bus drains on the posting thread instead. Policies silently discarding tasks would leave
+ * the deliveries of a subscriber waiting forever, so the pool refuses {@link ThreadPoolExecutor.DiscardPolicy}
+ * and {@link ThreadPoolExecutor.DiscardOldestPolicy}.
+ */
+public final class BoundedThreadPool extends ThreadPoolExecutor {
+
+    private BoundedThreadPool(@NonNull String name,
+                              int threads,
+                              int queueCapacity,
+                              long keepAliveMillis,
+                              @NonNull RejectedExecutionHandler rejection) {
+        super(threads, threads, keepAliveMillis, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory(name), rejection);
+        allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Builds a pool. Unset options default to one thread timing out after a minute idle, 1024 waiting
+     * tasks, and tasks over the queue capacity run by the submitting thread.
+     */
+    public static final class Builder {
+        private final String mName;
+        private int mThreads = 1;
+        private int mQueueCapacity = 1024;
+        private long mKeepAliveMillis = TimeUnit.MINUTES.toMillis(1);
+        private RejectedExecutionHandler mRejection = new ThreadPoolExecutor.CallerRunsPolicy();
+
+        /**
+         * @param name Prefix of the thread names, numbered from 1
+         */
+        public Builder(@NonNull String name) {
+            this.mName = name;
+        }
+
+        /**
+         * @param threads Maximum number of threads of the pool
+         */
+        public Builder threads(int threads) {
+            this.mThreads = threads;
+            return this;
+        }
+
+        /**
+         * @param queueCapacity Maximum number of tasks waiting for a thread
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.mQueueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param keepAlive How long a thread stays idle before it stops
+         */
+        public Builder keepAlive(long keepAlive, @NonNull TimeUnit unit) {
+            this.mKeepAliveMillis = unit.toMillis(keepAlive);
+            return this;
+        }
+
+        /**
+         * @param rejection What to do with a task once all the threads are busy and the queue is full: run it
+         *                  or throw a {@link java.util.concurrent.RejectedExecutionException}, never drop it
+         */
+        public Builder rejection(@NonNull RejectedExecutionHandler rejection) {
+            this.mRejection = rejection;
+            return this;
+        }
+
+        public BoundedThreadPool build() {
+            if (mThreads <= 0) {
+                throw new IllegalArgumentException("Thread pool needs at least one thread: " + mThreads);
+            }
+            if (mQueueCapacity <= 0) {
+                throw new IllegalArgumentException("Queue capacity must be positive: " + mQueueCapacity);
+            }
+            if (mRejection instanceof ThreadPoolExecutor.DiscardPolicy
+                    || mRejection instanceof ThreadPoolExecutor.DiscardOldestPolicy) {
+                throw new IllegalArgumentException("Rejected tasks must not be discarded: " + mRejection);
+            }
+
+            return new BoundedThreadPool(mName, mThreads, mQueueCapacity, Math.max(1, mKeepAliveMillis), mRejection);
+        }
+    }
+}
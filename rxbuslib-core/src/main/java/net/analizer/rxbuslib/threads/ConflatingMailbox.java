@@ -0,0 +1,61 @@
+package net.analizer.rxbuslib.threads;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.annotations.SourceMethod;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single-slot mailbox of a {@link OverflowStrategy#LATEST} subscriber method: posting overwrites the
+ * waiting event, so the subscriber only ever gets the newest one.
+ * <p>
+ * <p>Offering costs one atomic swap. Only the offer finding the slot empty schedules a delivery, so a
+ * slow subscriber is invoked as often as it can keep up with, not once per event posted.
+ */
+public final class ConflatingMailbox implements SubscriberMailbox {
+
+    private final SourceMethod mSourceMethod;
+    private final EventDispatcher mDispatcher;
+
+    /**
+     * Newest event not yet delivered, null if there is none.
+     */
+    private final AtomicReference<Object> mSlot = new AtomicReference<>();
+
+    private final AtomicLong mShedCount = new AtomicLong();
+
+    /**
+     * @param sourceMethod subscriber method
+     * @param dispatcher   dispatcher of the method
+     */
+    public ConflatingMailbox(@NonNull SourceMethod sourceMethod, @NonNull EventDispatcher dispatcher) {
+        this.mSourceMethod = sourceMethod;
+        this.mDispatcher = dispatcher;
+    }
+
+    @Override
+    public void offer(@NonNull Object event) {
+        if (mSlot.getAndSet(event) == null) {
+            mDispatcher.execute(this);
+        } else {
+            mShedCount.incrementAndGet();
+            mDispatcher.onShed(1);
+        }
+    }
+
+    @Override
+    public long getShedCount() {
+        return mShedCount.get();
+    }
+
+    @Override
+    public void run() {
+        // an event offered from here on finds the slot empty and schedules the next run
+        Object event = mSlot.getAndSet(null);
+        if (event != null) {
+            mSourceMethod.deliver(event);
+        }
+    }
+}
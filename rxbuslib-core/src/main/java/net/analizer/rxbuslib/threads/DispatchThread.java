@@ -0,0 +1,59 @@
+package net.analizer.rxbuslib.threads;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import net.analizer.rxbuslib.metrics.BusMetrics;
+import net.analizer.rxbuslib.metrics.SlowSubscriberDetector;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What the {@link EventDispatcher}s of the subscribers observing on one {@link EventThread} of a bus share:
+ * the executor running their drains, the cap on concurrent deliveries and the count of shed events.
+ */
+final class DispatchThread {
+
+    /**
+     * Thread of the subscribers, null for the serial mailboxes of the listeners.
+     */
+    @Nullable
+    final EventThread thread;
+
+    final Executor executor;
+
+    /**
+     * Bounds the number of deliveries running at once, each on a thread of its own, null for queued deliveries.
+     */
+    @Nullable
+    final Semaphore permits;
+
+    /**
+     * Number of events dropped by the {@link SubscriberMailbox}es of the subscribers.
+     */
+    final AtomicLong shedCount = new AtomicLong();
+
+    @Nullable
+    final BusMetrics metrics;
+
+    @Nullable
+    final SlowSubscriberDetector slowSubscriberDetector;
+
+    /**
+     * @param executor       runs the drain tasks, or each delivery when concurrent
+     * @param maxConcurrency number of deliveries running at once on threads of their own, 0 to queue them
+     */
+    DispatchThread(@Nullable EventThread thread,
+                   @NonNull Executor executor,
+                   int maxConcurrency,
+                   @Nullable BusMetrics metrics,
+                   @Nullable SlowSubscriberDetector slowSubscriberDetector) {
+        this.thread = thread;
+        this.executor = executor;
+        this.permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+        this.metrics = metrics;
+        this.slowSubscriberDetector = slowSubscriberDetector;
+    }
+}
@@ -0,0 +1,232 @@
+package net.analizer.rxbuslib.threads;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import net.analizer.rxbuslib.annotations.SourceMethod;
+import net.analizer.rxbuslib.metrics.BusMetrics;
+import net.analizer.rxbuslib.metrics.SlowSubscriberDetector;
+import net.analizer.rxbuslib.platform.Platform;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Delivers events to one subscriber method, or to all the methods of a listener with a serial mailbox.
+ * <p>
+ * <p>Deliveries are appended to a lock-free queue and drained by a single task run by the executor of the
+ * subscriber's {@link EventThread}: a burst of events costs the subscriber one scheduler hop, not one per event.
+ * Deliveries are made one at a time and in the order they were dispatched. Every subscriber has a queue of its
+ * own, so one blocking only holds back its own deliveries, and the subscribers of a thread run in parallel as
+ * far as its executor allows. A drain rejected by the executor runs on the dispatching thread instead, so
+ * deliveries never wait forever.
+ * <p>
+ * <p>{@link EventThread#TRAMPOLINE} subscribers, and {@link EventThread#MAIN_THREAD} subscribers when posting
+ * from the main thread with none of their deliveries pending, are invoked directly on the posting thread.
+ * <p>
+ * <p>{@link EventThread#VIRTUAL} deliveries skip the queue: each one starts a virtual thread, which waits
+ * for one of the permits of the bus before invoking the subscriber. Blocked deliveries beyond the
+ * cap park virtual threads only.
+ * <p>
+ * <p>The serial mailbox of a listener, see {@link net.analizer.rxbuslib.RxBus.Builder#serialListeners}, is a
+ * dispatcher of no thread: it queues the deliveries to all the methods of the listener observing on a pool
+ * thread, and runs them one at a time on the pool shared by the listeners of the bus.
+ */
+public final class EventDispatcher {
+
+    private final DispatchThread mThread;
+
+    /**
+     * Number of dispatches not yet seen by the drain task; the dispatch taking it from 0 schedules the drain.
+     */
+    private final AtomicInteger mWip = new AtomicInteger();
+
+    /**
+     * Producer end of the queue, swapped by dispatching threads.
+     */
+    private final AtomicReference<Delivery> mTail;
+
+    /**
+     * Consumer end of the queue, only touched by the drain task.
+     */
+    private Delivery mHead;
+
+    private final Runnable mDrain = this::drain;
+
+    /**
+     * @param thread what the dispatchers of the subscriber's thread share
+     */
+    EventDispatcher(@NonNull DispatchThread thread) {
+        Delivery stub = new Delivery(null, null);
+        this.mThread = thread;
+        this.mHead = stub;
+        this.mTail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * @return the thread subscribers of this dispatcher observe on, null for the serial mailbox of a listener
+     */
+    @Nullable
+    public EventThread getThread() {
+        return mThread.thread;
+    }
+
+    /**
+     * @return metrics of the bus, timing the subscribers of this dispatcher, null if the bus has none
+     */
+    @Nullable
+    public BusMetrics getMetrics() {
+        return mThread.metrics;
+    }
+
+    /**
+     * @return detector of the slow invocations of the subscribers of this dispatcher, null if the bus has none
+     */
+    @Nullable
+    public SlowSubscriberDetector getSlowSubscriberDetector() {
+        return mThread.slowSubscriberDetector;
+    }
+
+    /**
+     * @return TRUE if the deliveries of this dispatcher run on a pool thread and could be made through the
+     * serial mailbox of the listener instead. {@link EventThread#VIRTUAL} deliveries keep their own threads,
+     * as a blocking subscriber would otherwise hold a thread of the listener pool.
+     */
+    public boolean isPooled() {
+        EventThread thread = mThread.thread;
+        return thread != EventThread.MAIN_THREAD && thread != EventThread.TRAMPOLINE && thread != EventThread.VIRTUAL;
+    }
+
+    /**
+     * @return TRUE if subscribers can be invoked right away on the calling thread. A main thread subscriber
+     * with deliveries still queued, posted from other threads, gets the event queued behind them instead.
+     */
+    public boolean isImmediate() {
+        EventThread thread = mThread.thread;
+        return thread == EventThread.TRAMPOLINE
+                || (thread == EventThread.MAIN_THREAD && mWip.get() == 0 && Platform.get().isMainThread());
+    }
+
+    /**
+     * Queue the delivery of an event to a subscriber method, scheduling a drain if none is pending.
+     *
+     * @param sourceMethod subscriber method
+     * @param event        event to be delivered
+     */
+    public void dispatch(@NonNull SourceMethod sourceMethod, @NonNull Object event) {
+        if (mThread.permits != null) {
+            runConcurrently(() -> sourceMethod.deliver(event));
+        } else {
+            enqueue(new Delivery(sourceMethod, event));
+        }
+    }
+
+    /**
+     * Queue a task to be run in turn with the deliveries, scheduling a drain if none is pending.
+     *
+     * @param task task to be run on the thread of this dispatcher
+     */
+    public void execute(@NonNull Runnable task) {
+        if (mThread.permits != null) {
+            runConcurrently(task);
+        } else {
+            enqueue(new Delivery(null, task));
+        }
+    }
+
+    /**
+     * @return number of events dropped by the subscribers of the thread of this dispatcher that fell behind,
+     * or by all the subscribers of the listener mailboxes of the bus
+     */
+    public long getShedCount() {
+        return mThread.shedCount.get();
+    }
+
+    /**
+     * Count events dropped by a {@link SubscriberMailbox} of this dispatcher.
+     */
+    void onShed(int count) {
+        mThread.shedCount.addAndGet(count);
+    }
+
+    private void runConcurrently(@NonNull Runnable task) {
+        Semaphore permits = mThread.permits;
+        Runnable permitted = () -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        };
+
+        try {
+            mThread.executor.execute(permitted);
+        } catch (RejectedExecutionException e) {
+            onRejected();
+            permitted.run();
+        }
+    }
+
+    private void enqueue(@NonNull Delivery delivery) {
+        Delivery previous = mTail.getAndSet(delivery);
+        previous.next = delivery;
+
+        if (mWip.getAndIncrement() == 0) {
+            try {
+                mThread.executor.execute(mDrain);
+            } catch (RejectedExecutionException e) {
+                // the queue is only drained by this task, it must run
+                onRejected();
+                drain();
+            }
+        }
+    }
+
+    private void onRejected() {
+        String executor = mThread.thread != null ? mThread.thread + " executor" : "listener pool";
+        Platform.get().getLogger().error("RxBus", "The " + executor + " is saturated, delivering on "
+                + Thread.currentThread().getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain() {
+        int missed = 1;
+        for (; ; ) {
+            Delivery delivery;
+            while ((delivery = mHead.next) != null) {
+                SourceMethod sourceMethod = delivery.sourceMethod;
+                Object event = delivery.event;
+
+                // The delivered node becomes the new stub, drop its references.
+                delivery.sourceMethod = null;
+                delivery.event = null;
+                mHead = delivery;
+
+                if (sourceMethod != null) {
+                    sourceMethod.deliver(event);
+                } else {
+                    ((Runnable) event).run();
+                }
+            }
+
+            missed = mWip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    private static final class Delivery {
+        SourceMethod sourceMethod;
+        Object event;
+        volatile Delivery next;
+
+        Delivery(SourceMethod sourceMethod, Object event) {
+            this.sourceMethod = sourceMethod;
+            this.event = event;
+        }
+    }
+}
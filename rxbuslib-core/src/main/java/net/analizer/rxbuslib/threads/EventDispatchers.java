@@ -0,0 +1,223 @@
+package net.analizer.rxbuslib.threads;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import net.analizer.rxbuslib.metrics.BusMetrics;
+import net.analizer.rxbuslib.metrics.SlowSubscriberDetector;
+import net.analizer.rxbuslib.platform.Platform;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.reactivex.Scheduler;
+
+/**
+ * Creates the {@link EventDispatcher}s of the subscribers of a bus, one per subscriber method, and the serial
+ * mailboxes of its listeners when it has a listener pool. The dispatchers of an {@link EventThread} share
+ * its executor, created on first use.
+ */
+public final class EventDispatchers {
+
+    /**
+     * Default number of {@link EventThread#VIRTUAL} deliveries running at once on a bus.
+     */
+    public static final int DEFAULT_VIRTUAL_CONCURRENCY = 1024;
+
+    private final AtomicReferenceArray<DispatchThread> mThreads =
+            new AtomicReferenceArray<>(EventThread.values().length);
+
+    @Nullable
+    private final BusMetrics mMetrics;
+
+    @Nullable
+    private final SlowSubscriberDetector mSlowSubscriberDetector;
+
+    private final int mVirtualConcurrency;
+
+    /**
+     * Prefix of the names of the threads created for the bus.
+     */
+    private final String mName;
+
+    /**
+     * Executors given to the bus, by thread.
+     */
+    private final Map<EventThread, Executor> mExecutors;
+
+    /**
+     * Shared by the serial mailboxes of the listeners, null if the listeners have none.
+     */
+    @Nullable
+    private final DispatchThread mListenerThread;
+
+    /**
+     * Pools created for the bus, shut down along with it. Guarded by this object.
+     */
+    private final List<ExecutorService> mOwnedExecutors = new ArrayList<>();
+
+    private EventDispatchers() {
+        this("RxBus", null, null, DEFAULT_VIRTUAL_CONCURRENCY, Collections.<EventThread, Executor>emptyMap(),
+                false, null);
+    }
+
+    /**
+     * @param name                   prefix of the names of the threads created for the bus
+     * @param metrics                receives the invocations of the subscriber methods, null if the bus has no metrics
+     * @param slowSubscriberDetector flags the slow invocations of the subscriber methods, null if the bus has none
+     * @param virtualConcurrency     number of {@link EventThread#VIRTUAL} deliveries running at once
+     * @param executors              executors of the threads, in place of the shared schedulers. Without one,
+     *                               {@link EventThread#EXECUTOR} gets a {@link BoundedThreadPool} of the bus.
+     * @param serialListeners        whether the listeners get serial mailboxes
+     * @param listenerExecutor       drains the serial mailboxes of the listeners, null to give them a
+     *                               {@link BoundedThreadPool} of the bus with a thread per processor
+     */
+    public EventDispatchers(@NonNull String name,
+                            @Nullable BusMetrics metrics,
+                            @Nullable SlowSubscriberDetector slowSubscriberDetector,
+                            int virtualConcurrency,
+                            @NonNull Map<EventThread, Executor> executors,
+                            boolean serialListeners,
+                            @Nullable Executor listenerExecutor) {
+        if (virtualConcurrency <= 0) {
+            throw new IllegalArgumentException("Virtual thread concurrency must be positive: " + virtualConcurrency);
+        }
+
+        this.mName = name;
+        this.mMetrics = metrics;
+        this.mSlowSubscriberDetector = slowSubscriberDetector;
+        this.mVirtualConcurrency = virtualConcurrency;
+        this.mExecutors = executors;
+
+        if (serialListeners && listenerExecutor == null) {
+            BoundedThreadPool pool = new BoundedThreadPool.Builder(name + "-listener")
+                    .threads(Runtime.getRuntime().availableProcessors())
+                    .build();
+            mOwnedExecutors.add(pool);
+            listenerExecutor = pool;
+        }
+        this.mListenerThread = serialListeners
+                ? new DispatchThread(null, listenerExecutor, 0, metrics, slowSubscriberDetector)
+                : null;
+    }
+
+    /**
+     * @return the dispatchers of the subscriptions created outside of a bus, shared by all of them
+     */
+    @NonNull
+    public static EventDispatchers getDefault() {
+        return Default.INSTANCE;
+    }
+
+    /**
+     * @param thread thread the subscriber observes on, {@link EventThread#MAIN_THREAD} if null
+     * @return a new dispatcher for a subscriber method observing on the given thread
+     */
+    @NonNull
+    public EventDispatcher create(@Nullable EventThread thread) {
+        if (thread == null) {
+            thread = EventThread.MAIN_THREAD;
+        }
+
+        DispatchThread dispatchThread = mThreads.get(thread.ordinal());
+        if (dispatchThread == null) {
+            dispatchThread = createThread(thread);
+        }
+
+        return new EventDispatcher(dispatchThread);
+    }
+
+    /**
+     * Create the serial mailbox of a listener being registered, through which all its methods observing
+     * off the main thread are invoked, one at a time and in order.
+     *
+     * @return the mailbox of the listener, null if the bus has no listener pool
+     */
+    @Nullable
+    public EventDispatcher createListenerMailbox() {
+        DispatchThread listenerThread = mListenerThread;
+        return listenerThread != null ? new EventDispatcher(listenerThread) : null;
+    }
+
+    /**
+     * @return number of events dropped by subscribers of this bus that fell behind
+     */
+    public long getShedCount() {
+        long count = mListenerThread != null ? mListenerThread.shedCount.get() : 0;
+        for (int i = 0; i < mThreads.length(); i++) {
+            DispatchThread dispatchThread = mThreads.get(i);
+            if (dispatchThread != null) {
+                count += dispatchThread.shedCount.get();
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Shut down the pools created for the bus once they ran the deliveries already dispatched.
+     * The executors given to the bus are left to their owners.
+     */
+    public synchronized void shutdown() {
+        for (ExecutorService executor : mOwnedExecutors) {
+            executor.shutdown();
+        }
+        mOwnedExecutors.clear();
+    }
+
+    /**
+     * Synchronized so that the executor of a thread, which may be a pool of the bus, is only created once.
+     */
+    private synchronized DispatchThread createThread(@NonNull EventThread thread) {
+        DispatchThread dispatchThread = mThreads.get(thread.ordinal());
+        if (dispatchThread != null) {
+            return dispatchThread;
+        }
+
+        Executor executor = mExecutors.get(thread);
+        if (thread == EventThread.MAIN_THREAD) {
+            // the main thread of the platform installed when delivering, like the main thread checks
+            executor = task -> Platform.get().getMainThreadExecutor().execute(task);
+
+        } else if (executor == null && thread == EventThread.EXECUTOR) {
+            // each subscriber is drained on its own, so the pool bounds how many of them run at once
+            BoundedThreadPool pool = new BoundedThreadPool.Builder(mName + "-executor")
+                    .threads(Math.max(2, Runtime.getRuntime().availableProcessors()))
+                    .build();
+            mOwnedExecutors.add(pool);
+            executor = pool;
+
+        } else if (executor == null && thread == EventThread.VIRTUAL) {
+            if (VirtualThreads.isSupported()) {
+                dispatchThread = new DispatchThread(thread, VirtualThreads.getExecutor(), mVirtualConcurrency,
+                        mMetrics, mSlowSubscriberDetector);
+            } else {
+                Platform.get().getLogger().debug("RxBus", "No virtual threads before Java 21, VIRTUAL falls back to IO");
+            }
+        }
+
+        if (dispatchThread == null) {
+            if (executor == null) {
+                Scheduler scheduler = EventThread.getScheduler(thread);
+                executor = scheduler::scheduleDirect;
+            }
+
+            dispatchThread = new DispatchThread(thread, executor, 0, mMetrics, mSlowSubscriberDetector);
+        }
+
+        mThreads.set(thread.ordinal(), dispatchThread);
+        return dispatchThread;
+    }
+
+    /**
+     * Initialized by the class loader on first access, which makes the lazy creation thread-safe.
+     */
+    private static final class Default {
+        static final EventDispatchers INSTANCE = new EventDispatchers();
+    }
+}
@@ -1,14 +1,15 @@
 package net.analizer.rxbuslib.threads;
 
+import net.analizer.rxbuslib.platform.Platform;
+
 import java.util.concurrent.Executor;
 
 import io.reactivex.Scheduler;
-import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.schedulers.Schedulers;
 
 public enum EventThread {
     /**
-     * Scheduler which will execute actions on the Android UI thread.
+     * Scheduler which will execute actions on the main thread of the {@link Platform}, the UI thread on Android.
      */
     MAIN_THREAD,
 
@@ -52,8 +53,30 @@ public enum EventThread {
     /**
      * Converts an {@link Executor} into a new Scheduler instance.
      */
-    EXECUTOR;
+    EXECUTOR,
+
+    /**
+     * Runs each invocation on a virtual thread of its own, for subscribers blocking on IO: a blocked
+     * subscriber then costs a parked virtual thread rather than a platform thread. Invocations run
+     * concurrently, so a subscriber may get its events out of order, up to the concurrency cap of the
+     * bus, see {@link net.analizer.rxbuslib.RxBus.Builder#virtualThreadConcurrency(int)}.
+     *
+     * Virtual threads need Java 21. On older runtimes and on Android, this falls back to {@link #IO},
+     * see {@link #isVirtualSupported()}.
+     */
+    VIRTUAL;
+
+    /**
+     * @return TRUE if {@link #VIRTUAL} runs on virtual threads, FALSE if it falls back to {@link #IO}
+     */
+    public static boolean isVirtualSupported() {
+        return VirtualThreads.isSupported();
+    }
 
+    /**
+     * @param thread thread to schedule on, {@link #MAIN_THREAD} if null
+     * @return the scheduler of the thread, the same instance on every call as long as the {@link Platform} stays
+     */
     public static Scheduler getScheduler(EventThread thread) {
 
         if (thread == null) {
@@ -63,7 +86,7 @@ public enum EventThread {
         Scheduler scheduler;
         switch (thread) {
             case MAIN_THREAD:
-                scheduler = AndroidSchedulers.mainThread();
+                scheduler = SharedSchedulers.mainThread();
                 break;
             case NEW_THREAD:
                 scheduler = Schedulers.newThread();
@@ -78,10 +101,13 @@ public enum EventThread {
                 scheduler = Schedulers.trampoline();
                 break;
             case EXECUTOR:
-                scheduler = Schedulers.from(ThreadHandler.DEFAULT.getExecutor());
+                scheduler = SharedSchedulers.defaultExecutorScheduler();
+                break;
+            case VIRTUAL:
+                scheduler = VirtualThreads.getScheduler();
                 break;
             default:
-                scheduler = AndroidSchedulers.mainThread();
+                scheduler = SharedSchedulers.mainThread();
                 break;
         }
         return scheduler;
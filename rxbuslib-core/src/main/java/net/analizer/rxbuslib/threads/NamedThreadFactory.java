@@ -0,0 +1,26 @@
+package net.analizer.rxbuslib.threads;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates daemon threads named after their pool and numbered, so they show up in thread dumps and
+ * profilers, and never keep the process alive.
+ */
+final class NamedThreadFactory implements ThreadFactory {
+    private final String mName;
+    private final AtomicInteger mCount = new AtomicInteger();
+
+    NamedThreadFactory(@NonNull String name) {
+        this.mName = name;
+    }
+
+    @Override
+    public Thread newThread(@NonNull Runnable runnable) {
+        Thread thread = new Thread(runnable, mName + "-" + mCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,38 @@
+package net.analizer.rxbuslib.threads;
+
+/**
+ * What happens to events delivered asynchronously to a subscriber that falls behind,
+ * i.e. when it already has {@code capacity} events waiting for its thread.
+ * <p>
+ * <p>Subscribers invoked on the posting thread never have events waiting, so their strategy has no effect.
+ */
+public enum OverflowStrategy {
+    /**
+     * Keep every event, without bound. This is the default.
+     */
+    BUFFER,
+
+    /**
+     * Keep at most {@code capacity} events, dropping the oldest waiting event to make room.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Keep at most {@code capacity} events, dropping new events while the buffer is full.
+     */
+    DROP_LATEST,
+
+    /**
+     * Keep only the most recent event, replacing the waiting one, so a slow subscriber skips the
+     * intermediate values. The capacity is ignored.
+     *
+     * @see net.analizer.rxbuslib.annotations.Subscribe#conflate()
+     */
+    LATEST,
+
+    /**
+     * Keep at most {@code capacity} events. On overflow all waiting events are dropped along with the new one
+     * and a {@link io.reactivex.exceptions.MissingBackpressureException} is logged.
+     */
+    ERROR
+}
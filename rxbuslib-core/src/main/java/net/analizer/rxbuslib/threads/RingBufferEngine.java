@@ -0,0 +1,321 @@
+package net.analizer.rxbuslib.threads;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.platform.Platform;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import io.reactivex.functions.BiConsumer;
+
+/**
+ * Asynchronous dispatch engine in the style of the LMAX Disruptor: a preallocated ring of slots
+ * claimed by producers with a sequence number and drained by dedicated consumer threads.
+ * <p>
+ * <p>Publishing writes into a preallocated slot, so posting does not allocate. Each target is bound to
+ * one consumer thread, which delivers its events in publishing order, and targets are spread over the
+ * consumers. When the ring is full, producers wait for the consumers to free a slot.
+ * <p>
+ * <p>Idle consumers spin briefly, then park until a producer publishes, so an idle engine costs no CPU.
+ * <p>
+ * <p>A consumer frees the slot of an event before delivering it. An event published from a consumer thread,
+ * e.g. by a subscriber posting to its own bus, never waits for a slot: with the ring full it is delivered
+ * right away on that thread, ahead of the events waiting in the ring, where waiting would deadlock.
+ *
+ * @param <T> type of the targets events are published to
+ */
+public final class RingBufferEngine<T> {
+    private static final String TAG = "RxBus";
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    private final Slot<T>[] mSlots;
+    private final int mMask;
+    private final int mIndexShift;
+
+    /**
+     * Round number of the sequence last published to each slot, -1 if none.
+     */
+    private final AtomicIntegerArray mPublished;
+
+    /**
+     * Next sequence to be claimed by a producer.
+     */
+    private final AtomicLong mClaimed = new AtomicLong();
+
+    /**
+     * Lowest sequence not yet processed by every consumer, as last seen by a producer.
+     */
+    private final AtomicLong mGatingSequence = new AtomicLong();
+
+    private final Consumer<T>[] mConsumers;
+    private final BiConsumer<T, Object> mHandler;
+
+    private volatile boolean mShutdown;
+
+    /**
+     * @param name      prefix of the consumer thread names
+     * @param size      number of slots, must be a power of two
+     * @param consumers number of consumer threads
+     * @param handler   delivers an event to its target, on a consumer thread
+     */
+    @SuppressWarnings("unchecked")
+    public RingBufferEngine(@NonNull String name,
+                            int size,
+                            int consumers,
+                            @NonNull BiConsumer<T, Object> handler) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring buffer size must be a power of two: " + size);
+        }
+        if (consumers <= 0) {
+            throw new IllegalArgumentException("Ring buffer needs at least one consumer: " + consumers);
+        }
+
+        mSlots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            mSlots[i] = new Slot<>();
+        }
+        mMask = size - 1;
+        mIndexShift = Integer.numberOfTrailingZeros(size);
+        mPublished = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            mPublished.set(i, -1);
+        }
+        mHandler = handler;
+
+        mConsumers = new Consumer[consumers];
+        for (int i = 0; i < consumers; i++) {
+            mConsumers[i] = new Consumer<>(this, i);
+            Thread thread = new ConsumerThread(this, mConsumers[i], name + "-ring-" + i);
+            thread.setDaemon(true);
+            mConsumers[i].thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Publish an event to be delivered to the given target on its consumer thread.
+     * Waits for a free slot if the ring is full, unless called from a consumer thread.
+     *
+     * @param target target of the event
+     * @param event  event to be delivered
+     * @throws IllegalStateException if the engine is shut down
+     */
+    public void publish(@NonNull T target, @NonNull Object event) {
+        if (mShutdown) {
+            throw new IllegalStateException("Ring buffer is shut down");
+        }
+
+        long sequence;
+        if (isConsumerThread()) {
+            sequence = tryClaim();
+            if (sequence < 0) {
+                deliver(target, event);
+                return;
+            }
+        } else {
+            sequence = mClaimed.getAndIncrement();
+            awaitCapacity(sequence);
+        }
+
+        int index = (int) sequence & mMask;
+        Slot<T> slot = mSlots[index];
+        slot.target = target;
+        slot.event = event;
+        slot.consumer = (System.identityHashCode(target) & Integer.MAX_VALUE) % mConsumers.length;
+        mPublished.set(index, (int) (sequence >>> mIndexShift));
+
+        for (Consumer<T> consumer : mConsumers) {
+            if (consumer.waiting) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    /**
+     * @return number of slots of the ring
+     */
+    public int getSize() {
+        return mSlots.length;
+    }
+
+    /**
+     * Stop the consumer threads once they delivered the events already published, and wait for them.
+     * Publishing afterwards throws.
+     */
+    public void shutdown() {
+        mShutdown = true;
+        for (Consumer<T> consumer : mConsumers) {
+            LockSupport.unpark(consumer.thread);
+        }
+
+        try {
+            for (Consumer<T> consumer : mConsumers) {
+                // a subscriber shutting down its own bus cannot wait for itself
+                if (consumer.thread != Thread.currentThread()) {
+                    consumer.thread.join();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return TRUE if the calling thread is a consumer of this engine
+     */
+    private boolean isConsumerThread() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof ConsumerThread && ((ConsumerThread) thread).engine == this;
+    }
+
+    /**
+     * Claim the next sequence only if its slot is free.
+     *
+     * @return the claimed sequence, -1 if the ring is full
+     */
+    private long tryClaim() {
+        for (; ; ) {
+            long sequence = mClaimed.get();
+            if (sequence - mSlots.length >= minimumConsumerSequence()) {
+                return -1;
+            }
+            if (mClaimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    private void awaitCapacity(long sequence) {
+        long wrapPoint = sequence - mSlots.length;
+        if (wrapPoint < mGatingSequence.get()) {
+            return;
+        }
+
+        int tries = 0;
+        long gatingSequence;
+        while (wrapPoint >= (gatingSequence = minimumConsumerSequence())) {
+            if (mShutdown) {
+                throw new IllegalStateException("Ring buffer is shut down");
+            }
+            if (++tries < SPIN_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(1000L);
+            }
+        }
+        mGatingSequence.set(gatingSequence);
+    }
+
+    private long minimumConsumerSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (Consumer<T> consumer : mConsumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+
+        return minimum;
+    }
+
+    private void deliver(T target, Object event) {
+        try {
+            mHandler.accept(target, event);
+        } catch (Throwable e) {
+            Platform.get().getLogger().error(TAG, "Failed to deliver " + event + ": " + e);
+        }
+    }
+
+    private boolean isPublished(long sequence) {
+        return mPublished.get((int) sequence & mMask) == (int) (sequence >>> mIndexShift);
+    }
+
+    /**
+     * Consumer thread, telling the engine it belongs to.
+     */
+    private static final class ConsumerThread extends Thread {
+        final RingBufferEngine<?> engine;
+
+        ConsumerThread(@NonNull RingBufferEngine<?> engine, @NonNull Runnable consumer, @NonNull String name) {
+            super(consumer, name);
+            this.engine = engine;
+        }
+    }
+
+    private static final class Slot<T> {
+        T target;
+        Object event;
+        int consumer;
+    }
+
+    private static final class Consumer<T> implements Runnable {
+        private final RingBufferEngine<T> mEngine;
+        private final int mIndex;
+
+        /**
+         * Next sequence to be processed by this consumer.
+         */
+        final AtomicLong sequence = new AtomicLong();
+
+        volatile boolean waiting;
+        Thread thread;
+
+        Consumer(@NonNull RingBufferEngine<T> engine, int index) {
+            this.mEngine = engine;
+            this.mIndex = index;
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get();
+            for (; ; ) {
+                if (!mEngine.isPublished(next) && !await(next)) {
+                    return;
+                }
+
+                // free each slot before its delivery, so a subscriber publishing from here finds room
+                do {
+                    Slot<T> slot = mEngine.mSlots[(int) next & mEngine.mMask];
+                    next++;
+                    if (slot.consumer == mIndex) {
+                        T target = slot.target;
+                        Object event = slot.event;
+                        slot.target = null;
+                        slot.event = null;
+                        sequence.lazySet(next);
+                        mEngine.deliver(target, event);
+                    }
+                } while (mEngine.isPublished(next));
+
+                sequence.lazySet(next);
+            }
+        }
+
+        /**
+         * @return TRUE once the sequence is published, FALSE if the engine was shut down first
+         */
+        private boolean await(long next) {
+            for (int tries = 0; tries < SPIN_TRIES + YIELD_TRIES; tries++) {
+                if (mEngine.isPublished(next)) {
+                    return true;
+                }
+                if (tries >= SPIN_TRIES) {
+                    Thread.yield();
+                }
+            }
+
+            while (!mEngine.isPublished(next)) {
+                if (mEngine.mShutdown) {
+                    return false;
+                }
+                waiting = true;
+                if (!mEngine.isPublished(next) && !mEngine.mShutdown) {
+                    LockSupport.park(this);
+                }
+                waiting = false;
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package net.analizer.rxbuslib.threads;
+
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.platform.Platform;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * The schedulers of {@link EventThread#getScheduler(EventThread)} wrapping an executor, created once
+ * rather than on every call.
+ */
+final class SharedSchedulers {
+
+    /**
+     * Scheduler of the main thread executor of the platform, replaced along with the platform.
+     */
+    private static volatile MainThread sMainThread;
+
+    private SharedSchedulers() {
+    }
+
+    @NonNull
+    static Scheduler mainThread() {
+        Executor executor = Platform.get().getMainThreadExecutor();
+        MainThread mainThread = sMainThread;
+        if (mainThread == null || mainThread.executor != executor) {
+            mainThread = new MainThread(executor);
+            sMainThread = mainThread;
+        }
+
+        return mainThread.scheduler;
+    }
+
+    /**
+     * @return the executor of {@link ThreadHandler#DEFAULT}, created on first use
+     */
+    @NonNull
+    static ExecutorService defaultExecutor() {
+        return DefaultExecutor.EXECUTOR;
+    }
+
+    @NonNull
+    static Scheduler defaultExecutorScheduler() {
+        return DefaultExecutor.SCHEDULER;
+    }
+
+    private static final class MainThread {
+        final Executor executor;
+        final Scheduler scheduler;
+
+        MainThread(@NonNull Executor executor) {
+            this.executor = executor;
+            this.scheduler = Schedulers.from(executor);
+        }
+    }
+
+    /**
+     * Initialized by the class loader on first access, which makes the lazy creation thread-safe.
+     */
+    private static final class DefaultExecutor {
+        static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new NamedThreadFactory("RxBus-executor"));
+        static final Scheduler SCHEDULER = Schedulers.from(EXECUTOR);
+    }
+}
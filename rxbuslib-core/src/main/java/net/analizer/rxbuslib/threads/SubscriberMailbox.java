@@ -0,0 +1,24 @@
+package net.analizer.rxbuslib.threads;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Events waiting to be delivered to one subscriber method on the thread of its {@link EventDispatcher},
+ * applying the method's {@link OverflowStrategy} when it falls behind.
+ * <p>
+ * <p>A mailbox runs as a task of the dispatcher whenever it has waiting events.
+ */
+public interface SubscriberMailbox extends Runnable {
+
+    /**
+     * Queue an event for the subscriber, shedding events if it is behind.
+     *
+     * @param event event to be delivered
+     */
+    void offer(@NonNull Object event);
+
+    /**
+     * @return number of events dropped because the subscriber fell behind
+     */
+    long getShedCount();
+}
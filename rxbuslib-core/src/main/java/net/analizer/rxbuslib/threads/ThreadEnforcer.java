@@ -1,8 +1,7 @@
 package net.analizer.rxbuslib.threads;
 
-import android.os.Looper;
-
 import net.analizer.rxbuslib.interfaces.Bus;
+import net.analizer.rxbuslib.platform.Platform;
 
 /**
  * Enforces a thread confinement policy for methods on a particular event bus.
@@ -25,11 +24,12 @@ public interface ThreadEnforcer {
     };
 
     /**
-     * A {@link ThreadEnforcer} that confines {@link Bus} methods to the main thread.
+     * A {@link ThreadEnforcer} that confines {@link Bus} methods to the main thread of the {@link Platform}.
      */
     ThreadEnforcer MAIN = bus -> {
-        if (Looper.myLooper() != Looper.getMainLooper()) {
-            throw new IllegalStateException("Event bus " + bus + " accessed from non-main thread " + Looper.myLooper());
+        if (!Platform.get().isMainThread()) {
+            throw new IllegalStateException(
+                    "Event bus " + bus + " accessed from non-main thread " + Thread.currentThread().getName());
         }
     };
 
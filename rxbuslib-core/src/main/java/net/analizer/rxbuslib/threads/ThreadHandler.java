@@ -0,0 +1,14 @@
+package net.analizer.rxbuslib.threads;
+
+import java.util.concurrent.Executor;
+
+public interface ThreadHandler {
+    Executor getExecutor();
+
+    /**
+     * Shared by the {@link EventThread#EXECUTOR} schedulers of {@link EventThread#getScheduler(EventThread)},
+     * an unbounded pool of daemon threads created on first use. Buses run their {@link EventThread#EXECUTOR}
+     * subscribers on a bounded pool of their own instead, see {@link net.analizer.rxbuslib.RxBus.Builder#executor}.
+     */
+    static ThreadHandler DEFAULT = SharedSchedulers::defaultExecutor;
+}
@@ -0,0 +1,65 @@
+package net.analizer.rxbuslib.threads;
+
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * The executor starting a virtual thread per task behind {@link EventThread#VIRTUAL}, looked up through
+ * reflection as the library is built for Java 8 and Android.
+ */
+final class VirtualThreads {
+    private static final String NAME_PREFIX = "RxBus-virtual-";
+
+    /**
+     * Null if the runtime has no virtual threads, i.e. before Java 21 and on Android.
+     */
+    @Nullable
+    private static final Executor EXECUTOR = createExecutor();
+
+    /**
+     * Scheduler of {@link #EXECUTOR}, the IO one if the runtime has no virtual threads.
+     */
+    private static final Scheduler SCHEDULER = EXECUTOR != null ? Schedulers.from(EXECUTOR) : Schedulers.io();
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return EXECUTOR != null;
+    }
+
+    /**
+     * @return executor running each task on a new virtual thread, null if the runtime has none
+     */
+    @Nullable
+    static Executor getExecutor() {
+        return EXECUTOR;
+    }
+
+    static Scheduler getScheduler() {
+        return SCHEDULER;
+    }
+
+    @Nullable
+    private static Executor createExecutor() {
+        try {
+            // Thread.ofVirtual().name(NAME_PREFIX, 0).factory()
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, NAME_PREFIX, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+            return (Executor) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // missing, or preview only and disabled
+            return null;
+        }
+    }
+}
@@ -1,18 +1,22 @@
 package net.analizer.rxbuslib;
 
 import net.analizer.rxbuslib.annotations.AnnotationProcessor;
+import net.analizer.rxbuslib.annotations.IndexedAnnotationProcessor;
+import net.analizer.rxbuslib.annotations.InvokerStrategy;
 import net.analizer.rxbuslib.annotations.SourceMethod;
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscriberIndex;
+import net.analizer.rxbuslib.annotations.SubscriberInvokers;
 import net.analizer.rxbuslib.annotations.SubscribeTag;
 import net.analizer.rxbuslib.annotations.SubscriptionAnnotationProcessor;
 import net.analizer.rxbuslib.annotations.SubscriptionType;
 import net.analizer.rxbuslib.events.EventType;
+import net.analizer.rxbuslib.threads.OverflowStrategy;
 
 import org.junit.Before;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -24,14 +28,13 @@ import static org.assertj.core.api.Java6Assertions.assertThat;
 /**
  * Test case for {@link net.analizer.rxbuslib.annotations.AnnotationProcessor}.
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(constants = BuildConfig.class, sdk = 16)
 public class AnnotationProcessorTest {
 
     private AnnotationProcessor processor;
 
     @Before
     public void setUp() throws Exception {
+        TestPlatform.installOnCurrentThread();
         processor = new SubscriptionAnnotationProcessor();
     }
 
@@ -234,4 +237,206 @@ public class AnnotationProcessorTest {
         assertThat(id1).isNotEqualTo(id2);
         assertThat(id1).isEqualTo(System.identityHashCode(catcher1));
     }
+
+    @Test
+    public void testGeneratedIndexMatchesReflectionScan() throws Exception {
+        // generated by rxbuslib-compiler when compiling the test sources
+        Class<?> indexClass = Class.forName(StringCatcher.class.getName() + SubscriberIndex.CLASS_SUFFIX);
+        assertThat(SubscriberIndex.class.isAssignableFrom(indexClass)).isTrue();
+
+        AnnotationProcessor indexedProcessor = new IndexedAnnotationProcessor();
+        MixTypeCatcherBehavior catcher = new MixTypeCatcherBehavior();
+        Map<EventType, List<SourceMethod>> indexed = indexedProcessor.findAllSubscribers(catcher);
+        Map<EventType, List<SourceMethod>> scanned = processor.findAllSubscribers(catcher);
+
+        assertEquals(scanned.size(), indexed.size());
+        for (Map.Entry<EventType, List<SourceMethod>> entry : scanned.entrySet()) {
+            List<SourceMethod> indexedMethods = indexed.get(entry.getKey());
+            assertThat(indexedMethods).containsOnlyElementsOf(entry.getValue());
+            assertEquals(entry.getValue().size(), indexedMethods.size());
+
+            // the index supplies direct-call invokers, the reflection scan does not
+            for (SourceMethod sourceMethod : indexedMethods) {
+                assertThat(sourceMethod.invoker).isNotNull();
+            }
+            for (SourceMethod sourceMethod : entry.getValue()) {
+                assertThat(sourceMethod.invoker).isNull();
+            }
+        }
+    }
+
+    @Test
+    public void testPrivateListenerFallsBackToReflectionScan() {
+        // rxbuslib-compiler cannot index a private class, it leaves it to the reflection scan
+        assertThat(hasIndex(PrivateCatcher.class)).isFalse();
+
+        PrivateCatcher catcher = new PrivateCatcher();
+        Map<EventType, List<SourceMethod>> indexed = new IndexedAnnotationProcessor().findAllSubscribers(catcher);
+        assertEquals(processor.findAllSubscribers(catcher), indexed);
+
+        RxBus bus = new RxBus();
+        bus.register(catcher);
+        bus.postPublish("event");
+        assertEquals("event", catcher.event);
+    }
+
+    @Test
+    public void testReplayBounds() {
+        BoundedReplayCatcher catcher = new BoundedReplayCatcher();
+        for (AnnotationProcessor annotationProcessor : Arrays.asList(processor, new IndexedAnnotationProcessor())) {
+            Set<EventType> eventTypes = annotationProcessor.findAllSubscribers(catcher).keySet();
+            assertEquals(3, eventTypes.size());
+            for (EventType eventType : eventTypes) {
+                if (BoundedReplayCatcher.SIZE_TAG.equals(eventType.tag)) {
+                    assertEquals(3, eventType.replayMaxSize);
+                    assertEquals(0, eventType.replayMaxAgeMillis);
+                } else if (BoundedReplayCatcher.AGE_TAG.equals(eventType.tag)) {
+                    assertEquals(0, eventType.replayMaxSize);
+                    assertEquals(100, eventType.replayMaxAgeMillis);
+                } else {
+                    assertEquals(0, eventType.replayMaxSize);
+                    assertEquals(0, eventType.replayMaxAgeMillis);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOverflowStrategies() {
+        OverflowCatcher catcher = new OverflowCatcher();
+        for (AnnotationProcessor annotationProcessor : Arrays.asList(processor, new IndexedAnnotationProcessor())) {
+            Map<EventType, List<SourceMethod>> allSubscribers = annotationProcessor.findAllSubscribers(catcher);
+            assertEquals(5, allSubscribers.size());
+            for (Map.Entry<EventType, List<SourceMethod>> entry : allSubscribers.entrySet()) {
+                SourceMethod sourceMethod = entry.getValue().get(0);
+                switch (entry.getKey().tag) {
+                    case OverflowCatcher.DROP_OLDEST_TAG:
+                        assertEquals(OverflowStrategy.DROP_OLDEST, sourceMethod.overflowStrategy);
+                        assertEquals(2, sourceMethod.overflowCapacity);
+                        break;
+                    case OverflowCatcher.DROP_LATEST_TAG:
+                        assertEquals(OverflowStrategy.DROP_LATEST, sourceMethod.overflowStrategy);
+                        assertEquals(2, sourceMethod.overflowCapacity);
+                        break;
+                    case OverflowCatcher.LATEST_TAG:
+                    case OverflowCatcher.CONFLATE_TAG:
+                        assertEquals(OverflowStrategy.LATEST, sourceMethod.overflowStrategy);
+                        break;
+                    default:
+                        assertEquals(OverflowStrategy.ERROR, sourceMethod.overflowStrategy);
+                        assertEquals(2, sourceMethod.overflowCapacity);
+                        break;
+                }
+            }
+        }
+
+        for (SourceMethod sourceMethod : processor.findAllSubscribers(new StringCatcher()).values().iterator().next()) {
+            assertEquals(OverflowStrategy.BUFFER, sourceMethod.overflowStrategy);
+        }
+    }
+
+    @Test
+    public void testBatchSubscribers() {
+        BatchCatcher catcher = new BatchCatcher();
+        for (AnnotationProcessor annotationProcessor : Arrays.asList(processor, new IndexedAnnotationProcessor())) {
+            List<SourceMethod> sourceMethods = annotationProcessor.findAllSubscribers(catcher).values().iterator().next();
+            assertEquals(3, sourceMethods.size());
+            for (SourceMethod sourceMethod : sourceMethods) {
+                if ("onModel".equals(sourceMethod.method.getName())) {
+                    assertEquals(false, sourceMethod.batch);
+                    assertEquals(Model.class, sourceMethod.eventClass);
+                } else {
+                    assertEquals(true, sourceMethod.batch);
+                    assertEquals(List.class, sourceMethod.parameterClass);
+                    assertEquals("onModels".equals(sourceMethod.method.getName()) ? Model.class : String.class,
+                            sourceMethod.eventClass);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRuntimeInvokerStrategies() throws Exception {
+        for (InvokerStrategy strategy : InvokerStrategy.values()) {
+            MixTypeCatcher catcher = new MixTypeCatcher();
+            Map<EventType, List<SourceMethod>> allSubscribers =
+                    new SubscriptionAnnotationProcessor(strategy).findAllSubscribers(catcher);
+
+            for (List<SourceMethod> sourceMethods : allSubscribers.values()) {
+                for (SourceMethod sourceMethod : sourceMethods) {
+                    if (strategy == InvokerStrategy.REFLECTION) {
+                        assertThat(sourceMethod.invoker).isNull();
+                        continue;
+                    }
+
+                    assertThat(sourceMethod.invoker).isNotNull();
+                    // invokers are bound once per method and shared between listeners
+                    assertThat(sourceMethod.invoker).isSameAs(SubscriberInvokers.get(strategy, sourceMethod.method));
+
+                    if (sourceMethod.eventClass == Integer.class) {
+                        sourceMethod.invoker.invoke(catcher, 7);
+                    } else {
+                        sourceMethod.invoker.invoke(catcher, "seven");
+                    }
+                }
+            }
+
+            if (strategy != InvokerStrategy.REFLECTION) {
+                assertEquals(1, catcher.eventInt.size());
+                assertEquals(7, (int) catcher.eventInt.get(0));
+                assertEquals(1, catcher.eventIntWithCustomTag.size());
+                assertEquals("seven", catcher.eventString.get(0));
+                assertEquals("seven", catcher.eventStringWithCustomTag.get(0));
+            }
+        }
+    }
+
+    @Test
+    public void testSubscriberTableIsSharedBetweenProcessorsAndInstances() {
+        StringCatcher catcher1 = new StringCatcher();
+        StringCatcher catcher2 = new StringCatcher();
+
+        Map<EventType, List<SourceMethod>> allSubscribers1 = processor.findAllSubscribers(catcher1);
+        Map<EventType, List<SourceMethod>> allSubscribers2 =
+                new SubscriptionAnnotationProcessor().findAllSubscribers(catcher2);
+
+        // the event types come from the same cached table...
+        Set<EventType> eventTypes = processor.findAllEventTypes(catcher1);
+        assertEquals(allSubscribers1.keySet(), eventTypes);
+        for (EventType eventType : allSubscribers2.keySet()) {
+            boolean found = false;
+            for (EventType cached : eventTypes) {
+                found |= cached == eventType;
+            }
+            assertThat(found).isTrue();
+        }
+
+        // ...while the source methods are bound to each instance
+        for (EventType eventType : eventTypes) {
+            SourceMethod sourceMethod1 = allSubscribers1.get(eventType).get(0);
+            SourceMethod sourceMethod2 = allSubscribers2.get(eventType).get(0);
+            assertThat(sourceMethod1).isNotSameAs(sourceMethod2);
+            assertThat(sourceMethod1.method).isSameAs(sourceMethod2.method);
+            assertThat(sourceMethod1.listener).isSameAs(catcher1);
+            assertThat(sourceMethod2.listener).isSameAs(catcher2);
+        }
+    }
+
+    private static boolean hasIndex(Class<?> listenerClass) {
+        try {
+            Class.forName(listenerClass.getName() + SubscriberIndex.CLASS_SUFFIX);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static class PrivateCatcher {
+        String event;
+
+        @Subscribe
+        public void onString(String event) {
+            this.event = event;
+        }
+    }
 }
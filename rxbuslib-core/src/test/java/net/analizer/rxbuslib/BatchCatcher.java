@@ -0,0 +1,39 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A SubscriberEvent mock receiving Models both one at a time and as batches.
+ */
+public class BatchCatcher {
+    public static final String TAG = "batch";
+
+    public final List<Model> models = new ArrayList<>();
+    public final List<List<Model>> modelBatches = new ArrayList<>();
+    public final List<List<String>> stringBatches = new ArrayList<>();
+
+    @Subscribe(tags = {@SubscribeTag(TAG)})
+    public void onModel(Model model) {
+        models.add(model);
+    }
+
+    @Subscribe(
+            tags = {@SubscribeTag(TAG)},
+            batch = true
+    )
+    public void onModels(List<Model> models) {
+        modelBatches.add(models);
+    }
+
+    @Subscribe(
+            tags = {@SubscribeTag(TAG)},
+            batch = true
+    )
+    public void onStrings(List<String> strings) {
+        stringBatches.add(strings);
+    }
+}
@@ -0,0 +1,32 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A SubscriberEvent mock with an {@link EventThread#IO} subscriber that can be held until a gate opens.
+ */
+public class BlockingCatcher {
+    public static final String TAG = "blocking";
+
+    public final CountDownLatch delivered;
+    private final CountDownLatch mGate;
+
+    /**
+     * @param gate           latch the subscriber waits for before returning
+     * @param expectedEvents number of events the subscriber should get
+     */
+    public BlockingCatcher(CountDownLatch gate, int expectedEvents) {
+        this.mGate = gate;
+        this.delivered = new CountDownLatch(expectedEvents);
+    }
+
+    @Subscribe(observeOn = EventThread.IO, tags = {@SubscribeTag(TAG)})
+    public void onIo(Integer event) throws InterruptedException {
+        mGate.await();
+        delivered.countDown();
+    }
+}
@@ -0,0 +1,43 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.SubscribeReplay;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A SubscriberEvent mock whose replay subscriptions only keep a bounded history.
+ */
+public class BoundedReplayCatcher {
+    public static final String SIZE_TAG = "boundedSize";
+    public static final String AGE_TAG = "boundedAge";
+    public static final String CART_TAG = "cart";
+
+    public List<Integer> sizeBounded = new ArrayList<>();
+    public List<Integer> ageBounded = new ArrayList<>();
+    public List<Integer> cart = new ArrayList<>();
+
+    @SubscribeReplay(
+            tags = {@SubscribeTag(SIZE_TAG)},
+            maxSize = 3
+    )
+    public void onSizeBounded(Integer event) {
+        sizeBounded.add(event);
+    }
+
+    @SubscribeReplay(
+            tags = {@SubscribeTag(AGE_TAG)},
+            maxAgeMillis = 100
+    )
+    public void onAgeBounded(Integer event) {
+        ageBounded.add(event);
+    }
+
+    @SubscribeReplay(
+            tags = {@SubscribeTag(CART_TAG)}
+    )
+    public void onCart(Integer event) {
+        cart.add(event);
+    }
+}
@@ -0,0 +1,28 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A SubscriberEvent mock recording the events of a bridged tag, whichever process they were posted in.
+ */
+public class BridgeCatcher {
+    public static final String TAG = "bridge";
+
+    public final List<Integer> integers = new CopyOnWriteArrayList<>();
+    public final List<String> strings = new CopyOnWriteArrayList<>();
+
+    @Subscribe(tags = {@SubscribeTag(TAG)}, observeOn = EventThread.TRAMPOLINE)
+    public void onInteger(Integer event) {
+        integers.add(event);
+    }
+
+    @Subscribe(tags = {@SubscribeTag(TAG)}, observeOn = EventThread.TRAMPOLINE)
+    public void onString(String event) {
+        strings.add(event);
+    }
+}
@@ -0,0 +1,302 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.SubscriptionType;
+import net.analizer.rxbuslib.bridge.RingFileReader;
+import net.analizer.rxbuslib.bridge.RingFileWriter;
+import net.analizer.rxbuslib.metrics.DefaultBusMetrics;
+import net.analizer.rxbuslib.platform.Logger;
+import net.analizer.rxbuslib.platform.Platform;
+import net.analizer.rxbuslib.store.CompactEventSerializer;
+import net.analizer.rxbuslib.store.SerializableEventSerializer;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test case for {@link BusBridge} and the ring files it is made of. Buses bridged in one JVM map the
+ * ring files separately, just like the processes they stand for.
+ */
+public class BusBridgeTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        TestPlatform.installOnCurrentThread();
+    }
+
+    private static List<Integer> poll(RingFileReader reader) {
+        List<Integer> events = new ArrayList<>();
+        reader.poll((subscriptionType, tag, payload) -> events.add(ByteBuffer.wrap(payload).getInt()));
+        return events;
+    }
+
+    private static byte[] payload(int value) {
+        return ByteBuffer.allocate(4).putInt(value).array();
+    }
+
+    private static void awaitSize(List<?> events, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (events.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(size, events.size());
+    }
+
+    /**
+     * Readers start at the end of the ring once its file exists, post until the other bus follows.
+     */
+    private static void awaitFollowing(RxBus bus, BridgeCatcher remoteCatcher, String ready)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!remoteCatcher.strings.contains(ready) && System.currentTimeMillis() < deadline) {
+            bus.postPublish(ready, BridgeCatcher.TAG);
+            Thread.sleep(5);
+        }
+        assertTrue(remoteCatcher.strings.contains(ready));
+    }
+
+    private static void awaitLast(List<String> events, String event) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((events.isEmpty() || !event.equals(events.get(events.size() - 1)))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(event, events.get(events.size() - 1));
+    }
+
+    @Test
+    public void testRingFileWrapsAround() throws IOException {
+        File file = new File(folder.getRoot(), "ring");
+        // 4 length + 1 type + 2 tag length + 1 tag + 4 payload: 5 records per round, 4 bytes of padding
+        RingFileWriter writer = new RingFileWriter(file, 64);
+        RingFileReader reader = new RingFileReader(file);
+
+        List<Integer> expected = new ArrayList<>();
+        List<Integer> events = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            assertTrue(writer.write(0, "t", payload(i)));
+            expected.add(i);
+            if (i % 3 == 0) {
+                events.addAll(poll(reader));
+            }
+        }
+        events.addAll(poll(reader));
+
+        assertEquals(expected, events);
+        assertEquals(0, reader.getLostBytes());
+        assertFalse(writer.write(0, "t", new byte[64]));
+    }
+
+    @Test
+    public void testLappedReaderSkipsToNewest() throws IOException {
+        File file = new File(folder.getRoot(), "ring");
+        RingFileWriter writer = new RingFileWriter(file, 64);
+        RingFileReader reader = new RingFileReader(file);
+        for (int i = 0; i < 50; i++) {
+            writer.write(0, "t", payload(i));
+        }
+
+        assertEquals(0, poll(reader).size());
+        assertTrue(reader.getLostBytes() > 0);
+
+        writer.write(0, "t", payload(50));
+        assertEquals(Arrays.asList(50), poll(reader));
+
+        // a reader opened later only gets what is written from then on
+        RingFileReader lateReader = new RingFileReader(file);
+        writer.write(0, "t", payload(51));
+        assertEquals(Arrays.asList(51), poll(lateReader));
+        reader.close();
+        lateReader.close();
+
+        // records written once closed are dropped, a new writer continues the ring
+        writer.close();
+        assertTrue(writer.write(0, "t", payload(52)));
+        writer = new RingFileWriter(file, 64);
+        reader = new RingFileReader(file);
+        writer.write(0, "t", payload(53));
+        assertEquals(Arrays.asList(53), poll(reader));
+        reader.close();
+        writer.close();
+    }
+
+    @Test
+    public void testCompactSerializer() throws IOException {
+        CompactEventSerializer serializer = new CompactEventSerializer();
+        List<Object> events = Arrays.<Object>asList(
+                "\u00e9t\u00e9", 1, 2L, 3.5d, 4.5f, true, (short) 5, (byte) 6, 'c'
+        );
+        for (Object event : events) {
+            assertEquals(event, serializer.deserialize(serializer.serialize(event)));
+        }
+
+        assertEquals(5, serializer.serialize(1).length);
+        assertThat(serializer.deserialize(serializer.serialize(new byte[]{1, 2}))).isEqualTo(new byte[]{1, 2});
+
+        // other events need a fallback serializer, both ways
+        List<Integer> list = new ArrayList<>(Arrays.asList(7, 8));
+        CompactEventSerializer withFallback = new CompactEventSerializer(new SerializableEventSerializer());
+        byte[] bytes = withFallback.serialize(list);
+        assertEquals(list, withFallback.deserialize(bytes));
+        try {
+            serializer.serialize(list);
+            fail("A list has no compact form");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains(ArrayList.class.getName()));
+        }
+        try {
+            serializer.deserialize(bytes);
+            fail("Bytes of the fallback serializer must not be read without it");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("fallback"));
+        }
+    }
+
+    @Test
+    public void testPrimitivesOnlyBoxedForMirroredTags() throws IOException {
+        DefaultBusMetrics metrics = new DefaultBusMetrics();
+        RxBus bus = new RxBus.Builder().threadEnforcer(ThreadEnforcer.ANY).metrics(metrics).build();
+        BusBridge bridge = new BusBridge.Builder(bus, new CompactEventSerializer())
+                .publish(new File(folder.getRoot(), "ring"), 1 << 16, BridgeCatcher.TAG)
+                .build();
+        assertTrue(bridge.mirrors(BridgeCatcher.TAG));
+        assertFalse(bridge.mirrors("counter"));
+
+        // a number posted on a tag the bridge leaves out is not posted boxed as well
+        File ring = new File(folder.getRoot(), "ring");
+        RingFileReader reader = new RingFileReader(ring);
+        bus.postInt("counter", 1);
+        bus.postInt(BridgeCatcher.TAG, 2);
+        assertEquals(1, metrics.getPostCount("counter"));
+
+        List<String> tags = new ArrayList<>();
+        reader.poll((subscriptionType, tag, payload) -> tags.add(tag));
+        assertEquals(Arrays.asList(BridgeCatcher.TAG), tags);
+        reader.close();
+
+        bridge.close();
+        assertFalse(bridge.mirrors(BridgeCatcher.TAG));
+    }
+
+    @Test
+    public void testBridgedBuses() throws IOException, InterruptedException {
+        File ringA = new File(folder.getRoot(), "a");
+        File ringB = new File(folder.getRoot(), "b");
+        CompactEventSerializer serializer = new CompactEventSerializer();
+
+        RxBus busA = new RxBus(ThreadEnforcer.ANY);
+        RxBus busB = new RxBus(ThreadEnforcer.ANY);
+        BridgeCatcher catcherA = new BridgeCatcher();
+        BridgeCatcher catcherB = new BridgeCatcher();
+        busA.register(catcherA);
+        busB.register(catcherB);
+
+        BusBridge bridgeA = new BusBridge.Builder(busA, serializer)
+                .publish(ringA, 1 << 16, BridgeCatcher.TAG)
+                .follow(ringB)
+                .build();
+        BusBridge bridgeB = new BusBridge.Builder(busB, serializer)
+                .publish(ringB, 1 << 16)
+                .follow(ringA)
+                .build();
+
+        awaitFollowing(busA, catcherB, "a");
+        awaitFollowing(busB, catcherA, "b");
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            expected.add(i);
+        }
+        busA.postAll(SubscriptionType.PUBLISH, expected.subList(0, 500), BridgeCatcher.TAG);
+        for (int i = 500; i < 1000; i++) {
+            busA.postPublish(i, BridgeCatcher.TAG);
+        }
+
+        awaitSize(catcherB.integers, 1000);
+        assertEquals(expected, catcherB.integers);
+
+        // bus B writes its own events only, anything echoed would reach bus A before the reply
+        busB.postPublish("reply", BridgeCatcher.TAG);
+        awaitLast(catcherA.strings, "reply");
+        assertEquals(expected, catcherA.integers);
+        assertEquals(0, bridgeA.getLostBytes() + bridgeB.getLostBytes());
+
+        bridgeA.close();
+        bridgeB.close();
+        busA.postPublish("closed", BridgeCatcher.TAG);
+        Thread.sleep(20);
+        assertEquals("reply", catcherB.strings.get(catcherB.strings.size() - 1));
+    }
+
+    @Test
+    public void testReaderOutlivesFailedPosts() throws IOException, InterruptedException {
+        List<String> errors = new CopyOnWriteArrayList<>();
+        Thread mainThread = Thread.currentThread();
+        Platform.install(new Platform.Builder()
+                .mainThread(Runnable::run, () -> Thread.currentThread() == mainThread)
+                .logger(new Logger() {
+                    @Override
+                    public boolean isDebugEnabled() {
+                        return false;
+                    }
+
+                    @Override
+                    public void debug(String tag, String message) {
+                    }
+
+                    @Override
+                    public void warn(String tag, String message) {
+                    }
+
+                    @Override
+                    public void error(String tag, String message) {
+                        errors.add(message);
+                    }
+                })
+                .build());
+
+        File ring = new File(folder.getRoot(), "ring");
+        CompactEventSerializer serializer = new CompactEventSerializer();
+        RxBus busA = new RxBus(ThreadEnforcer.ANY);
+        RxBus busB = new RxBus.Builder().threadEnforcer(ThreadEnforcer.ANY).ringBuffer(64, 1).build();
+        BridgeCatcher catcherB = new BridgeCatcher();
+        busB.register(catcherB);
+
+        BusBridge bridgeA = new BusBridge.Builder(busA, serializer).publish(ring, 1 << 16).build();
+        BusBridge bridgeB = new BusBridge.Builder(busB, serializer).follow(ring).build();
+        awaitFollowing(busA, catcherB, "ready");
+
+        // the shut down ring buffer of bus B rejects each event, the reader thread goes on with the next
+        busB.shutdown();
+        busA.postPublish(1, BridgeCatcher.TAG);
+        busA.postPublish(2, BridgeCatcher.TAG);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (errors.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(1).contains("Failed to post a bridged event 2"));
+
+        bridgeA.close();
+        bridgeB.close();
+    }
+}
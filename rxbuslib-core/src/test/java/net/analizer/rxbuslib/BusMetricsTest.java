@@ -0,0 +1,89 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.metrics.DefaultBusMetrics;
+import net.analizer.rxbuslib.metrics.LogHistogram;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Test case for {@link DefaultBusMetrics} and the metrics callbacks of {@link RxBus}.
+ */
+public class BusMetricsTest {
+
+    @Before
+    public void setUp() {
+        TestPlatform.installOnCurrentThread();
+    }
+
+    @Test
+    public void testPostsAndInvocations() throws NoSuchMethodException {
+        DefaultBusMetrics metrics = new DefaultBusMetrics();
+        RxBus bus = new RxBus.Builder().threadEnforcer(ThreadEnforcer.ANY).metrics(metrics).build();
+        MetricsCatcher catcher = new MetricsCatcher();
+        bus.register(catcher);
+
+        bus.postPublish("a");
+        bus.postPublish("b", SubscribeTag.DEFAULT, "nobody");
+        bus.channel(SubscribeTag.DEFAULT, String.class).publish("c");
+        assertEquals(Arrays.asList("a", "b", "c"), catcher.strings);
+
+        // no subscriber of the class on the tag, or no subscriber on the tag at all
+        bus.postPublish(1);
+        bus.postInt("counter", 2);
+        bus.postPublish(3, MetricsCatcher.FAILING_TAG);
+
+        assertEquals(4, metrics.getPostCount(SubscribeTag.DEFAULT));
+        assertEquals(1, metrics.getDeadPostCount(SubscribeTag.DEFAULT));
+        assertEquals(1, metrics.getPostCount("nobody"));
+        assertEquals(1, metrics.getDeadPostCount("nobody"));
+        assertEquals(1, metrics.getDeadPostCount("counter"));
+        assertEquals(0, metrics.getDeadPostCount(MetricsCatcher.FAILING_TAG));
+
+        Method onString = MetricsCatcher.class.getMethod("onString", String.class);
+        Method onFailing = MetricsCatcher.class.getMethod("onFailing", Integer.class);
+        assertEquals(3, metrics.getDeliveryCount(onString));
+        assertEquals(0, metrics.getErrorCount(onString));
+        assertEquals(1, metrics.getDeliveryCount(onFailing));
+        assertEquals(1, metrics.getErrorCount(onFailing));
+        assertEquals(3, metrics.getInvokeHistogram(onString).getCount());
+        assertTrue(metrics.getInvokeHistogram(onString).getTotalNanos() > 0);
+        assertNull(metrics.getInvokeHistogram(Object.class.getMethod("toString")));
+
+        // the subscribers are gone, the tag keeps its subscription
+        bus.unRegister(catcher);
+        bus.postPublish("d");
+        assertEquals(2, metrics.getDeadPostCount(SubscribeTag.DEFAULT));
+    }
+
+    @Test
+    public void testLogHistogram() {
+        LogHistogram histogram = new LogHistogram();
+        assertEquals(0, histogram.getPercentileNanos(50));
+
+        for (int i = 0; i < 98; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(100000);
+        histogram.record(5000000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(98 * 1000 + 100000 + 5000000, histogram.getTotalNanos());
+        assertEquals(5000000, histogram.getMaxNanos());
+
+        // upper bounds of the power of two buckets
+        assertEquals(1023, histogram.getPercentileNanos(50));
+        assertEquals(1023, histogram.getPercentileNanos(98));
+        assertEquals(131071, histogram.getPercentileNanos(99));
+        assertEquals(5000000, histogram.getPercentileNanos(100));
+    }
+}
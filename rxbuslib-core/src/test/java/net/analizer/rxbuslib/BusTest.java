@@ -1,5 +1,6 @@
 package net.analizer.rxbuslib;
 
+import net.analizer.rxbuslib.annotations.IndexedAnnotationProcessor;
 import net.analizer.rxbuslib.annotations.SourceMethod;
 import net.analizer.rxbuslib.annotations.SubscribeBehavior;
 import net.analizer.rxbuslib.annotations.SubscribeTag;
@@ -8,33 +9,41 @@ import net.analizer.rxbuslib.events.EventType;
 import net.analizer.rxbuslib.events.SubscriberEvent;
 import net.analizer.rxbuslib.interfaces.Bus;
 import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
 
 import org.junit.Before;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
 
 /**
  * Test case for {@link Bus}.
  */
-@RunWith(RobolectricTestRunner.class)
-@Config(constants = BuildConfig.class, sdk = 16)
 public class BusTest {
 
     private RxBus bus;
 
     @Before
     public void setUp() throws Exception {
+        TestPlatform.installOnCurrentThread();
 //        bus = new RxBus(ThreadEnforcer.ANY, BUS_IDENTIFIER);
         bus = new RxBus();
     }
@@ -1375,6 +1384,325 @@ public class BusTest {
         assertEquals(1, catcher.behaviorModel.id);
     }
 
+    @Test
+    public void testPostOnlyReachesRouteOfEventClass() {
+        MixTypeCatcher catcher = new MixTypeCatcher();
+        ModelCatcher modelCatcher = new ModelCatcher();
+        bus.register(catcher);
+        bus.register(modelCatcher);
+
+        SubscriberEvent subscriberEvent =
+                bus.getSubscriptions().get(new EventType(SubscriptionType.PUBLISH, SubscribeTag.DEFAULT));
+
+        // int subscribers share the route of the boxed class events are posted as
+        assertNotNull(subscriberEvent.getSubject(String.class));
+        assertNotNull(subscriberEvent.getSubject(Model.class));
+        assertSame(subscriberEvent.getSubject(Integer.class), subscriberEvent.getSubject(int.class));
+        assertNotSame(subscriberEvent.getSubject(String.class), subscriberEvent.getSubject(Integer.class));
+        assertNull(subscriberEvent.getSubject(Double.class));
+
+        bus.postPublish(1);
+        assertEquals(1, catcher.eventInt.size());
+        assertEquals(0, catcher.eventString.size());
+        assertNull(modelCatcher.model);
+
+        // no route for Double on this tag, the event is dropped
+        bus.postPublish(1.5d);
+        assertEquals(1, catcher.eventInt.size());
+        assertNull(subscriberEvent.getSubject(Double.class));
+    }
+
+    @Test
+    public void testObserveOnDeliversOnSchedulerThread() throws InterruptedException {
+        int count = 100;
+        ThreadCatcher catcher = new ThreadCatcher(count);
+        bus.register(catcher);
+
+        for (int i = 0; i < count; i++) {
+            bus.postPublish(i);
+        }
+
+        // main thread subscribers are invoked right away when posting from the main thread
+        assertEquals(count, catcher.mainEvents.size());
+        for (Thread thread : catcher.mainThreads) {
+            assertSame(Thread.currentThread(), thread);
+        }
+
+        assertTrue(catcher.computationLatch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.valueOf(i), catcher.computationEvents.get(i));
+            assertNotSame(Thread.currentThread(), catcher.computationThreads.get(i));
+        }
+    }
+
+    @Test
+    public void testBlockedSubscriberOnlyHoldsBackItself() throws InterruptedException {
+        CountDownLatch gate = new CountDownLatch(1);
+        BlockingCatcher blocked = new BlockingCatcher(gate, 3);
+        BlockingCatcher free = new BlockingCatcher(new CountDownLatch(0), 3);
+        bus.register(blocked);
+        bus.register(free);
+
+        for (int i = 0; i < 3; i++) {
+            bus.postPublish(i, BlockingCatcher.TAG);
+        }
+
+        // each subscriber is drained on its own, not behind the others of its thread
+        assertTrue(free.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(3, blocked.delivered.getCount());
+
+        gate.countDown();
+        assertTrue(blocked.delivered.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPostIsExactTypeByDefault() {
+        SupertypeCatcher catcher = new SupertypeCatcher();
+        bus.register(catcher);
+
+        bus.postPublish("event");
+        bus.postPublish(1);
+
+        assertEquals(1, catcher.strings.size());
+        assertEquals(0, catcher.objects.size());
+        assertEquals(0, catcher.numbers.size());
+    }
+
+    @Test
+    public void testInterfaceSubscriberNeedsEventInheritance() {
+        HierarchyCatcher catcher = new HierarchyCatcher();
+        try {
+            bus.register(catcher);
+            fail("An interface subscriber would never receive anything without event inheritance");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains(CharSequence.class.getName()));
+        }
+
+        // none of the methods of the listener got registered
+        bus.postPublish("event");
+        assertEquals(0, catcher.strings.size());
+    }
+
+    @Test
+    public void testEventInheritance() {
+        RxBus bus = new RxBus(ThreadEnforcer.MAIN, "inheritance", new IndexedAnnotationProcessor(), true);
+        HierarchyCatcher catcher = new HierarchyCatcher();
+        bus.register(catcher);
+
+        bus.postPublish("event");
+        assertEquals(1, catcher.strings.size());
+        assertEquals(1, catcher.charSequences.size());
+        assertEquals(1, catcher.objects.size());
+        assertEquals(0, catcher.numbers.size());
+
+        bus.postPublish(1);
+        bus.postPublish(1.5d);
+        assertEquals(1, catcher.strings.size());
+        assertEquals(3, catcher.objects.size());
+        assertEquals(2, catcher.numbers.size());
+
+        // retained events are replayed to subscribers of their supertypes registering later
+        bus.postReplay(2L);
+        HierarchyCatcher lateCatcher = new HierarchyCatcher();
+        bus.register(lateCatcher);
+        assertEquals(1, lateCatcher.replayedNumbers.size());
+        assertEquals(2L, lateCatcher.replayedNumbers.get(0));
+
+        // the event is only retained for its class and the supertypes subscribed to
+        SubscriberEvent replayEvent = bus.getSubscriptions().get(
+                new EventType(SubscriptionType.REPLAY, SubscribeTag.DEFAULT));
+        assertNotNull(replayEvent.getSubject(Long.class));
+        assertNotNull(replayEvent.getSubject(Number.class));
+        assertNull(replayEvent.getSubject(Object.class));
+        assertNull(replayEvent.getSubject(Comparable.class));
+    }
+
+    @Test
+    public void testConcurrentRegister() throws InterruptedException {
+        final RxBus bus = new RxBus(ThreadEnforcer.ANY, "concurrent");
+        final int threads = 4;
+        final int listenersPerThread = 200;
+        final List<List<StringCatcher>> catchers = new ArrayList<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            final List<StringCatcher> threadCatchers = new ArrayList<>();
+            catchers.add(threadCatchers);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                for (int i = 0; i < listenersPerThread; i++) {
+                    StringCatcher catcher = new StringCatcher();
+                    bus.register(catcher);
+                    threadCatchers.add(catcher);
+                    if (i % 2 == 1) {
+                        bus.unRegister(catcher);
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        SubscriberEvent subscriberEvent =
+                bus.getSubscriptions().get(new EventType(SubscriptionType.PUBLISH, SubscribeTag.DEFAULT));
+        assertEquals(threads * listenersPerThread / 2, subscriberEvent.getMethodList().size());
+
+        bus.postPublish("last");
+        for (List<StringCatcher> threadCatchers : catchers) {
+            for (int i = 0; i < threadCatchers.size(); i++) {
+                List<String> events = threadCatchers.get(i).events;
+                assertEquals(i % 2 == 0, events.contains("last"));
+            }
+        }
+    }
+
+    @Test
+    public void testWeaklyRegisteredListenerIsPruned() throws InterruptedException {
+        StringCatcher catcher = new StringCatcher();
+        bus.registerWeakly(catcher);
+        bus.postPublish("event");
+        assertEquals(1, catcher.events.size());
+
+        SubscriberEvent subscriberEvent =
+                bus.getSubscriptions().get(new EventType(SubscriptionType.PUBLISH, SubscribeTag.DEFAULT));
+        assertEquals(1, subscriberEvent.getMethodList().size());
+
+        WeakReference<StringCatcher> reference = new WeakReference<>(catcher);
+        //noinspection UnusedAssignment
+        catcher = null;
+        for (int i = 0; i < 100 && !subscriberEvent.getMethodList().isEmpty(); i++) {
+            System.gc();
+            Thread.sleep(10);
+            bus.postPublish("event");
+        }
+
+        assertNull(reference.get());
+        assertEquals(0, subscriberEvent.getMethodList().size());
+    }
+
+    @Test
+    public void testBoundedReplay() throws InterruptedException {
+        // created before any listener registers on the tag, so its bounds apply
+        EventType cart = new EventType(SubscriptionType.REPLAY, BoundedReplayCatcher.CART_TAG, 2, 0);
+        bus.createSubscription(cart, new ArrayList<>(), EventThread.MAIN_THREAD, EventThread.NEW_THREAD);
+
+        bus.register(new BoundedReplayCatcher());
+        for (int i = 0; i < 10; i++) {
+            bus.postReplay(i, BoundedReplayCatcher.SIZE_TAG);
+            bus.postReplay(i, BoundedReplayCatcher.CART_TAG);
+        }
+        bus.postReplay(0, BoundedReplayCatcher.AGE_TAG);
+        Thread.sleep(200);
+        bus.postReplay(1, BoundedReplayCatcher.AGE_TAG);
+
+        // late subscribers only catch up with the bounded history
+        BoundedReplayCatcher catcher = new BoundedReplayCatcher();
+        bus.register(catcher);
+        assertEquals(Arrays.asList(7, 8, 9), catcher.sizeBounded);
+        assertEquals(Collections.singletonList(1), catcher.ageBounded);
+        assertEquals(Arrays.asList(8, 9), catcher.cart);
+    }
+
+    @Test
+    public void testReplayBoundsOfRegisteredTag() {
+        BoundedReplayCatcher catcher = new BoundedReplayCatcher();
+        bus.register(catcher);
+        for (int i = 0; i < 3; i++) {
+            bus.postReplay(i, BoundedReplayCatcher.CART_TAG);
+        }
+
+        // the tag replays unbounded already, a method asking for other bounds does not register
+        LatestCartCatcher latestCatcher = new LatestCartCatcher();
+        try {
+            bus.register(latestCatcher);
+            fail("The first method registered on a tag sets its replay bounds");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains(BoundedReplayCatcher.CART_TAG));
+        }
+
+        bus.postReplay(3, BoundedReplayCatcher.CART_TAG);
+        assertEquals(0, latestCatcher.cart.size());
+        assertEquals(Arrays.asList(0, 1, 2, 3), catcher.cart);
+
+        BoundedReplayCatcher lateCatcher = new BoundedReplayCatcher();
+        bus.register(lateCatcher);
+        assertEquals(Arrays.asList(0, 1, 2, 3), lateCatcher.cart);
+    }
+
+    @Test
+    public void testOverflowStrategies() throws InterruptedException {
+        OverflowCatcher catcher = new OverflowCatcher();
+        bus.register(catcher);
+
+        assertOverflow(catcher, OverflowCatcher.DROP_OLDEST_TAG, 3);
+        assertOverflow(catcher, OverflowCatcher.DROP_LATEST_TAG, 3);
+        assertOverflow(catcher, OverflowCatcher.LATEST_TAG, 2);
+        assertOverflow(catcher, OverflowCatcher.ERROR_TAG, 1);
+        assertOverflow(catcher, OverflowCatcher.CONFLATE_TAG, 2);
+
+        assertEquals(Arrays.asList(0, 8, 9), catcher.dropOldest);
+        assertEquals(Arrays.asList(0, 1, 2), catcher.dropLatest);
+        assertEquals(Arrays.asList(0, 9), catcher.latest);
+        assertEquals(Collections.singletonList(0), catcher.error);
+        assertEquals(Arrays.asList(0, 9), catcher.conflated);
+        assertEquals(7 + 7 + 8 + 9 + 8, bus.getShedCount());
+    }
+
+    /**
+     * Post 10 events to the given tag while its subscriber is stuck on the first one.
+     */
+    private void assertOverflow(OverflowCatcher catcher, String tag, int expectedEvents)
+            throws InterruptedException {
+        catcher.reset(expectedEvents);
+        bus.postPublish(0, tag);
+        assertTrue(catcher.blocked().await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 10; i++) {
+            bus.postPublish(i, tag);
+        }
+
+        catcher.release();
+        assertTrue(catcher.delivered().await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPostAll() {
+        BatchCatcher catcher = new BatchCatcher();
+        bus.register(catcher);
+
+        Model first = new Model("first", 1);
+        Model second = new Model("second", 2);
+        Model third = new Model("third", 3);
+        List<Object> events = new ArrayList<>(Arrays.asList(first, "a", second, null, third));
+        bus.postAll(SubscriptionType.PUBLISH, events, BatchCatcher.TAG);
+        events.clear();
+
+        assertEquals(Arrays.asList(first, second, third), catcher.models);
+        assertEquals(1, catcher.modelBatches.size());
+        assertEquals(Arrays.asList(first, second, third), catcher.modelBatches.get(0));
+        assertEquals(Collections.singletonList(Collections.singletonList("a")), catcher.stringBatches);
+
+        // single events reach batch subscribers as one-element lists
+        Model fourth = new Model("fourth", 4);
+        bus.postPublish(fourth, BatchCatcher.TAG);
+        assertEquals(Arrays.asList(first, second, third, fourth), catcher.models);
+        assertEquals(Collections.singletonList(fourth), catcher.modelBatches.get(1));
+
+        // batches don't reach other subscription types
+        bus.postAll(SubscriptionType.BEHAVIOR, Collections.singletonList(fourth), BatchCatcher.TAG);
+        assertEquals(2, catcher.modelBatches.size());
+    }
+
     @Test
     public void testCreateCustomSubscription() {
         EventType cartEvent = new EventType(SubscriptionType.BEHAVIOR, "cart");
@@ -0,0 +1,196 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.IndexedAnnotationProcessor;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.reactivex.disposables.Disposable;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Test case for {@link Channel} and the primitive posts of {@link RxBus}.
+ */
+public class ChannelTest {
+
+    private static final int POST_COUNT = 100000;
+
+    private RxBus bus;
+
+    @Before
+    public void setUp() throws Exception {
+        TestPlatform.installOnCurrentThread();
+        bus = new RxBus();
+    }
+
+    @Test
+    public void testChannelCreatedBeforeRegister() {
+        Channel<Model> channel = bus.channel(SubscribeTag.DEFAULT, Model.class);
+        Model model = new Model("test1", 1);
+        channel.publish(model);
+
+        ModelCatcher catcher = new ModelCatcher();
+        bus.register(catcher);
+        assertNull(catcher.model);
+
+        channel.publish(model);
+        assertSame(model, catcher.model);
+
+        Model behaviorModel = new Model("test2", 2);
+        channel.behavior(behaviorModel);
+        assertSame(behaviorModel, catcher.behaviorModel);
+        assertSame(model, catcher.model);
+
+        // the NotDefaultTag subscribers are not part of this channel
+        Model otherModel = new Model("test3", 3);
+        bus.channel("NotDefaultTag", Model.class).publish(otherModel);
+        assertSame(otherModel, catcher.model);
+
+        bus.unRegister(catcher);
+        channel.publish(new Model("test4", 4));
+        assertSame(otherModel, catcher.model);
+    }
+
+    @Test
+    public void testChannelFollowsRouteChanges() {
+        Channel<Model> channel = bus.channel(SubscribeTag.DEFAULT, Model.class);
+        ModelCatcher first = new ModelCatcher();
+        bus.register(first);
+        Model model = new Model("test1", 1);
+        channel.publish(model);
+        assertSame(model, first.model);
+
+        // the subscription of the tag is replaced, the routes resolved by the channel with it
+        bus.unRegister(first);
+        ModelCatcher second = new ModelCatcher();
+        bus.register(second);
+        Model secondModel = new Model("test2", 2);
+        channel.publish(secondModel);
+        assertSame(model, first.model);
+        assertSame(secondModel, second.model);
+    }
+
+    @Test
+    public void testChannelFollowsSupertypeRoutes() {
+        RxBus inheritanceBus = new RxBus(ThreadEnforcer.MAIN, "channel", new IndexedAnnotationProcessor(), true);
+        Channel<String> channel = inheritanceBus.channel(SubscribeTag.DEFAULT, String.class);
+        StringCatcher stringCatcher = new StringCatcher();
+        inheritanceBus.register(stringCatcher);
+        channel.publish("first");
+
+        // a subscriber of a supertype adds a route the channel did not resolve yet
+        HierarchyCatcher hierarchyCatcher = new HierarchyCatcher();
+        inheritanceBus.register(hierarchyCatcher);
+        channel.publish("second");
+        assertEquals(Arrays.asList("second"), hierarchyCatcher.strings);
+        assertEquals(Arrays.<CharSequence>asList("second"), hierarchyCatcher.charSequences);
+        assertEquals(Arrays.<Object>asList("second"), hierarchyCatcher.objects);
+    }
+
+    @Test
+    public void testSteadyStatePostDoesNotAllocate() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        ModelCatcher catcher = new ModelCatcher();
+        bus.register(catcher);
+        Channel<Model> channel = bus.channel(SubscribeTag.DEFAULT, Model.class);
+        Model model = new Model("test", 0);
+
+        long threadId = Thread.currentThread().getId();
+        long allocated = 0;
+        for (int round = 0; round < 5; round++) {
+            // the first rounds warm up the path, only the last one counts
+            long before = allocations.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < POST_COUNT; i++) {
+                channel.publish(model);
+                channel.behavior(model);
+            }
+            allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+        }
+
+        assertSame(model, catcher.model);
+        assertSame(model, catcher.behaviorModel);
+
+        // leave room for the measurement itself, far below one byte per post
+        assertTrue(allocated + " bytes allocated by " + 2 * POST_COUNT + " posts", allocated < 1024);
+    }
+
+    @Test
+    public void testPrimitivePosts() {
+        List<Integer> ints = new ArrayList<>();
+        List<Long> longs = new ArrayList<>();
+        List<Double> doubles = new ArrayList<>();
+        Disposable intSubscription = bus.subscribeInt(SubscribeTag.DEFAULT, ints::add);
+        bus.subscribeLong(SubscribeTag.DEFAULT, longs::add);
+        bus.subscribeDouble("sensor", doubles::add);
+
+        bus.postInt(SubscribeTag.DEFAULT, 1);
+        bus.postLong(SubscribeTag.DEFAULT, 2L);
+        bus.postDouble(SubscribeTag.DEFAULT, 3.0);
+        bus.postDouble("sensor", 4.0);
+        assertEquals(Arrays.asList(1), ints);
+        assertEquals(Arrays.asList(2L), longs);
+        assertEquals(Arrays.asList(4.0), doubles);
+
+        // annotated subscribers of the boxed class get the numbers too
+        TrampolineCatcher catcher = new TrampolineCatcher(1);
+        bus.register(catcher);
+        bus.postInt(SubscribeTag.DEFAULT, 5);
+        assertEquals(Arrays.asList(1, 5), ints);
+        assertEquals(Arrays.asList(5), catcher.events);
+
+        intSubscription.dispose();
+        bus.postInt(SubscribeTag.DEFAULT, 6);
+        assertEquals(Arrays.asList(1, 5), ints);
+        assertEquals(Arrays.asList(5, 6), catcher.events);
+    }
+
+    @Test
+    public void testPrimitivePostsDoNotBox() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        long[] sum = new long[1];
+        bus.subscribeInt("counter", event -> sum[0] += event);
+        bus.subscribeLong("counter", event -> sum[0] += event);
+        bus.subscribeDouble("counter", event -> sum[0] += (long) event);
+
+        long threadId = Thread.currentThread().getId();
+        long allocated = 0;
+        for (int round = 0; round < 5; round++) {
+            // the first rounds warm up the path, only the last one counts
+            sum[0] = 0;
+            long before = allocations.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < POST_COUNT; i++) {
+                // out of the range of the Integer and Long caches
+                bus.postInt("counter", 1000 + i);
+                bus.postLong("counter", 1000L + i);
+                bus.postDouble("counter", 1000.0 + i);
+            }
+            allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+        }
+
+        assertEquals(3 * (1000L * POST_COUNT + (long) POST_COUNT * (POST_COUNT - 1) / 2), sum[0]);
+        assertTrue(allocated + " bytes allocated by " + 3 * POST_COUNT + " posts", allocated < 1024);
+    }
+}
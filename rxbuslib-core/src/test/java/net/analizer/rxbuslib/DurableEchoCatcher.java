@@ -0,0 +1,35 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.SubscribeReplay;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A SubscriberEvent mock on the posting thread that posts an echo of each logged Integer to the tag it
+ * replays, while it catches up.
+ */
+public class DurableEchoCatcher {
+    private final RxBus bus;
+    private final int echoOffset;
+
+    public final List<Integer> integers = new ArrayList<>();
+
+    /**
+     * @param echoOffset added to the events below it to post their echo
+     */
+    public DurableEchoCatcher(RxBus bus, int echoOffset) {
+        this.bus = bus;
+        this.echoOffset = echoOffset;
+    }
+
+    @SubscribeReplay(thread = EventThread.TRAMPOLINE, tags = {@SubscribeTag(DurableReplayCatcher.TAG)})
+    public void onInteger(Integer event) {
+        integers.add(event);
+        if (event < echoOffset) {
+            bus.postReplay(event + echoOffset, DurableReplayCatcher.TAG);
+        }
+    }
+}
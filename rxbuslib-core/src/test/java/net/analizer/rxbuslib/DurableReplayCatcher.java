@@ -0,0 +1,33 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.SubscribeReplay;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A SubscriberEvent mock replaying a tag whose history is kept in a replay log.
+ */
+public class DurableReplayCatcher {
+    public static final String TAG = "durable";
+
+    public final List<Integer> integers = new ArrayList<>();
+    public final List<String> strings = new ArrayList<>();
+    public final List<Number> numbers = new ArrayList<>();
+
+    @SubscribeReplay(tags = {@SubscribeTag(TAG)})
+    public void onInteger(Integer event) {
+        integers.add(event);
+    }
+
+    @SubscribeReplay(tags = {@SubscribeTag(TAG)})
+    public void onString(String event) {
+        strings.add(event);
+    }
+
+    @SubscribeReplay(tags = {@SubscribeTag(TAG)})
+    public void onNumber(Number event) {
+        numbers.add(event);
+    }
+}
@@ -0,0 +1,42 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A SubscriberEvent mock that records the names of the threads its {@link EventThread#EXECUTOR} and
+ * {@link EventThread#IO} subscribers were invoked on.
+ */
+public class ExecutorCatcher {
+    public static final String TAG = "executor";
+
+    public final List<String> executorThreads = new CopyOnWriteArrayList<>();
+    public final List<String> ioThreads = new CopyOnWriteArrayList<>();
+
+    private volatile CountDownLatch mDelivered = new CountDownLatch(0);
+
+    /**
+     * @param expectedEvents number of events the subscribers should get, together
+     */
+    public CountDownLatch expect(int expectedEvents) {
+        mDelivered = new CountDownLatch(expectedEvents);
+        return mDelivered;
+    }
+
+    @Subscribe(observeOn = EventThread.EXECUTOR, tags = {@SubscribeTag(TAG)})
+    public void onExecutor(Integer event) {
+        executorThreads.add(Thread.currentThread().getName());
+        mDelivered.countDown();
+    }
+
+    @Subscribe(observeOn = EventThread.IO, tags = {@SubscribeTag(TAG)})
+    public void onIo(Integer event) {
+        ioThreads.add(Thread.currentThread().getName());
+        mDelivered.countDown();
+    }
+}
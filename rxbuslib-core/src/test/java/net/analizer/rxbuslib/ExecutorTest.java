@@ -0,0 +1,147 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.threads.BoundedThreadPool;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+import net.analizer.rxbuslib.threads.ThreadHandler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test case for the executors of a bus, given through {@link RxBus.Builder#executor} or created by it.
+ */
+public class ExecutorTest {
+
+    @Before
+    public void setUp() {
+        TestPlatform.installOnCurrentThread();
+    }
+
+    @Test
+    public void testThreadsOfTheBus() throws InterruptedException {
+        BoundedThreadPool ioPool = new BoundedThreadPool.Builder("io-pool").threads(2).build();
+        RxBus bus = new RxBus.Builder()
+                .threadEnforcer(ThreadEnforcer.ANY)
+                .identifier("pooled")
+                .executor(EventThread.IO, ioPool)
+                .build();
+        ExecutorCatcher catcher = new ExecutorCatcher();
+        bus.register(catcher);
+
+        CountDownLatch delivered = catcher.expect(20);
+        for (int i = 0; i < 10; i++) {
+            bus.postPublish(i, ExecutorCatcher.TAG);
+        }
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+
+        assertThat(catcher.executorThreads).hasSize(10);
+        for (String thread : catcher.executorThreads) {
+            assertThat(thread).startsWith("RxBus-pooled-executor-");
+        }
+        assertThat(catcher.ioThreads).hasSize(10);
+        for (String thread : catcher.ioThreads) {
+            assertThat(thread).startsWith("io-pool-");
+        }
+        ioPool.shutdown();
+    }
+
+    @Test
+    public void testShutdownStopsPoolsOfTheBus() throws InterruptedException {
+        BoundedThreadPool ioPool = new BoundedThreadPool.Builder("given-pool").build();
+        RxBus bus = new RxBus.Builder()
+                .threadEnforcer(ThreadEnforcer.ANY)
+                .identifier("stopping")
+                .executor(EventThread.IO, ioPool)
+                .build();
+        ExecutorCatcher catcher = new ExecutorCatcher();
+        bus.register(catcher);
+
+        CountDownLatch delivered = catcher.expect(2);
+        bus.postPublish(1, ExecutorCatcher.TAG);
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+
+        // the pool the bus created is shut down, the one it was given is left to its owner
+        bus.shutdown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (hasThread("RxBus-stopping-executor-") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(hasThread("RxBus-stopping-executor-"));
+        assertFalse(ioPool.isShutdown());
+        ioPool.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDiscardingPolicyIsRefused() {
+        new BoundedThreadPool.Builder("discarding").rejection(new ThreadPoolExecutor.DiscardPolicy()).build();
+    }
+
+    @Test
+    public void testRejectedDrainRunsOnPostingThread() throws InterruptedException {
+        BoundedThreadPool ioPool = new BoundedThreadPool.Builder("saturated")
+                .queueCapacity(1)
+                .rejection(new ThreadPoolExecutor.AbortPolicy())
+                .build();
+        RxBus bus = new RxBus.Builder()
+                .threadEnforcer(ThreadEnforcer.ANY)
+                .executor(EventThread.IO, ioPool)
+                .build();
+        ExecutorCatcher catcher = new ExecutorCatcher();
+        bus.register(catcher);
+
+        // occupy the only thread of the pool and fill its queue
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(1);
+        ioPool.execute(() -> {
+            busy.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        busy.await();
+        ioPool.execute(() -> {
+        });
+
+        CountDownLatch delivered = catcher.expect(2);
+        bus.postPublish(1, ExecutorCatcher.TAG);
+        assertThat(catcher.ioThreads).containsExactly(Thread.currentThread().getName());
+
+        gate.countDown();
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        ioPool.shutdown();
+    }
+
+    @Test
+    public void testSharedSchedulersAreCached() {
+        assertSame(ThreadHandler.DEFAULT.getExecutor(), ThreadHandler.DEFAULT.getExecutor());
+        for (EventThread thread : EventThread.values()) {
+            assertSame(EventThread.getScheduler(thread), EventThread.getScheduler(thread));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoExecutorForTheMainThread() {
+        new RxBus.Builder().executor(EventThread.MAIN_THREAD, Runnable::run);
+    }
+
+    private static boolean hasThread(String prefix) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeReplay;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A SubscriberEvent mock that subscribes to supertypes and interfaces of the posted events.
+ */
+public class HierarchyCatcher {
+    public List<String> strings = new ArrayList<>();
+    public List<CharSequence> charSequences = new ArrayList<>();
+    public List<Object> objects = new ArrayList<>();
+    public List<Number> numbers = new ArrayList<>();
+    public List<Number> replayedNumbers = new ArrayList<>();
+
+    @Subscribe
+    public void onString(String event) {
+        strings.add(event);
+    }
+
+    @Subscribe
+    public void onCharSequence(CharSequence event) {
+        charSequences.add(event);
+    }
+
+    @Subscribe
+    public void onObject(Object event) {
+        objects.add(event);
+    }
+
+    @Subscribe
+    public void onNumber(Number event) {
+        numbers.add(event);
+    }
+
+    @SubscribeReplay
+    public void onReplayedNumber(Number event) {
+        replayedNumbers.add(event);
+    }
+}
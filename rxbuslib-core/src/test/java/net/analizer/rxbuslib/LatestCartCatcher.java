@@ -0,0 +1,22 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.SubscribeReplay;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A SubscriberEvent mock only wanting the latest event of a tag that {@link BoundedReplayCatcher} replays unbounded.
+ */
+public class LatestCartCatcher {
+    public List<Integer> cart = new ArrayList<>();
+
+    @SubscribeReplay(
+            tags = {@SubscribeTag(BoundedReplayCatcher.CART_TAG)},
+            maxSize = 1
+    )
+    public void onCart(Integer event) {
+        cart.add(event);
+    }
+}
@@ -0,0 +1,27 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A SubscriberEvent mock with a String subscriber and an Integer subscriber that always throws.
+ */
+public class MetricsCatcher {
+    public static final String FAILING_TAG = "failing";
+
+    public final List<String> strings = new ArrayList<>();
+
+    @Subscribe(observeOn = EventThread.TRAMPOLINE)
+    public void onString(String event) {
+        strings.add(event);
+    }
+
+    @Subscribe(observeOn = EventThread.TRAMPOLINE, tags = {@SubscribeTag(FAILING_TAG)})
+    public void onFailing(Integer event) {
+        throw new IllegalStateException("failing " + event);
+    }
+}
@@ -0,0 +1,112 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.OverflowStrategy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A SubscriberEvent mock with one slow computation subscriber per {@link OverflowStrategy}.
+ * Each subscriber blocks on the first event it gets until {@link #release()}, so the following ones pile up.
+ */
+public class OverflowCatcher {
+    public static final String DROP_OLDEST_TAG = "dropOldest";
+    public static final String DROP_LATEST_TAG = "dropLatest";
+    public static final String LATEST_TAG = "latest";
+    public static final String ERROR_TAG = "error";
+    public static final String CONFLATE_TAG = "conflate";
+
+    public final List<Integer> dropOldest = new CopyOnWriteArrayList<>();
+    public final List<Integer> dropLatest = new CopyOnWriteArrayList<>();
+    public final List<Integer> latest = new CopyOnWriteArrayList<>();
+    public final List<Integer> error = new CopyOnWriteArrayList<>();
+    public final List<Integer> conflated = new CopyOnWriteArrayList<>();
+
+    private volatile CountDownLatch mBlocked;
+    private volatile CountDownLatch mGate;
+    private volatile CountDownLatch mDelivered;
+
+    /**
+     * Prepare for the next subscriber to block on its first event.
+     *
+     * @param expectedEvents number of events the subscriber should get once released
+     */
+    public void reset(int expectedEvents) {
+        mBlocked = new CountDownLatch(1);
+        mGate = new CountDownLatch(1);
+        mDelivered = new CountDownLatch(expectedEvents);
+    }
+
+    public CountDownLatch blocked() {
+        return mBlocked;
+    }
+
+    public CountDownLatch delivered() {
+        return mDelivered;
+    }
+
+    public void release() {
+        mGate.countDown();
+    }
+
+    @Subscribe(
+            tags = {@SubscribeTag(DROP_OLDEST_TAG)},
+            observeOn = EventThread.COMPUTATION,
+            overflow = OverflowStrategy.DROP_OLDEST,
+            capacity = 2
+    )
+    public void onDropOldest(Integer event) throws InterruptedException {
+        catchEvent(dropOldest, event);
+    }
+
+    @Subscribe(
+            tags = {@SubscribeTag(DROP_LATEST_TAG)},
+            observeOn = EventThread.COMPUTATION,
+            overflow = OverflowStrategy.DROP_LATEST,
+            capacity = 2
+    )
+    public void onDropLatest(Integer event) throws InterruptedException {
+        catchEvent(dropLatest, event);
+    }
+
+    @Subscribe(
+            tags = {@SubscribeTag(LATEST_TAG)},
+            observeOn = EventThread.COMPUTATION,
+            overflow = OverflowStrategy.LATEST
+    )
+    public void onLatest(Integer event) throws InterruptedException {
+        catchEvent(latest, event);
+    }
+
+    @Subscribe(
+            tags = {@SubscribeTag(ERROR_TAG)},
+            observeOn = EventThread.COMPUTATION,
+            overflow = OverflowStrategy.ERROR,
+            capacity = 2
+    )
+    public void onError(Integer event) throws InterruptedException {
+        catchEvent(error, event);
+    }
+
+    @Subscribe(
+            tags = {@SubscribeTag(CONFLATE_TAG)},
+            observeOn = EventThread.COMPUTATION,
+            conflate = true
+    )
+    public void onConflated(Integer event) throws InterruptedException {
+        catchEvent(conflated, event);
+    }
+
+    private void catchEvent(List<Integer> events, Integer event) throws InterruptedException {
+        events.add(event);
+        if (events.size() == 1) {
+            mBlocked.countDown();
+            mGate.await();
+        }
+        mDelivered.countDown();
+    }
+}
@@ -0,0 +1,83 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.platform.Platform;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Test case for installing a {@link Platform} while buses exist, and for delivering on its main thread.
+ */
+public class PlatformTest {
+
+    @Before
+    public void setUp() {
+        TestPlatform.installOnCurrentThread();
+    }
+
+    @Test
+    public void testInstallAffectsExistingBuses() throws InterruptedException, ExecutionException {
+        RxBus bus = new RxBus(ThreadEnforcer.ANY);
+        ThreadCatcher catcher = new ThreadCatcher(1);
+        bus.register(catcher);
+        bus.postPublish(1);
+
+        ExecutorService mainLoop = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "other-main"));
+        Platform.install(new Platform.Builder()
+                .mainThread(mainLoop, () -> "other-main".equals(Thread.currentThread().getName()))
+                .build());
+
+        // the test thread is no longer the main thread, main thread subscribers move to the new one
+        bus.postPublish(2);
+        mainLoop.submit(() -> {
+        }).get();
+        mainLoop.shutdown();
+
+        assertEquals(2, catcher.mainThreads.size());
+        assertEquals(Thread.currentThread(), catcher.mainThreads.get(0));
+        assertEquals("other-main", catcher.mainThreads.get(1).getName());
+    }
+
+    @Test
+    public void testMainThreadPostWaitsForQueuedDeliveries() throws InterruptedException {
+        // a busy main thread looper, running its tasks when the test lets it
+        Queue<Runnable> looper = new ConcurrentLinkedQueue<>();
+        Thread mainThread = Thread.currentThread();
+        Platform.install(new Platform.Builder()
+                .mainThread(looper::add, () -> Thread.currentThread() == mainThread)
+                .build());
+
+        RxBus bus = new RxBus(ThreadEnforcer.ANY);
+        ThreadCatcher catcher = new ThreadCatcher(2);
+        bus.register(catcher);
+
+        Thread worker = new Thread(() -> bus.postPublish(1));
+        worker.start();
+        worker.join();
+
+        // the event posted on the main thread does not overtake the one waiting for it
+        bus.postPublish(2);
+        assertTrue(catcher.mainEvents.isEmpty());
+
+        Runnable task;
+        while ((task = looper.poll()) != null) {
+            task.run();
+        }
+        assertEquals(Arrays.asList(1, 2), catcher.mainEvents);
+
+        // nothing pending, the next one is delivered right away
+        bus.postPublish(3);
+        assertEquals(Arrays.asList(1, 2, 3), catcher.mainEvents);
+    }
+}
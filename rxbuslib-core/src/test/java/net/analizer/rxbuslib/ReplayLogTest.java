@@ -0,0 +1,228 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.SubscriptionType;
+import net.analizer.rxbuslib.store.ReplayLog;
+import net.analizer.rxbuslib.store.SerializableEventSerializer;
+
+import org.junit.Rule;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Test case for {@link ReplayLog} and buses keeping replay history in one.
+ */
+public class ReplayLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        TestPlatform.installOnCurrentThread();
+    }
+
+    private ReplayLog open(File directory, long maxBytes, long maxAgeMillis) throws IOException {
+        return new ReplayLog.Builder(directory, new SerializableEventSerializer())
+                .segmentBytes(1024)
+                .maxBytes(maxBytes)
+                .maxAgeMillis(maxAgeMillis)
+                .build();
+    }
+
+    private static List<Object> replay(ReplayLog log, long fromOffset) throws IOException {
+        List<Object> events = new ArrayList<>();
+        log.replay(fromOffset, events::add);
+        return events;
+    }
+
+    @Test
+    public void testAppendAndReopen() throws IOException {
+        File directory = folder.newFolder();
+        ReplayLog log = open(directory, 0, 0);
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, log.append(i));
+            expected.add(i);
+        }
+        log.close();
+
+        // the events span several segments
+        assertTrue(directory.list().length > 2);
+
+        log = open(directory, 0, 0);
+        assertEquals(0, log.getStartOffset());
+        assertEquals(100, log.getEndOffset());
+        assertEquals(expected, replay(log, 0));
+        assertEquals(expected.subList(60, 100), replay(log, 60));
+
+        assertEquals(100, log.append("next"));
+        assertEquals("next", replay(log, 100).get(0));
+        log.close();
+    }
+
+    @Test
+    public void testRetentionBySize() throws IOException {
+        ReplayLog log = open(folder.newFolder(), 2048, 0);
+        for (int i = 0; i < 200; i++) {
+            log.append(i);
+        }
+
+        assertTrue(log.getStartOffset() > 0);
+        assertTrue(log.getSize() <= 2048 + 1024);
+
+        // the oldest events left are the ones right before the newest
+        List<Object> events = replay(log, 0);
+        assertEquals(log.getStartOffset(), ((Integer) events.get(0)).longValue());
+        assertEquals(199, events.get(events.size() - 1));
+        log.close();
+    }
+
+    @Test
+    public void testRetentionByAge() throws IOException, InterruptedException {
+        File directory = folder.newFolder();
+        ReplayLog log = open(directory, 0, 50);
+        for (int i = 0; i < 100; i++) {
+            log.append(i);
+        }
+        long endOffset = log.getEndOffset();
+        log.close();
+
+        Thread.sleep(100);
+
+        // every complete segment expired, only the current one is left
+        log = open(directory, 0, 50);
+        assertTrue(log.getStartOffset() > 0);
+        assertEquals(endOffset, log.getEndOffset());
+        assertEquals(2, directory.list().length);
+        log.close();
+    }
+
+    @Test
+    public void testRetentionByAgeOnAppend() throws IOException, InterruptedException {
+        File directory = folder.newFolder();
+        ReplayLog log = open(directory, 0, 50);
+        for (int i = 0; i < 100; i++) {
+            log.append(i);
+        }
+        long endOffset = log.getEndOffset();
+
+        Thread.sleep(100);
+
+        // the current segment has room left, the expired ones are retired without rolling over
+        log.append(100);
+        assertTrue(log.getStartOffset() > 0);
+        assertEquals(endOffset + 1, log.getEndOffset());
+        assertEquals(log.getStartOffset(), ((Integer) replay(log, 0).get(0)).longValue());
+        assertEquals(2, directory.list().length);
+        log.close();
+    }
+
+    @Test
+    public void testRetireWhileReplaying() throws IOException {
+        ReplayLog log = open(folder.newFolder(), 2048, 0);
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            log.append(i);
+            expected.add(i);
+        }
+
+        // the appended events retire the segments being replayed, which stay readable until it ends
+        List<Object> events = new ArrayList<>();
+        long endOffset = log.replay(0, event -> {
+            events.add(event);
+            for (int i = 0; i < 10; i++) {
+                log.append("appended");
+            }
+        });
+        assertEquals(expected, events);
+        assertEquals(20, endOffset);
+        assertTrue(log.getStartOffset() > 20);
+        assertEquals(log.getEndOffset() - log.getStartOffset(), replay(log, 0).size());
+        log.close();
+    }
+
+    @Test
+    public void testEventsPostedWhileCatchingUpFollowTheLog() throws IOException {
+        ReplayLog log = open(folder.newFolder(), 0, 0);
+        RxBus bus = new RxBus.Builder().replayLog(DurableReplayCatcher.TAG, log).build();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            bus.postReplay(i, DurableReplayCatcher.TAG);
+            expected.add(i);
+        }
+        for (int i = 0; i < 50; i++) {
+            expected.add(i + 100);
+        }
+
+        // the echoes roll the log over while it is replayed, and are received after the older events
+        DurableEchoCatcher catcher = new DurableEchoCatcher(bus, 100);
+        bus.register(catcher);
+        assertEquals(expected, catcher.integers);
+
+        bus.postReplay(200, DurableReplayCatcher.TAG);
+        assertEquals(Integer.valueOf(200), catcher.integers.get(catcher.integers.size() - 1));
+        assertEquals(101, catcher.integers.size());
+        log.close();
+    }
+
+    @Test
+    public void testBusReplaysLogAfterRestart() throws IOException {
+        File directory = folder.newFolder();
+        ReplayLog log = open(directory, 0, 0);
+        RxBus bus = new RxBus.Builder().replayLog(DurableReplayCatcher.TAG, log).build();
+
+        // logged even though nothing subscribes to the tag yet
+        bus.postReplay(1, DurableReplayCatcher.TAG);
+        bus.postReplay("one", DurableReplayCatcher.TAG);
+        bus.postAll(SubscriptionType.REPLAY, Arrays.asList(2, 3), DurableReplayCatcher.TAG);
+        log.close();
+
+        log = open(directory, 0, 0);
+        bus = new RxBus.Builder().replayLog(DurableReplayCatcher.TAG, log).build();
+        DurableReplayCatcher catcher = new DurableReplayCatcher();
+        bus.register(catcher);
+        assertEquals(Arrays.asList(1, 2, 3), catcher.integers);
+        assertEquals(Arrays.asList("one"), catcher.strings);
+
+        bus.postReplay(4, DurableReplayCatcher.TAG);
+        assertEquals(Arrays.asList(1, 2, 3, 4), catcher.integers);
+
+        // a late subscriber catches up with the events of both runs
+        DurableReplayCatcher lateCatcher = new DurableReplayCatcher();
+        bus.register(lateCatcher);
+        assertEquals(Arrays.asList(1, 2, 3, 4), lateCatcher.integers);
+        log.close();
+    }
+
+    @Test
+    public void testBusCatchesUpSupertypesWithEventInheritance() throws IOException {
+        ReplayLog log = open(folder.newFolder(), 0, 0);
+        RxBus bus = new RxBus.Builder()
+                .replayLog(DurableReplayCatcher.TAG, log)
+                .eventInheritance(true)
+                .build();
+        bus.postReplay(1, DurableReplayCatcher.TAG);
+        bus.postReplay("one", DurableReplayCatcher.TAG);
+
+        // the logged events reach the subscribers of their supertypes, as the live ones do
+        DurableReplayCatcher catcher = new DurableReplayCatcher();
+        bus.register(catcher);
+        assertEquals(Arrays.asList(1), catcher.integers);
+        assertEquals(Arrays.<Number>asList(1), catcher.numbers);
+        assertEquals(Arrays.asList("one"), catcher.strings);
+
+        bus.postReplay(2L, DurableReplayCatcher.TAG);
+        assertEquals(Arrays.<Number>asList(1, 2L), catcher.numbers);
+        log.close();
+    }
+}
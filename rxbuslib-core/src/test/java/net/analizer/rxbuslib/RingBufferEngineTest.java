@@ -0,0 +1,138 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.threads.RingBufferEngine;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+/**
+ * Test case for {@link RingBufferEngine} and buses posting through it.
+ */
+public class RingBufferEngineTest {
+
+    @Before
+    public void setUp() {
+        TestPlatform.installOnCurrentThread();
+    }
+
+    @Test
+    public void testConcurrentProducersKeepOrderPerTarget() throws InterruptedException {
+        final int producers = 4;
+        final int eventsPerProducer = 20000;
+        final CountDownLatch delivered = new CountDownLatch(producers * eventsPerProducer);
+        final ConcurrentMap<String, List<Integer>> received = new ConcurrentHashMap<>();
+
+        // a small ring wraps around many times
+        final RingBufferEngine<String> engine = new RingBufferEngine<>("test", 16, 2, (target, event) -> {
+            received.get(target).add((Integer) event);
+            delivered.countDown();
+        });
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final String target = "producer" + p;
+            received.put(target, new ArrayList<>());
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    engine.publish(target, i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(delivered.await(10, TimeUnit.SECONDS));
+        for (List<Integer> events : received.values()) {
+            assertEquals(eventsPerProducer, events.size());
+            for (int i = 0; i < eventsPerProducer; i++) {
+                assertEquals(Integer.valueOf(i), events.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testBusPostsThroughRingBuffer() throws InterruptedException {
+        RxBus bus = new RxBus.Builder()
+                .threadEnforcer(ThreadEnforcer.ANY)
+                .identifier("ring")
+                .ringBuffer(64, 1)
+                .build();
+
+        int count = 1000;
+        TrampolineCatcher catcher = new TrampolineCatcher(count);
+        bus.register(catcher);
+        for (int i = 0; i < count; i++) {
+            bus.postPublish(i);
+        }
+
+        assertTrue(catcher.latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.valueOf(i), catcher.events.get(i));
+            assertNotSame(Thread.currentThread(), catcher.threads.get(i));
+            assertEquals("RxBus-ring-ring-0", catcher.threads.get(i).getName());
+        }
+        bus.shutdown();
+    }
+
+    @Test
+    public void testConsumerPublishingToFullRingDoesNotWait() throws InterruptedException {
+        final int inner = 10;
+        final CountDownLatch delivered = new CountDownLatch(inner + 1);
+        final AtomicReference<RingBufferEngine<String>> engine = new AtomicReference<>();
+
+        // the outer event fans out into more events than the ring holds, from its own consumer thread
+        engine.set(new RingBufferEngine<>("reentrant", 2, 1, (target, event) -> {
+            if ("outer".equals(target)) {
+                for (int i = 0; i < inner; i++) {
+                    engine.get().publish("inner", i);
+                }
+            }
+            delivered.countDown();
+        }));
+        engine.get().publish("outer", 0);
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        engine.get().shutdown();
+    }
+
+    @Test
+    public void testShutdownStopsConsumers() throws InterruptedException {
+        final CountDownLatch delivered = new CountDownLatch(100);
+        RingBufferEngine<String> engine =
+                new RingBufferEngine<>("stopping", 16, 2, (target, event) -> delivered.countDown());
+        for (int i = 0; i < 100; i++) {
+            engine.publish("target" + (i % 4), i);
+        }
+
+        engine.shutdown();
+        assertEquals(0, delivered.getCount());
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            assertFalse(thread.getName().startsWith("stopping-ring-"));
+        }
+
+        try {
+            engine.publish("target", 0);
+            fail("Published to a ring buffer that was shut down");
+        } catch (IllegalStateException expected) {
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A SubscriberEvent mock with subscribers on several threads, recording the events in a list that is not
+ * thread safe and the number of its subscribers running at once.
+ */
+public class SerialCatcher {
+    public static final String TAG = "serial";
+
+    /**
+     * Events received, as {@code io:1} or {@code computation:1}, only safe to read once they are all delivered
+     */
+    public final List<String> events = new ArrayList<>();
+    public final Set<String> threads = new CopyOnWriteArraySet<>();
+    public final AtomicInteger maxRunning = new AtomicInteger();
+
+    private final AtomicInteger mRunning = new AtomicInteger();
+    private volatile CountDownLatch mDelivered = new CountDownLatch(0);
+    private volatile CountDownLatch mGate = new CountDownLatch(0);
+
+    /**
+     * @param expectedEvents number of events the subscribers should get, together
+     */
+    public CountDownLatch expect(int expectedEvents) {
+        mDelivered = new CountDownLatch(expectedEvents);
+        return mDelivered;
+    }
+
+    /**
+     * Hold the subscribers until the returned latch is counted down.
+     */
+    public CountDownLatch block() {
+        mGate = new CountDownLatch(1);
+        return mGate;
+    }
+
+    @Subscribe(observeOn = EventThread.IO, tags = {@SubscribeTag(TAG)})
+    public void onIo(Integer event) throws InterruptedException {
+        receive("io:" + event);
+    }
+
+    @Subscribe(observeOn = EventThread.COMPUTATION, tags = {@SubscribeTag(TAG)})
+    public void onComputation(Integer event) throws InterruptedException {
+        receive("computation:" + event);
+    }
+
+    private void receive(String event) throws InterruptedException {
+        maxRunning.accumulateAndGet(mRunning.incrementAndGet(), Math::max);
+
+        threads.add(Thread.currentThread().getName());
+        mGate.await();
+        events.add(event);
+
+        mRunning.decrementAndGet();
+        mDelivered.countDown();
+    }
+}
@@ -0,0 +1,144 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.threads.BoundedThreadPool;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test case for the serial mailboxes of the listeners, see {@link RxBus.Builder#serialListeners()}.
+ */
+public class SerialListenerTest {
+
+    @Before
+    public void setUp() {
+        TestPlatform.installOnCurrentThread();
+    }
+
+    @Test
+    public void testListenerIsInvokedInOrderOneAtATime() throws InterruptedException {
+        RxBus bus = new RxBus.Builder()
+                .threadEnforcer(ThreadEnforcer.ANY)
+                .serialListeners()
+                .identifier("serial")
+                .build();
+        SerialCatcher catcher = new SerialCatcher();
+        bus.register(catcher);
+
+        CountDownLatch delivered = catcher.expect(200);
+        for (int i = 0; i < 100; i++) {
+            bus.postPublish(i, SerialCatcher.TAG);
+        }
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+
+        // the IO and the COMPUTATION subscribers share the mailbox of the listener
+        assertEquals(1, catcher.maxRunning.get());
+        assertEquals(200, catcher.events.size());
+        for (int i = 0; i < 100; i++) {
+            assertThat(catcher.events.subList(2 * i, 2 * i + 2)).containsOnly("io:" + i, "computation:" + i);
+        }
+        for (String thread : catcher.threads) {
+            assertThat(thread).startsWith("RxBus-serial-listener-");
+        }
+    }
+
+    @Test
+    public void testListenersRunInParallel() throws InterruptedException {
+        BoundedThreadPool pool = new BoundedThreadPool.Builder("listeners").threads(2).build();
+        RxBus bus = new RxBus.Builder()
+                .threadEnforcer(ThreadEnforcer.ANY)
+                .serialListeners(pool)
+                .build();
+        SerialCatcher blocked = new SerialCatcher();
+        SerialCatcher free = new SerialCatcher();
+        bus.register(blocked);
+        bus.register(free);
+
+        CountDownLatch gate = blocked.block();
+        CountDownLatch blockedDelivered = blocked.expect(20);
+        CountDownLatch freeDelivered = free.expect(20);
+        for (int i = 0; i < 10; i++) {
+            bus.postPublish(i, SerialCatcher.TAG);
+        }
+
+        // a listener held in a subscriber does not hold the others back
+        assertTrue(freeDelivered.await(5, TimeUnit.SECONDS));
+        assertEquals(20, blockedDelivered.getCount());
+
+        gate.countDown();
+        assertTrue(blockedDelivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, blocked.maxRunning.get());
+        assertEquals(1, free.maxRunning.get());
+        assertThat(blocked.threads).hasSize(1).doesNotContainAnyElementsOf(free.threads);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testVirtualSubscribersKeepTheirThreads() throws InterruptedException {
+        RxBus bus = new RxBus.Builder()
+                .threadEnforcer(ThreadEnforcer.ANY)
+                .serialListeners()
+                .identifier("serial-virtual")
+                .build();
+        VirtualThreadCatcher catcher = new VirtualThreadCatcher();
+        bus.register(catcher);
+
+        for (int i = 0; i < 4; i++) {
+            bus.postPublish(i, VirtualThreadCatcher.TAG);
+        }
+
+        // blocked VIRTUAL subscribers run on threads of their own, not on the listener pool
+        long deadline = System.currentTimeMillis() + 5000;
+        while (catcher.threadNames.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        catcher.release();
+        assertThat(catcher.threadNames).isNotEmpty();
+        for (String thread : catcher.threadNames) {
+            assertThat(thread).doesNotStartWith("RxBus-serial-virtual-listener-");
+        }
+        bus.shutdown();
+    }
+
+    @Test
+    public void testShutdownStopsListenerPool() throws InterruptedException {
+        RxBus bus = new RxBus.Builder()
+                .threadEnforcer(ThreadEnforcer.ANY)
+                .serialListeners()
+                .identifier("serial-stopping")
+                .build();
+        SerialCatcher catcher = new SerialCatcher();
+        bus.register(catcher);
+
+        CountDownLatch delivered = catcher.expect(2);
+        bus.postPublish(1, SerialCatcher.TAG);
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertTrue(hasThread("RxBus-serial-stopping-listener-"));
+
+        bus.shutdown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (hasThread("RxBus-serial-stopping-listener-") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(hasThread("RxBus-serial-stopping-listener-"));
+    }
+
+    private static boolean hasThread(String prefix) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
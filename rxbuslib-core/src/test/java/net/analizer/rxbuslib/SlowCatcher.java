@@ -0,0 +1,23 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.threads.EventThread;
+
+/**
+ * A SubscriberEvent mock with subscribers sleeping for the number of milliseconds they get, one on the
+ * posting thread and one on a computation thread.
+ */
+public class SlowCatcher {
+    public static final String SLOW_TAG = "slow";
+
+    @Subscribe(observeOn = EventThread.TRAMPOLINE, tags = {@SubscribeTag(SLOW_TAG)})
+    public void onSlow(Long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    @Subscribe(observeOn = EventThread.COMPUTATION, tags = {@SubscribeTag(SLOW_TAG)})
+    public void onSlowComputed(Integer millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+}
@@ -0,0 +1,125 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.metrics.SlowInvocation;
+import net.analizer.rxbuslib.metrics.SlowSubscriberDetector;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test case for {@link SlowSubscriberDetector}.
+ */
+public class SlowSubscriberDetectorTest {
+
+    @Before
+    public void setUp() {
+        TestPlatform.installOnCurrentThread();
+    }
+
+    private RxBus createBus(SlowSubscriberDetector detector) {
+        return new RxBus.Builder()
+                .threadEnforcer(ThreadEnforcer.ANY)
+                .slowSubscriberDetector(detector)
+                .build();
+    }
+
+    @Test
+    public void testMainThreadBudget() throws NoSuchMethodException {
+        SlowSubscriberDetector detector = new SlowSubscriberDetector.Builder()
+                .mainThreadBudget(5, TimeUnit.MILLISECONDS)
+                .budget(1, TimeUnit.SECONDS)
+                .build();
+        RxBus bus = createBus(detector);
+        bus.register(new SlowCatcher());
+
+        // the first post loads and links the delivery path, which alone can take longer than the budget
+        RxBus warmUp = new RxBus(ThreadEnforcer.ANY);
+        warmUp.register(new SlowCatcher());
+        warmUp.postPublish(0L, SlowCatcher.SLOW_TAG);
+
+        // the test thread is the main thread
+        bus.postPublish(0L, SlowCatcher.SLOW_TAG);
+        assertEquals(0, detector.getCount());
+
+        bus.postPublish(20L, SlowCatcher.SLOW_TAG);
+        assertEquals(1, detector.getCount());
+
+        List<SlowInvocation> invocations = detector.getSlowInvocations();
+        assertEquals(1, invocations.size());
+        SlowInvocation invocation = invocations.get(0);
+        assertEquals(SlowCatcher.class, invocation.listenerClass);
+        assertEquals(SlowCatcher.class.getMethod("onSlow", Long.class), invocation.method);
+        assertEquals(SlowCatcher.SLOW_TAG, invocation.tag);
+        assertEquals(Long.class, invocation.eventClass);
+        assertTrue(invocation.mainThread);
+        assertTrue(invocation.durationNanos >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), invocation.budgetNanos);
+    }
+
+    @Test
+    public void testBackgroundBudget() throws InterruptedException, NoSuchMethodException {
+        SlowSubscriberDetector detector = new SlowSubscriberDetector.Builder()
+                .mainThreadBudget(1, TimeUnit.MILLISECONDS)
+                .budget(50, TimeUnit.MILLISECONDS)
+                .build();
+        RxBus bus = createBus(detector);
+        bus.register(new SlowCatcher());
+
+        // over the main thread budget but within the computation one, then over it; both are
+        // delivered in turn by the same dispatcher
+        bus.postPublish(10, SlowCatcher.SLOW_TAG);
+        bus.postPublish(80, SlowCatcher.SLOW_TAG);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (detector.getCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, detector.getCount());
+        SlowInvocation invocation = detector.getSlowInvocations().get(0);
+        assertEquals(SlowCatcher.class.getMethod("onSlowComputed", Integer.class), invocation.method);
+        assertEquals(Integer.class, invocation.eventClass);
+        assertFalse(invocation.mainThread);
+        assertTrue(invocation.durationNanos >= TimeUnit.MILLISECONDS.toNanos(80));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), invocation.budgetNanos);
+    }
+
+    @Test
+    public void testRingBuffer() {
+        SlowSubscriberDetector detector = new SlowSubscriberDetector.Builder()
+                .mainThreadBudget(1, TimeUnit.MILLISECONDS)
+                .capacity(2)
+                .build();
+        RxBus bus = createBus(detector);
+        bus.register(new SlowCatcher());
+
+        bus.postPublish(2L, SlowCatcher.SLOW_TAG);
+        bus.postPublish(20L, SlowCatcher.SLOW_TAG);
+        bus.postPublish(40L, SlowCatcher.SLOW_TAG);
+
+        // only the last two are kept, oldest first
+        assertEquals(3, detector.getCount());
+        List<SlowInvocation> invocations = detector.getSlowInvocations();
+        assertEquals(2, invocations.size());
+        assertTrue(invocations.get(0).durationNanos >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(invocations.get(1).durationNanos >= TimeUnit.MILLISECONDS.toNanos(40));
+
+        String dump = detector.dump();
+        assertThat(dump).startsWith("3 slow subscriber invocations");
+        assertThat(dump.split("\n")).hasSize(3);
+        assertThat(dump).contains(SlowCatcher.class.getName() + ".onSlow(Long) on tag " + SlowCatcher.SLOW_TAG);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityPowerOfTwo() {
+        new SlowSubscriberDetector.Builder().capacity(3).build();
+    }
+}
@@ -0,0 +1,30 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A SubscriberEvent mock that subscribes to superclasses of the posted events, without interfaces.
+ */
+public class SupertypeCatcher {
+    public List<String> strings = new ArrayList<>();
+    public List<Object> objects = new ArrayList<>();
+    public List<Number> numbers = new ArrayList<>();
+
+    @Subscribe
+    public void onString(String event) {
+        strings.add(event);
+    }
+
+    @Subscribe
+    public void onObject(Object event) {
+        objects.add(event);
+    }
+
+    @Subscribe
+    public void onNumber(Number event) {
+        numbers.add(event);
+    }
+}
@@ -0,0 +1,20 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.platform.Platform;
+
+/**
+ * A {@link Platform} whose main thread is the test thread, running main thread tasks right away the way
+ * an idle UI thread looper does, so the tests register and post as an app would on the UI thread.
+ */
+final class TestPlatform {
+
+    private TestPlatform() {
+    }
+
+    static void installOnCurrentThread() {
+        Thread testThread = Thread.currentThread();
+        Platform.install(new Platform.Builder()
+                .mainThread(Runnable::run, () -> Thread.currentThread() == testThread)
+                .build());
+    }
+}
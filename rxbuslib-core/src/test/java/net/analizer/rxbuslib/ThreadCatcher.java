@@ -0,0 +1,36 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A SubscriberEvent mock that records Integers and the threads they were delivered on.
+ */
+public class ThreadCatcher {
+    public final List<Integer> mainEvents = new ArrayList<>();
+    public final List<Thread> mainThreads = new ArrayList<>();
+    public final List<Integer> computationEvents = new ArrayList<>();
+    public final List<Thread> computationThreads = new ArrayList<>();
+    public final CountDownLatch computationLatch;
+
+    public ThreadCatcher(int expectedComputationEvents) {
+        computationLatch = new CountDownLatch(expectedComputationEvents);
+    }
+
+    @Subscribe
+    public void onMainThread(Integer event) {
+        mainEvents.add(event);
+        mainThreads.add(Thread.currentThread());
+    }
+
+    @Subscribe(observeOn = EventThread.COMPUTATION)
+    public void onComputation(Integer event) {
+        computationEvents.add(event);
+        computationThreads.add(Thread.currentThread());
+        computationLatch.countDown();
+    }
+}
@@ -0,0 +1,28 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A SubscriberEvent mock that records Integers on whichever thread the bus delivers them.
+ */
+public class TrampolineCatcher {
+    public final List<Integer> events = new ArrayList<>();
+    public final List<Thread> threads = new ArrayList<>();
+    public final CountDownLatch latch;
+
+    public TrampolineCatcher(int expectedEvents) {
+        latch = new CountDownLatch(expectedEvents);
+    }
+
+    @Subscribe(observeOn = EventThread.TRAMPOLINE)
+    public void onInteger(Integer event) {
+        events.add(event);
+        threads.add(Thread.currentThread());
+        latch.countDown();
+    }
+}
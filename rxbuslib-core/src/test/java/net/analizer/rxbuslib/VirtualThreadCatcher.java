@@ -0,0 +1,39 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.threads.EventThread;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A SubscriberEvent mock with a {@link EventThread#VIRTUAL} subscriber blocking until {@link #release()},
+ * keeping track of how many of its invocations ran at once.
+ */
+public class VirtualThreadCatcher {
+    public static final String TAG = "virtual";
+
+    public final List<Integer> events = new CopyOnWriteArrayList<>();
+    public final List<String> threadNames = new CopyOnWriteArrayList<>();
+    public final AtomicInteger running = new AtomicInteger();
+    public final AtomicInteger maxRunning = new AtomicInteger();
+
+    private final CountDownLatch mGate = new CountDownLatch(1);
+    public void release() {
+        mGate.countDown();
+    }
+
+    @Subscribe(observeOn = EventThread.VIRTUAL, tags = {@SubscribeTag(TAG)})
+    public void onBlocking(Integer event) throws InterruptedException {
+        int nowRunning = running.incrementAndGet();
+        maxRunning.accumulateAndGet(nowRunning, Math::max);
+        threadNames.add(Thread.currentThread().getName());
+
+        mGate.await();
+        events.add(event);
+        running.decrementAndGet();
+    }
+}
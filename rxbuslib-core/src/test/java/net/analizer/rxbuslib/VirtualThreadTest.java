@@ -0,0 +1,85 @@
+package net.analizer.rxbuslib;
+
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Test case for {@link EventThread#VIRTUAL} subscribers, on virtual threads from Java 21 and on the
+ * {@link EventThread#IO} fallback before.
+ */
+public class VirtualThreadTest {
+
+    @Before
+    public void setUp() {
+        TestPlatform.installOnCurrentThread();
+    }
+
+    @Test
+    public void testDeliveredOnAnyRuntime() throws InterruptedException {
+        RxBus bus = new RxBus.Builder().threadEnforcer(ThreadEnforcer.ANY).build();
+        VirtualThreadCatcher catcher = new VirtualThreadCatcher();
+        bus.register(catcher);
+        catcher.release();
+
+        List<Integer> posted = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            bus.postPublish(i, VirtualThreadCatcher.TAG);
+            posted.add(i);
+        }
+
+        assertTrue(awaitSize(catcher, 20));
+        assertThat(catcher.events).containsOnlyElementsOf(posted);
+    }
+
+    @Test
+    public void testConcurrencyCap() throws InterruptedException {
+        assumeTrue(EventThread.isVirtualSupported());
+
+        RxBus bus = new RxBus.Builder()
+                .threadEnforcer(ThreadEnforcer.ANY)
+                .virtualThreadConcurrency(3)
+                .build();
+        VirtualThreadCatcher catcher = new VirtualThreadCatcher();
+        bus.register(catcher);
+
+        for (int i = 0; i < 10; i++) {
+            bus.postPublish(i, VirtualThreadCatcher.TAG);
+        }
+
+        // all blocked: three invocations running, the others waiting for a permit
+        long deadline = System.currentTimeMillis() + 5000;
+        while (catcher.running.get() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+        assertEquals(3, catcher.running.get());
+        assertEquals(3, catcher.maxRunning.get());
+
+        catcher.release();
+        assertTrue(awaitSize(catcher, 10));
+        assertEquals(3, catcher.maxRunning.get());
+        for (String threadName : catcher.threadNames) {
+            assertThat(threadName).startsWith("RxBus-virtual-");
+        }
+    }
+
+    private static boolean awaitSize(VirtualThreadCatcher catcher, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (catcher.events.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        return catcher.events.size() == size;
+    }
+}
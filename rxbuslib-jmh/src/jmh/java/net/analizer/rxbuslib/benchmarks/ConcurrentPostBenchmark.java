@@ -0,0 +1,80 @@
+package net.analizer.rxbuslib.benchmarks;
+
+import net.analizer.rxbuslib.RxBus;
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post throughput with several producer threads, optionally while another thread keeps
+ * registering and unregistering a listener on the same event type. Posting only reads the
+ * subscriber arrays, so the score should scale with the number of producers:
+ * compare runs with {@code -t 1}, {@code -t 2}, {@code -t 4}, ...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConcurrentPostBenchmark {
+
+    @Param({"10"})
+    public int subscribers;
+
+    private RxBus bus;
+    private Listener churnListener;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        bus = new RxBus(ThreadEnforcer.ANY, "bench");
+        for (int i = 0; i < subscribers; i++) {
+            bus.register(new Listener(blackhole));
+        }
+        churnListener = new Listener(blackhole);
+    }
+
+    @Benchmark
+    public void post() {
+        bus.postPublish("event");
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(3)
+    public void postWhileRegistering() {
+        bus.postPublish("event");
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public void registerAndUnregister() {
+        bus.register(churnListener);
+        bus.unRegister(churnListener);
+    }
+
+    public static class Listener {
+        private final Blackhole blackhole;
+
+        Listener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE)
+        public void onString(String event) {
+            blackhole.consume(event);
+        }
+    }
+}
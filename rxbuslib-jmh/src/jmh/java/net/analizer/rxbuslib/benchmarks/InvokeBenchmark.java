@@ -0,0 +1,58 @@
+package net.analizer.rxbuslib.benchmarks;
+
+import net.analizer.rxbuslib.RxBus;
+import net.analizer.rxbuslib.annotations.AnnotationProcessor;
+import net.analizer.rxbuslib.annotations.IndexedAnnotationProcessor;
+import net.analizer.rxbuslib.annotations.InvokerStrategy;
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscriptionAnnotationProcessor;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-event cost of delivering to a single subscriber, depending on how the subscriber method is invoked:
+ * through one of the runtime {@link InvokerStrategy}s, or through the direct-call invoker of the index
+ * generated by rxbuslib-compiler ({@code generated}).
+ */
+@State(Scope.Benchmark)
+public class InvokeBenchmark {
+
+    @Param({"REFLECTION", "METHOD_HANDLE", "LAMBDA", "generated"})
+    public String invoker;
+
+    private RxBus bus;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        AnnotationProcessor annotationProcessor = "generated".equals(invoker)
+                ? new IndexedAnnotationProcessor()
+                : new SubscriptionAnnotationProcessor(InvokerStrategy.valueOf(invoker));
+        bus = new RxBus(ThreadEnforcer.ANY, "bench", annotationProcessor);
+        bus.register(new Listener(blackhole));
+    }
+
+    @Benchmark
+    public void postPublish() {
+        bus.postPublish(42);
+    }
+
+    public static class Listener {
+        private final Blackhole blackhole;
+
+        Listener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE)
+        public void onValue(int value) {
+            blackhole.consume(value);
+        }
+    }
+}
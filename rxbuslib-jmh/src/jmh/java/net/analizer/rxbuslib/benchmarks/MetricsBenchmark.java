@@ -0,0 +1,63 @@
+package net.analizer.rxbuslib.benchmarks;
+
+import net.analizer.rxbuslib.RxBus;
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.metrics.DefaultBusMetrics;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link DefaultBusMetrics} on posting to one subscriber: a post counter, a dead post
+ * check, two {@link System#nanoTime()} calls and a histogram update. Without metrics the bus skips
+ * all of it, so {@code none} is the plain post of {@link PostBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MetricsBenchmark {
+
+    @Param({"none", "default"})
+    public String metrics;
+
+    private RxBus bus;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        RxBus.Builder builder = new RxBus.Builder().threadEnforcer(ThreadEnforcer.ANY).identifier("bench");
+        if ("default".equals(metrics)) {
+            builder.metrics(new DefaultBusMetrics());
+        }
+        bus = builder.build();
+        bus.register(new Listener(blackhole));
+    }
+
+    @Benchmark
+    public void post() {
+        bus.postPublish("event");
+    }
+
+    public static class Listener {
+        private final Blackhole blackhole;
+
+        Listener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE)
+        public void onString(String event) {
+            blackhole.consume(event);
+        }
+    }
+}
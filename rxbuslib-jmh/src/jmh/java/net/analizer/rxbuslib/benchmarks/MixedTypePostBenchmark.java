@@ -0,0 +1,67 @@
+package net.analizer.rxbuslib.benchmarks;
+
+import net.analizer.rxbuslib.RxBus;
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of posting to one subscriber while a growing number of subscribers of an
+ * unrelated event class share the same tag. With the per-class dispatch index the
+ * score should stay flat across {@link #unrelatedSubscribers}.
+ */
+@State(Scope.Benchmark)
+public class MixedTypePostBenchmark {
+
+    @Param({"0", "10", "100", "1000"})
+    public int unrelatedSubscribers;
+
+    private RxBus bus;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        bus = new RxBus(ThreadEnforcer.ANY, "bench");
+        bus.register(new StringListener(blackhole));
+        for (int i = 0; i < unrelatedSubscribers; i++) {
+            bus.register(new IntegerListener(blackhole));
+        }
+    }
+
+    @Benchmark
+    public void postPublish() {
+        bus.postPublish("event");
+    }
+
+    public static class StringListener {
+        private final Blackhole blackhole;
+
+        StringListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE)
+        public void onString(String event) {
+            blackhole.consume(event);
+        }
+    }
+
+    public static class IntegerListener {
+        private final Blackhole blackhole;
+
+        IntegerListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE)
+        public void onInteger(Integer event) {
+            blackhole.consume(event);
+        }
+    }
+}
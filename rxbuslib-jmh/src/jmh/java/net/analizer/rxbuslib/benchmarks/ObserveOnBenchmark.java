@@ -0,0 +1,97 @@
+package net.analizer.rxbuslib.benchmarks;
+
+import net.analizer.rxbuslib.RxBus;
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Throughput of delivering events to subscribers observing on {@link EventThread#COMPUTATION}.
+ * Each operation posts a burst of {@link #EVENTS} events and waits until every subscriber got them.
+ * <p>
+ * <p>{@link #scheduleEachDelivery()} is the baseline of one scheduler hop per event and subscriber,
+ * which the batched dispatch of the bus replaces with one hop per drain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ObserveOnBenchmark {
+
+    private static final int EVENTS = 100;
+
+    @Param({"1", "10", "100"})
+    public int subscribers;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private RxBus bus;
+    private Scheduler scheduler;
+    private Listener[] listeners;
+
+    @Setup
+    public void setUp() {
+        bus = new RxBus(ThreadEnforcer.ANY, "bench");
+        scheduler = Schedulers.computation();
+        listeners = new Listener[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            listeners[i] = new Listener(delivered);
+            bus.register(listeners[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void postBatched() {
+        long expected = delivered.get() + (long) EVENTS * subscribers;
+        for (int i = 0; i < EVENTS; i++) {
+            bus.postPublish("event");
+        }
+        awaitDelivered(expected);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void scheduleEachDelivery() {
+        long expected = delivered.get() + (long) EVENTS * subscribers;
+        for (int i = 0; i < EVENTS; i++) {
+            for (Listener listener : listeners) {
+                scheduler.scheduleDirect(() -> listener.onString("event"));
+            }
+        }
+        awaitDelivered(expected);
+    }
+
+    private void awaitDelivered(long expected) {
+        while (delivered.get() < expected) {
+            Thread.yield();
+        }
+    }
+
+    public static class Listener {
+        private final AtomicLong delivered;
+
+        Listener(AtomicLong delivered) {
+            this.delivered = delivered;
+        }
+
+        @Subscribe(observeOn = EventThread.COMPUTATION)
+        public void onString(String event) {
+            delivered.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package net.analizer.rxbuslib.benchmarks;
+
+import net.analizer.rxbuslib.RxBus;
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscriptionType;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk-loading {@link #BATCH_SIZE} events with one post per event, with a single postAll, and with
+ * postAll to a batch subscriber. Scores are per event.
+ */
+@State(Scope.Benchmark)
+public class PostAllBenchmark {
+    private static final int BATCH_SIZE = 10000;
+
+    private RxBus bus;
+    private RxBus batchBus;
+    private List<Integer> events;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        bus = new RxBus(ThreadEnforcer.ANY, "bench");
+        bus.register(new IntegerListener(blackhole));
+        batchBus = new RxBus(ThreadEnforcer.ANY, "bench-batch");
+        batchBus.register(new BatchListener(blackhole));
+
+        events = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            events.add(i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void postEach() {
+        for (Integer event : events) {
+            bus.postPublish(event);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void postAll() {
+        bus.postAll(SubscriptionType.PUBLISH, events);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void postAllToBatchSubscriber() {
+        batchBus.postAll(SubscriptionType.PUBLISH, events);
+    }
+
+    public static class IntegerListener {
+        private final Blackhole blackhole;
+
+        IntegerListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE)
+        public void onInteger(Integer event) {
+            blackhole.consume(event);
+        }
+    }
+
+    public static class BatchListener {
+        private final Blackhole blackhole;
+
+        BatchListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE, batch = true)
+        public void onIntegers(List<Integer> events) {
+            blackhole.consume(events);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package net.analizer.rxbuslib.benchmarks;
+
+import net.analizer.rxbuslib.RxBus;
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeBehavior;
+import net.analizer.rxbuslib.annotations.SubscribeReplay;
+import net.analizer.rxbuslib.annotations.SubscriptionType;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single post delivered on the posting thread, by subscription type and number of
+ * subscribers. The sample mode reports the latency percentiles of one post, the single subscriber
+ * runs giving the fixed cost of the bus; run with {@code -prof gc} for the allocation per post.
+ * <p>
+ * <p>Replay subscribers keep the last event only, so that the history does not grow over the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int subscribers;
+
+    @Param({"PUBLISH", "REPLAY", "BEHAVIOR"})
+    public String subscriptionType;
+
+    private RxBus bus;
+    private int type;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        bus = new RxBus(ThreadEnforcer.ANY, "bench");
+        for (int i = 0; i < subscribers; i++) {
+            switch (subscriptionType) {
+                case "REPLAY":
+                    type = SubscriptionType.REPLAY;
+                    bus.register(new ReplayListener(blackhole));
+                    break;
+
+                case "BEHAVIOR":
+                    type = SubscriptionType.BEHAVIOR;
+                    bus.register(new BehaviorListener(blackhole));
+                    break;
+
+                default:
+                    type = SubscriptionType.PUBLISH;
+                    bus.register(new PublishListener(blackhole));
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    public void post() {
+        bus.post(type, "event");
+    }
+
+    public static class PublishListener {
+        private final Blackhole blackhole;
+
+        PublishListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE)
+        public void onString(String event) {
+            blackhole.consume(event);
+        }
+    }
+
+    public static class ReplayListener {
+        private final Blackhole blackhole;
+
+        ReplayListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @SubscribeReplay(observeOn = EventThread.TRAMPOLINE, maxSize = 1)
+        public void onString(String event) {
+            blackhole.consume(event);
+        }
+    }
+
+    public static class BehaviorListener {
+        private final Blackhole blackhole;
+
+        BehaviorListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @SubscribeBehavior(observeOn = EventThread.TRAMPOLINE)
+        public void onString(String event) {
+            blackhole.consume(event);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package net.analizer.rxbuslib.benchmarks;
+
+import net.analizer.rxbuslib.RxBus;
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posting a counter value to an annotated {@link Integer} subscriber, which boxes it, compared to
+ * posting it to an {@code IntSubscriber}, which does not. Run with {@code -prof gc} to see the boxes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrimitivePostBenchmark {
+    private static final String BOXED_TAG = "boxed";
+    private static final String PRIMITIVE_TAG = "primitive";
+
+    private RxBus bus;
+    private int counter;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        bus = new RxBus(ThreadEnforcer.ANY, "bench");
+        bus.register(new IntegerListener(blackhole));
+        bus.subscribeInt(PRIMITIVE_TAG, blackhole::consume);
+    }
+
+    @Benchmark
+    public void postBoxed() {
+        // out of the range of the Integer cache
+        bus.postPublish(1000 + (counter++ & 0xffff), BOXED_TAG);
+    }
+
+    @Benchmark
+    public void postInt() {
+        bus.postInt(PRIMITIVE_TAG, 1000 + (counter++ & 0xffff));
+    }
+
+    public static class IntegerListener {
+        private final Blackhole blackhole;
+
+        IntegerListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE, tags = {@SubscribeTag(BOXED_TAG)})
+        public void onInteger(Integer event) {
+            blackhole.consume(event);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package net.analizer.rxbuslib.benchmarks;
+
+import net.analizer.rxbuslib.RxBus;
+import net.analizer.rxbuslib.annotations.AnnotationProcessor;
+import net.analizer.rxbuslib.annotations.IndexedAnnotationProcessor;
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.annotations.SubscribeBehavior;
+import net.analizer.rxbuslib.annotations.SubscribeReplay;
+import net.analizer.rxbuslib.annotations.SubscribeTag;
+import net.analizer.rxbuslib.annotations.SubscriptionAnnotationProcessor;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of registering and unregistering a listener, discovering its subscriber methods
+ * either through the reflection scan or through the index generated by rxbuslib-compiler.
+ */
+@State(Scope.Benchmark)
+public class RegisterBenchmark {
+
+    @Param({"reflection", "indexed"})
+    public String processor;
+
+    private RxBus bus;
+
+    @Setup
+    public void setUp() {
+        AnnotationProcessor annotationProcessor = "indexed".equals(processor)
+                ? new IndexedAnnotationProcessor()
+                : new SubscriptionAnnotationProcessor();
+        bus = new RxBus(ThreadEnforcer.ANY, "bench", annotationProcessor);
+    }
+
+    @Benchmark
+    public void registerUnRegister() {
+        ScreenListener listener = new ScreenListener();
+        bus.register(listener);
+        bus.unRegister(listener);
+    }
+
+    /**
+     * A listener shaped like a typical screen: a handful of subscriptions among plain methods.
+     */
+    public static class ScreenListener {
+        public int state;
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE)
+        public void onTitle(String title) {
+            state++;
+        }
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE, tags = {@SubscribeTag("progress")})
+        public void onProgress(Integer progress) {
+            state++;
+        }
+
+        @SubscribeReplay(observeOn = EventThread.TRAMPOLINE)
+        public void onHistory(Long timestamp) {
+            state++;
+        }
+
+        @SubscribeBehavior(observeOn = EventThread.TRAMPOLINE, tags = {@SubscribeTag("cart")})
+        public void onCart(Double amount) {
+            state++;
+        }
+
+        public void render() {
+            state = 0;
+        }
+
+        public int getState() {
+            return state;
+        }
+
+        public void setState(int state) {
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package net.analizer.rxbuslib.benchmarks;
+
+import net.analizer.rxbuslib.RxBus;
+import net.analizer.rxbuslib.annotations.Subscribe;
+import net.analizer.rxbuslib.threads.EventThread;
+import net.analizer.rxbuslib.threads.ThreadEnforcer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of asynchronous delivery off the posting thread, through the default engine
+ * (Subject, then a batched hop to {@link EventThread#COMPUTATION}) or through the ring buffer
+ * engine (preallocated slot, then delivery on its consumer thread). Each operation posts a burst
+ * of {@link #EVENTS} events and waits until the subscriber got them. Run with {@code -prof gc}
+ * to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RingBufferBenchmark {
+
+    private static final int EVENTS = 100;
+
+    @Param({"subject", "ringBuffer"})
+    public String engine;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private RxBus bus;
+
+    @Setup
+    public void setUp() {
+        if ("ringBuffer".equals(engine)) {
+            bus = new RxBus.Builder()
+                    .threadEnforcer(ThreadEnforcer.ANY)
+                    .identifier("bench")
+                    .ringBuffer(1024, 1)
+                    .build();
+            bus.register(new ConsumerThreadListener(delivered));
+        } else {
+            bus = new RxBus(ThreadEnforcer.ANY, "bench");
+            bus.register(new ComputationListener(delivered));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void post() {
+        long expected = delivered.get() + EVENTS;
+        for (int i = 0; i < EVENTS; i++) {
+            bus.postPublish("event");
+        }
+        while (delivered.get() < expected) {
+            Thread.yield();
+        }
+    }
+
+    public static class ComputationListener {
+        private final AtomicLong delivered;
+
+        ComputationListener(AtomicLong delivered) {
+            this.delivered = delivered;
+        }
+
+        @Subscribe(observeOn = EventThread.COMPUTATION)
+        public void onString(String event) {
+            delivered.incrementAndGet();
+        }
+    }
+
+    public static class ConsumerThreadListener {
+        private final AtomicLong delivered;
+
+        ConsumerThreadListener(AtomicLong delivered) {
+            this.delivered = delivered;
+        }
+
+        @Subscribe(observeOn = EventThread.TRAMPOLINE)
+        public void onString(String event) {
+            delivered.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+# Subscriber methods are looked up by name, either by the reflection scan or through the
+# indexes generated by rxbuslib-compiler, which are themselves found by class name.
+-keepclassmembers class * {
+    @net.analizer.rxbuslib.annotations.Subscribe public *;
+    @net.analizer.rxbuslib.annotations.SubscribeReplay public *;
+    @net.analizer.rxbuslib.annotations.SubscribeBehavior public *;
+}
+-keepnames class * {
+    @net.analizer.rxbuslib.annotations.Subscribe public *;
+    @net.analizer.rxbuslib.annotations.SubscribeReplay public *;
+    @net.analizer.rxbuslib.annotations.SubscribeBehavior public *;
+}
+-keep class **_RxBusIndex {
+    public <init>();
+}
+
+# The core module finds the Android platform by class name, without it main thread subscribers
+# would run on a thread of the bus instead of the UI thread.
+-keep class net.analizer.rxbuslib.android.AndroidPlatform {
+    public static *** create();
+}
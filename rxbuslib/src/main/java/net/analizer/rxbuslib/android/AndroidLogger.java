@@ -0,0 +1,33 @@
+package net.analizer.rxbuslib.android;
+
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import net.analizer.rxbuslib.BuildConfig;
+import net.analizer.rxbuslib.platform.Logger;
+
+/**
+ * Logs the messages of the bus to logcat.
+ */
+final class AndroidLogger implements Logger {
+
+    @Override
+    public boolean isDebugEnabled() {
+        return BuildConfig.DEBUG;
+    }
+
+    @Override
+    public void debug(@NonNull String tag, @NonNull String message) {
+        Log.d(tag, message);
+    }
+
+    @Override
+    public void warn(@NonNull String tag, @NonNull String message) {
+        Log.w(tag, message);
+    }
+
+    @Override
+    public void error(@NonNull String tag, @NonNull String message) {
+        Log.e(tag, message);
+    }
+}
@@ -0,0 +1,28 @@
+package net.analizer.rxbuslib.android;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+
+import net.analizer.rxbuslib.platform.Platform;
+
+/**
+ * The {@link Platform} of the bus on Android: main thread subscribers run on the UI thread, and
+ * messages go to logcat, debug ones in debug builds of the library only.
+ * <p>
+ * <p>It is found by class name on first use of the bus, so there is nothing to install.
+ */
+public final class AndroidPlatform {
+
+    private AndroidPlatform() {
+    }
+
+    @NonNull
+    public static Platform create() {
+        Handler handler = new Handler(Looper.getMainLooper());
+        return new Platform.Builder()
+                .logger(new AndroidLogger())
+                .mainThread(handler::post, () -> Looper.myLooper() == Looper.getMainLooper())
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package net.analizer.rxbuslib.android;
+
+import net.analizer.rxbuslib.BuildConfig;
+import net.analizer.rxbuslib.platform.Platform;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Test case for {@link AndroidPlatform}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 16)
+public class AndroidPlatformTest {
+
+    @Test
+    public void testFoundByTheBus() {
+        assertTrue(Platform.get().getLogger() instanceof AndroidLogger);
+    }
+
+    @Test
+    public void testMainThread() throws InterruptedException {
+        Platform platform = AndroidPlatform.create();
+        assertTrue(platform.isMainThread());
+
+        AtomicBoolean ranOnMainThread = new AtomicBoolean();
+        platform.getMainThreadExecutor().execute(() -> ranOnMainThread.set(platform.isMainThread()));
+        assertTrue(ranOnMainThread.get());
+
+        AtomicBoolean backgroundIsMain = new AtomicBoolean(true);
+        Thread background = new Thread(() -> backgroundIsMain.set(platform.isMainThread()));
+        background.start();
+        background.join();
+        assertFalse(backgroundIsMain.get());
+    }
+}